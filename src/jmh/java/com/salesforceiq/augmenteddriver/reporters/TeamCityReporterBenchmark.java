@@ -0,0 +1,45 @@
+package com.salesforceiq.augmenteddriver.reporters;
+
+import com.google.common.io.ByteStreams;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the TeamCity output of one test, written to a stream that discards it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TeamCityReporterBenchmark {
+    private final TeamCityReporter reporter = new TeamCityReporter(ByteStreams.nullOutputStream(), "chrome");
+    private final Description passed = Description.createTestDescription(LoginTest.class, "login");
+    private final Description failed = Description.createTestDescription(LoginTest.class, "logout");
+    private final Failure failure = new Failure(failed, new AssertionError("Expected the login page"));
+
+    /**
+     * The reporter names the suites after the class of the test.
+     */
+    public static class LoginTest {
+    }
+
+    @Benchmark
+    public void passedTest() {
+        reporter.testStarted(passed);
+        reporter.testFinished(passed);
+    }
+
+    @Benchmark
+    public void failedTest() {
+        reporter.testStarted(failed);
+        reporter.testFailure(failure);
+        reporter.testFinished(failed);
+    }
+}
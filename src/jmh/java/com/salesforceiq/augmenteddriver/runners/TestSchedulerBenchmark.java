@@ -0,0 +1,54 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.util.concurrent.FutureCallback;
+import org.junit.runner.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling overhead of TestSuiteRunner: queueing tests in the TestScheduler, running them on its workers and
+ * tracking them with the CompletionTracker, with tests that do nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TestSchedulerBenchmark {
+    private static final FutureCallback<AugmentedResult> IGNORE = new FutureCallback<AugmentedResult>() {
+        @Override
+        public void onSuccess(AugmentedResult result) {
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+        }
+    };
+
+    @Param({"1000"})
+    public int tests;
+
+    @Param({"1", "10"})
+    public int parallel;
+
+    @Benchmark
+    public int runSuite() throws InterruptedException {
+        // No admission limit, the rate limiter would be all there is to measure.
+        TestScheduler scheduler = new TestScheduler(parallel, Double.MAX_VALUE);
+        CompletionTracker tracker = new CompletionTracker();
+        for (int index = 0; index < tests; index++) {
+            String name = "test" + index;
+            tracker.track(scheduler.submit(() -> new AugmentedResult(name, new Result(), new TestOutput(0))), IGNORE);
+        }
+        scheduler.shutdown();
+        if (!tracker.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Tests did not finish");
+        }
+        return tracker.passed();
+    }
+}
@@ -0,0 +1,14 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Test;
+
+/**
+ * Suite found by TestsFinderBenchmark.
+ */
+@Suites(TestsFinderBenchmark.SUITE)
+public class BenchmarkSuite {
+
+    @Test
+    public void test() {
+    }
+}
@@ -0,0 +1,79 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In memory SearchContext that answers every find after a fixed latency, standing for the round trip to the browser.
+ *
+ * <p>
+ *     The elements are found from the findsUntilFound-th find on, so the waits can be measured both when the element
+ *     is already there and when they have to poll. reset starts counting again.
+ * </p>
+ */
+public class FakeSearchContext implements SearchContext {
+    private final List<WebElement> elements;
+    private final long latencyInNanoseconds;
+    private final int findsUntilFound;
+    private final AtomicInteger finds;
+
+    /**
+     * @param elements how many elements every find returns.
+     * @param latencyInMicroseconds how long every find takes.
+     * @param findsUntilFound from which find on the elements are there, 1 if they are from the start.
+     */
+    public FakeSearchContext(int elements, long latencyInMicroseconds, int findsUntilFound) {
+        Preconditions.checkArgument(elements > 0, "elements should be greater than 0, got %s", elements);
+        Preconditions.checkArgument(latencyInMicroseconds >= 0, "latencyInMicroseconds should not be negative, got %s", latencyInMicroseconds);
+        Preconditions.checkArgument(findsUntilFound > 0, "findsUntilFound should be greater than 0, got %s", findsUntilFound);
+
+        ImmutableList.Builder<WebElement> builder = ImmutableList.builder();
+        for (int index = 0; index < elements; index++) {
+            builder.add(new FakeWebElement(this, "element " + index));
+        }
+        this.elements = builder.build();
+        this.latencyInNanoseconds = TimeUnit.MICROSECONDS.toNanos(latencyInMicroseconds);
+        this.findsUntilFound = findsUntilFound;
+        this.finds = new AtomicInteger();
+    }
+
+    /**
+     * Starts counting the finds again, so the next find does not find the elements unless findsUntilFound is 1.
+     */
+    public void reset() {
+        finds.set(0);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        latency();
+        return finds.incrementAndGet() >= findsUntilFound ? elements : ImmutableList.of();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        List<WebElement> found = findElements(by);
+        if (found.isEmpty()) {
+            throw new NoSuchElementException(String.format("No element %s yet", by));
+        }
+        return found.get(0);
+    }
+
+    /**
+     * Every call to the element (isDisplayed, getText...) also pays the latency.
+     */
+    void latency() {
+        if (latencyInNanoseconds > 0) {
+            LockSupport.parkNanos(latencyInNanoseconds);
+        }
+    }
+}
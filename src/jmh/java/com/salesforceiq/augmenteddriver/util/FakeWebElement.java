@@ -0,0 +1,118 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * In memory WebElement that is visible, enabled and never moves, every call pays the latency of its context.
+ */
+public class FakeWebElement implements WebElement {
+    private final FakeSearchContext context;
+    private final String text;
+
+    public FakeWebElement(FakeSearchContext context, String text) {
+        this.context = context;
+        this.text = text;
+    }
+
+    @Override
+    public void click() {
+        context.latency();
+    }
+
+    @Override
+    public void submit() {
+        context.latency();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        context.latency();
+    }
+
+    @Override
+    public void clear() {
+        context.latency();
+    }
+
+    @Override
+    public String getTagName() {
+        context.latency();
+        return "div";
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        context.latency();
+        return null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        context.latency();
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        context.latency();
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        context.latency();
+        return text;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return context.findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return context.findElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        context.latency();
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        context.latency();
+        return new Point(10, 20);
+    }
+
+    @Override
+    public Dimension getSize() {
+        context.latency();
+        return new Dimension(100, 30);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        context.latency();
+        return new Rectangle(new Point(10, 20), new Dimension(100, 30));
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        context.latency();
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw new UnsupportedOperationException("Fake elements have no screenshot");
+    }
+}
@@ -0,0 +1,39 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of PageObjectWaiter#waitUntilAfter, with a condition that is met after pollsUntilMet polls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageObjectWaiterBenchmark {
+
+    @Param({"1", "5"})
+    public int pollsUntilMet;
+
+    private final PageObject page = new PageObject() { };
+    private final PageObjectWaiter waiter = new PageObjectWaiter(10, PollingStrategy.fixed(0));
+    private int polls;
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        polls = 0;
+    }
+
+    @Benchmark
+    public void waitUntilAfter() {
+        waiter.waitUntilAfter(page, ignored -> ++polls >= pollsUntilMet, "Condition not met", 10);
+    }
+}
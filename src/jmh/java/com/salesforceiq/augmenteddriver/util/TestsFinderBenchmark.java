@@ -0,0 +1,41 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding the classes of a suite, what every runner pays when it starts.
+ *
+ * <p>
+ *     getTestClassesOfPackage reads the SuitesIndex written when this source set is compiled, scan reads every class
+ *     file of the framework like TestsFinder does when there is no index.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TestsFinderBenchmark {
+    static final String SUITE = "BENCHMARK";
+    private static final String PACKAGE = "com.salesforceiq.augmenteddriver";
+
+    // TestsFinder returns a raw List<Class>.
+    @SuppressWarnings("rawtypes")
+    @Benchmark
+    public List<Class> getTestClassesOfPackage() throws IOException {
+        return TestsFinder.getTestClassesOfPackage(ImmutableList.of(SUITE), PACKAGE);
+    }
+
+    @Benchmark
+    public List<SuitesScanner.ScannedClass> scan() throws IOException {
+        return SuitesScanner.scan(TestsFinderBenchmark.class.getClassLoader(), PACKAGE);
+    }
+}
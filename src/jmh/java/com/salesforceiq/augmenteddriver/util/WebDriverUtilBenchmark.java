@@ -0,0 +1,73 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the WebDriverUtil finders over the finds themselves.
+ *
+ * <p>
+ *     With latencyInMicroseconds 0 it is all framework time, compare with the latency of each find times the calls
+ *     to see what the finder adds. findsUntilFound above 1 makes the finders poll, with no sleep between polls.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WebDriverUtilBenchmark {
+    private static final By BY = By.id("benchmark");
+    private static final PollingStrategy NO_SLEEP = PollingStrategy.fixed(0);
+
+    @Param({"0", "100"})
+    public long latencyInMicroseconds;
+
+    @Param({"1", "3"})
+    public int findsUntilFound;
+
+    @Param({"1", "20"})
+    public int elements;
+
+    private FakeSearchContext context;
+
+    @Setup(Level.Trial)
+    public void createContext() {
+        context = new FakeSearchContext(elements, latencyInMicroseconds, findsUntilFound);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        context.reset();
+    }
+
+    @Benchmark
+    public WebElement findElementVisibleAfter() {
+        return WebDriverUtil.findElementVisibleAfter(context, BY, 10, NO_SLEEP);
+    }
+
+    @Benchmark
+    public WebElement findElementClickableAfter() {
+        return WebDriverUtil.findElementClickableAfter(context, BY, 10, NO_SLEEP);
+    }
+
+    @Benchmark
+    public WebElement findElementPresentAfter() {
+        return WebDriverUtil.findElementPresentAfter(context, BY, 10, NO_SLEEP);
+    }
+
+    @Benchmark
+    public List<WebElement> findElementsVisibleAfter() {
+        return WebDriverUtil.findElementsVisibleAfter(context, BY, 10, NO_SLEEP);
+    }
+}
@@ -0,0 +1,50 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.esotericsoftware.yamlbeans.YamlException;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading the capabilities file, done once per test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class YamlCapabilitiesConverterBenchmark {
+
+    private Path capabilities;
+
+    @Setup
+    public void writeCapabilities() throws IOException {
+        capabilities = Files.createTempFile("capabilities", ".yaml");
+        Files.write(capabilities, ImmutableList.of(
+                "capabilities: \"chrome\"",
+                "platform: \"OS X 10.10\"",
+                "version: \"47.0\"",
+                "screenResolution: \"1280x1024\""), StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void deleteCapabilities() throws IOException {
+        Files.deleteIfExists(capabilities);
+    }
+
+    @Benchmark
+    public DesiredCapabilities convert() throws YamlException {
+        return YamlCapabilitiesConverter.convert(capabilities);
+    }
+}
@@ -1,17 +1,37 @@
 package com.salesforceiq.augmenteddriver.guice;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
-import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.InitializationError;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * Runner that injects the tests with the modules of @GuiceModules and @ExtraModules.
+ *
+ * <p>
+ *     The modules marked with @SharedModule are configured once per process, and their bindings are cached by the
+ *     set of modules. Each test still gets its own Injector, with the cached bindings and the rest of the modules.
+ *     No parent Injector is shared, so Guice never creates just in time bindings (like the @Singleton integrations)
+ *     outside the Injector of the test.
+ * </p>
+ */
 public class GuiceTestRunner extends BlockJUnit4ClassRunner {
 
-    private final transient Injector injector;
+    private static final Map<Set<Class<? extends AbstractModule>>, List<Element>> SHARED_BINDINGS = new ConcurrentHashMap<>();
+
+    private final transient List<Element> sharedBindings;
+    private final List<Class<? extends AbstractModule>> testModules;
 
     /**
      * Constructor.
@@ -24,24 +44,32 @@ public class GuiceTestRunner extends BlockJUnit4ClassRunner {
 
         List<Class<? extends AbstractModule>> modules = getGuiceModulesFor(clazz);
         modules.addAll(getExtraModulesFor(clazz));
-        this.injector = this.createInjectorFor(modules);
+        Set<Class<? extends AbstractModule>> sharedModules = ImmutableSet.copyOf(modules.stream()
+                .filter(module -> module.isAnnotationPresent(SharedModule.class))
+                .collect(Collectors.toList()));
+        this.testModules = modules.stream()
+                .filter(module -> !sharedModules.contains(module))
+                .collect(Collectors.toList());
+        this.sharedBindings = SHARED_BINDINGS.computeIfAbsent(sharedModules,
+                shared -> Elements.getElements(instantiate(Lists.newArrayList(shared))));
     }
 
     @Override
     public final Object createTest() throws Exception {
         final Object obj = super.createTest();
-        this.injector.injectMembers(obj);
+        List<Module> modules = Lists.newArrayList(Elements.getModule(sharedBindings));
+        modules.addAll(instantiate(testModules));
+        Guice.createInjector(modules).injectMembers(obj);
         return obj;
     }
 
     /**
-     * Create a Guice Injector for the class under test.
+     * Instantiates the Guice Modules.
      *
      * @param classes Guice Modules
-     * @return A Guice Injector instance.
-     * @throws InitializationError If couldn't instantiate a module.
+     * @return the modules.
      */
-    private Injector createInjectorFor(final List<Class<? extends AbstractModule>> classes) throws InitializationError {
+    private static List<AbstractModule> instantiate(final List<Class<? extends AbstractModule>> classes) {
         List<AbstractModule> modules = Lists.newArrayList();
 
         for(Class<? extends AbstractModule> clazz : classes) {
@@ -52,7 +80,7 @@ public class GuiceTestRunner extends BlockJUnit4ClassRunner {
             }
         }
 
-        return Guice.createInjector(modules);
+        return modules;
     }
 
     private List<Class<? extends AbstractModule>> getGuiceModulesFor(final Class<?> clazz) throws InitializationError {
@@ -0,0 +1,16 @@
+package com.salesforceiq.augmenteddriver.guice;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a Guice Module without per test state (like PropertiesModule).
+ *
+ * <p>
+ *     GuiceTestRunner configures the shared modules once per process, and installs their bindings again in the
+ *     Injector of each test, next to the other modules.
+ * </p>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharedModule {
+}
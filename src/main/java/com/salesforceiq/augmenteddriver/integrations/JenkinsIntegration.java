@@ -7,21 +7,32 @@ import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.reporters.JUnitXmlReporter;
 import com.salesforceiq.augmenteddriver.util.Util;
+import org.junit.runner.Description;
 import org.junit.runner.notification.RunListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.lang.reflect.Method;
+import java.io.IOException;
 
 /**
  * Integration for Jenkins, writes results to an XML format that Jenkins reads.
+ *
+ * <p>
+ *     The runners call startSuite, so all the tests of the run go to one file. Otherwise every test is written to its
+ *     own file.
+ * </p>
  */
 public class JenkinsIntegration implements Integration {
+    private static final Logger LOG = LoggerFactory.getLogger(JenkinsIntegration.class);
 
     private final boolean jenkinsIntegration;
     private final File jenkinsXMLDir;
+    private volatile JUnitXmlReporter suiteReporter;
 
     @Inject
     public JenkinsIntegration(@Named(PropertiesModule.JENKINS_INTEGRATION) String jenkinsIntegration,
@@ -36,6 +47,37 @@ public class JenkinsIntegration implements Integration {
         }
     }
 
+    /**
+     * Starts writing all the tests to JENKINS_XML_DIR/TEST-suiteName.xml, until finishSuite.
+     *
+     * @param suiteName the name of the suite.
+     * @throws IOException if the file could not be created.
+     */
+    public synchronized void startSuite(String suiteName) throws IOException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(suiteName));
+        Preconditions.checkState(suiteReporter == null, "Suite %s already started", suiteName);
+
+        String fileName = String.format("TEST-%s.xml", suiteName.replaceAll("[^A-Za-z0-9._#-]", "_"));
+        suiteReporter = new JUnitXmlReporter(new File(jenkinsXMLDir, fileName).toPath(), suiteName);
+    }
+
+    /**
+     * Finishes the file started with startSuite, does nothing if there is none.
+     */
+    public synchronized void finishSuite() {
+        if (suiteReporter == null) {
+            return;
+        }
+        try {
+            suiteReporter.close();
+            LOG.info(String.format("Jenkins results written to %s", suiteReporter.getFile()));
+        } catch (IOException e) {
+            LOG.warn(String.format("Could not finish the Jenkins results %s", suiteReporter.getFile()), e);
+        } finally {
+            suiteReporter = null;
+        }
+    }
+
     /**
      * Creates a reporter that saves the results in an XML that Jenkins will parse later.
      *
@@ -44,11 +86,15 @@ public class JenkinsIntegration implements Integration {
      * @param nameAppender Name appender, if it has.
      * @throws FileNotFoundException if the directory is not there.
      */
-    public RunListener getReporter(Method test, String nameAppender) throws FileNotFoundException {
+    public RunListener getReporter(Description test, String nameAppender) throws FileNotFoundException {
         Preconditions.checkNotNull(test);
         Preconditions.checkNotNull(nameAppender);
 
-        File resultFile = new File(jenkinsXMLDir, String.format("%s:%s%s.xml", Util.shortenClass(test.getDeclaringClass()), test.getName(),
+        JUnitXmlReporter reporter = suiteReporter;
+        if (reporter != null) {
+            return reporter.listener(nameAppender);
+        }
+        File resultFile = new File(jenkinsXMLDir, String.format("%s:%s%s.xml", Util.shortenClass(test.getTestClass()), test.getMethodName(),
                                    Strings.isNullOrEmpty(nameAppender)? "" : "-" + nameAppender));
         AntXmlRunListener jenkinsRunListener = new AntXmlRunListener();
 
@@ -0,0 +1,137 @@
+package com.salesforceiq.augmenteddriver.integrations;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends the updates of the SauceLabs jobs from a background thread, merged in one call per session.
+ *
+ * <p>
+ *     The updates of a session (name, build...) are kept until the session finishes (passed) and then sent together
+ *     in one updateJobInfo, retrying with a backoff if it fails. flush sends the ones still pending and waits for all
+ *     of them, the runners call it when the suite finishes (and SauceLabsIntegration on shutdown).
+ * </p>
+ */
+public class SauceJobUpdater {
+    private static final Logger LOG = LoggerFactory.getLogger(SauceJobUpdater.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final BiConsumer<String, Map<String, Object>> client;
+    private final long initialBackoffInMilliseconds;
+    private final Map<String, Map<String, Object>> pending;
+    private final ExecutorService worker;
+
+    /**
+     * @param client sends the updates of one session, for example SauceREST#updateJobInfo.
+     * @param initialBackoffInMilliseconds how long to wait before the first retry, doubled on every retry.
+     */
+    public SauceJobUpdater(BiConsumer<String, Map<String, Object>> client, long initialBackoffInMilliseconds) {
+        Preconditions.checkArgument(initialBackoffInMilliseconds >= 0,
+                "initialBackoffInMilliseconds should not be negative, got %s", initialBackoffInMilliseconds);
+
+        this.client = Preconditions.checkNotNull(client);
+        this.initialBackoffInMilliseconds = initialBackoffInMilliseconds;
+        this.pending = new ConcurrentHashMap<>();
+        this.worker = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("sauce-updates-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Records an update, sent with the rest of the updates of the session.
+     *
+     * @param sessionId the session of the job.
+     * @param key what to update, for example name.
+     * @param value the new value.
+     */
+    public void update(String sessionId, String key, Object value) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(sessionId));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        Preconditions.checkNotNull(value);
+
+        pending.compute(sessionId, (ignored, updates) -> {
+            Map<String, Object> result = updates == null ? Maps.newHashMap() : updates;
+            result.put(key, value);
+            return result;
+        });
+    }
+
+    /**
+     * Sends the updates of a session in the background, never blocks.
+     *
+     * @param sessionId the session of the job.
+     */
+    public void send(String sessionId) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(sessionId));
+
+        worker.execute(() -> {
+            Map<String, Object> updates = pending.remove(sessionId);
+            if (updates != null) {
+                sendWithRetries(sessionId, ImmutableMap.copyOf(updates));
+            }
+        });
+    }
+
+    /**
+     * Sends all the pending updates and waits for them.
+     *
+     * @param timeout how long to wait.
+     * @param unit the unit of the timeout.
+     * @return true if all the updates were sent, false if the timeout was reached.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        pending.keySet().forEach(this::send);
+        // There is only one worker, so once this runs every update queued before was sent.
+        Future<?> flushed = worker.submit(() -> {});
+        try {
+            flushed.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            LOG.warn(String.format("SauceLabs updates not sent after %s %s", timeout, unit));
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void sendWithRetries(String sessionId, Map<String, Object> updates) {
+        long backoff = initialBackoffInMilliseconds;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                client.accept(sessionId, updates);
+                return;
+            } catch (RuntimeException e) {
+                LOG.warn(String.format("Could not update SauceLabs job %s with %s, attempt %s of %s",
+                        sessionId, updates, attempt, MAX_ATTEMPTS), e);
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff *= 2;
+            }
+        }
+        LOG.error(String.format("Could not update SauceLabs job %s after %s attempts", sessionId, MAX_ATTEMPTS));
+    }
+}
@@ -3,21 +3,39 @@ package com.salesforceiq.augmenteddriver.integrations;
 import com.salesforceiq.augmenteddriver.util.TestRunnerConfig;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.saucelabs.saucerest.SauceREST;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * In charge of interacting with SauceLabs
+ *
+ * <p>
+ *     The job updates do not block the tests, they are merged per session and sent in the background when the test
+ *     finishes (see SauceJobUpdater). The runners flush them when the suite finishes, and a shutdown hook flushes
+ *     them for the tests run from an IDE or a plain JUnit runner.
+ * </p>
  */
 @Singleton
 public class SauceLabsIntegration implements Integration {
+    private static final Logger LOG = LoggerFactory.getLogger(SauceLabsIntegration.class);
+
+    private static final long INITIAL_BACKOFF_IN_MILLISECONDS = 1000;
+    private static final long FLUSH_TIMEOUT_IN_SECONDS = 60;
+    // Shorter, so a SauceLabs outage does not hold the exit of the process for long.
+    private static final long SHUTDOWN_FLUSH_TIMEOUT_IN_SECONDS = 15;
+
+    /**
+     * Static since each test has its own Injector, same as the Slack session in SlackIntegration.
+     */
+    private static SauceJobUpdater updater;
 
     private final SauceREST sauceRest;
     private final TestRunnerConfig arguments;
@@ -46,6 +64,9 @@ public class SauceLabsIntegration implements Integration {
      */
     public void testPassed(boolean testPassed, String sessionId) {
         update("passed", testPassed, sessionId);
+        if (isEnabled()) {
+            updater().send(sessionId);
+        }
     }
 
     /**
@@ -95,9 +116,45 @@ public class SauceLabsIntegration implements Integration {
             Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
             Preconditions.checkNotNull(value);
 
-            Map<String, Object> updates = Maps.newHashMap();
-            updates.put(key, value);
-            sauceRest.updateJobInfo(sessionId, updates);
+            updater().update(sessionId, key, value);
+        }
+    }
+
+    /**
+     * Sends the job updates still pending and waits for them, called when the suite finishes.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        SauceJobUpdater current;
+        synchronized (SauceLabsIntegration.class) {
+            current = updater;
+        }
+        if (current != null) {
+            current.flush(FLUSH_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private SauceJobUpdater updater() {
+        synchronized (SauceLabsIntegration.class) {
+            if (updater == null) {
+                SauceJobUpdater created = new SauceJobUpdater(sauceRest::updateJobInfo, INITIAL_BACKOFF_IN_MILLISECONDS);
+                Runtime.getRuntime()
+                        .addShutdownHook(new Thread(() -> flushOnShutdown(created), "sauce-updates-flush"));
+                updater = created;
+            }
+            return updater;
+        }
+    }
+
+    private static void flushOnShutdown(SauceJobUpdater updater) {
+        try {
+            updater.flush(SHUTDOWN_FLUSH_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while sending the SauceLabs updates on shutdown");
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not send the SauceLabs updates on shutdown", e);
         }
     }
 
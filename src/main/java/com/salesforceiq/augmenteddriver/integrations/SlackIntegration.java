@@ -2,6 +2,7 @@ package com.salesforceiq.augmenteddriver.integrations;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -9,8 +10,10 @@ import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.runners.AugmentedResult;
 import com.ullink.slack.simpleslackapi.SlackAttachment;
 import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackPreparedMessage;
 import com.ullink.slack.simpleslackapi.SlackSession;
 import com.ullink.slack.simpleslackapi.impl.SlackSessionFactory;
+import com.ullink.slack.simpleslackapi.replies.SlackMessageReply;
 import org.junit.runner.Description;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +43,13 @@ public class SlackIntegration implements Integration, AutoCloseable {
     private static SlackChannel digestChannel;
     private static SlackSession slackSession;
     private static SlackChannel verboseChannel;
+    private static volatile SlackPublisher publisher;
+
+    private static final int QUEUE_CAPACITY = 1000;
+    // Slack allows about one message per second per channel.
+    private static final double MESSAGES_PER_SECOND = 1;
+    private static final long INITIAL_BACKOFF_IN_MILLISECONDS = 1000;
+    private static final int STACK_TRACE_LINES = 40;
 
     private final boolean enabled;
     private final String slackVerboseChannel;
@@ -67,7 +77,7 @@ public class SlackIntegration implements Integration, AutoCloseable {
     }
 
     /**
-     * It will send 2 attachments and one message:
+     * It will queue 3 attachments, sent in the same message:
      *
      * <ul>
      *     <li> The header, with the test name.</li>
@@ -75,82 +85,70 @@ public class SlackIntegration implements Integration, AutoCloseable {
      *     <li> A ``` code with the stacktrace.</li>
      * </ul>
      *
+     * <p>
+     *     Never blocks, the messages are sent in the background.
+     * </p>
+     *
      * @param description the test description from JUnit.
      * @param error reason of the failure.
-     * @param sessionId WebDriver session Id. (to link to saucelabs).
+     * @param sessionId WebDriver session Id. (to link to saucelabs, can be null).
      */
     public void failed(Description description, Throwable error, String sessionId) {
-        if (verboseEnabled()) {
-            slackSession
-                    .sendMessage(verboseChannel,
-                            "",
-                            createHeaderAttachment(description, false));
+        SlackPublisher publisher = verbosePublisher();
+        if (publisher != null) {
+            SlackAttachment header = createHeaderAttachment(description, false, sessionId);
 
-            String title = "Reason";
-            String text = String.format(error.getMessage());
-            SlackAttachment reason = new SlackAttachment(title, "", text, null);
+            SlackAttachment reason = new SlackAttachment("Reason", "", Strings.nullToEmpty(error.getMessage()), null);
             reason
                     .setColor("warning");
-            slackSession
-                    .sendMessage(verboseChannel,
-                            "",
-                            reason);
 
-            StringBuilder exception = new StringBuilder();
-            exception.append("```");
-            Arrays.asList(error.getStackTrace())
-                    .stream()
-                    .forEach(stackTraceElement -> {
-                        exception
-                                .append(stackTraceElement.toString() + "\n");
-                    });
-            exception.append("```");
-            slackSession
-                    .sendMessage(verboseChannel,
-                            exception.toString());
+            String stackTrace = Arrays.stream(error.getStackTrace())
+                    .limit(STACK_TRACE_LINES)
+                    .map(StackTraceElement::toString)
+                    .collect(Collectors.joining("\n", "```", "```"));
+            SlackAttachment exception = new SlackAttachment("", "", stackTrace, null);
+            exception.addMarkdownIn("text");
+            // Queued together, so the failures of tests running at the same time are not mixed.
+            publisher.offer(verboseChannel, ImmutableList.of(header, reason, exception));
         }
     }
 
     /**
-     * It will send one attachment:
+     * It will queue one attachment:
      *
      * <ul>
      *     <li> The test that passed.</li>
      * </ul>
      *
      * @param description the test description from JUnit.
-     * @param sessionId WebDriver session Id. (to link to saucelabs).
+     * @param sessionId WebDriver session Id. (to link to saucelabs, can be null).
      */
     public void passed(Description description, String sessionId) {
-        if (verboseEnabled()) {
-            slackSession
-                    .sendMessage(verboseChannel,
-                            "",
-                            createHeaderAttachment(description, true));
+        SlackPublisher publisher = verbosePublisher();
+        if (publisher != null) {
+            publisher.offer(verboseChannel, createHeaderAttachment(description, true, sessionId));
         }
     }
 
     /**
-     * It will send on attachment with the title
+     * It will queue on attachment with the title
      *
      * @param title the title
      */
     public void startDigest(String title) {
-        if (digestEnabled()) {
+        SlackPublisher publisher = digestPublisher();
+        if (publisher != null) {
             String attachmentTitle = "STARTED";
 
             SlackAttachment slackAttachment = new SlackAttachment(attachmentTitle, "", title, null);
             slackAttachment
                     .setColor("good");
-            slackSession
-                    .sendMessage(digestChannel,
-                            "",
-                            slackAttachment);
+            publisher.offer(digestChannel, slackAttachment);
         }
     }
 
     /**
-     * It will send one attachment with the summary and one attachment per test failure:
+     * It will queue one attachment with the summary and one attachment per test failure, sent together:
      *
      * <ul>
      *     <li> Summary will contain the title and how many tests total/passed/failed</li>
@@ -161,7 +159,8 @@ public class SlackIntegration implements Integration, AutoCloseable {
      * @param results all the test results.
      */
     public void finishDigest(String title, List<AugmentedResult> results) {
-        if (digestEnabled()) {
+        SlackPublisher publisher = digestPublisher();
+        if (publisher != null) {
             List<AugmentedResult> failed = failedTests(results);
 
             String slackTitle = String.format("%s %s", title, failed.isEmpty() ? " SUCCEEDED" : " FAILED");
@@ -172,10 +171,7 @@ public class SlackIntegration implements Integration, AutoCloseable {
 
             SlackAttachment slackAttachment = new SlackAttachment(slackTitle, "", slackText, null);
             slackAttachment.setColor(failed.isEmpty() ? "good" : "danger");
-            slackSession
-                    .sendMessage(digestChannel,
-                            "",
-                            slackAttachment);
+            publisher.offer(digestChannel, slackAttachment);
 
             failed
                     .stream()
@@ -185,22 +181,20 @@ public class SlackIntegration implements Integration, AutoCloseable {
                         SlackAttachment failedTestAttachment = new SlackAttachment(failedTestTitle, "", failedTestText, null);
                         failedTestAttachment
                                 .setColor("warning");
-                        slackSession
-                                .sendMessage(digestChannel,
-                                        "",
-                                        failedTestAttachment);
+                        publisher.offer(digestChannel, failedTestAttachment);
                     });
         }
     }
 
-    private SlackAttachment createHeaderAttachment(Description description, boolean succeeded) {
+    private SlackAttachment createHeaderAttachment(Description description, boolean succeeded, String sessionId) {
         String text = String.format("%s#%s", description.getClassName(), description.getMethodName());
         String title = succeeded? "SUCCEEDED" : "FAILED";
 
         SlackAttachment slackAttachment = new SlackAttachment(title, "", text, null);
         //Session was set since saucelabs is enabled also.
-        if (!Strings.isNullOrEmpty(sessionId)) {
-            attachSauceLink(slackAttachment, sessionId);
+        String session = Strings.isNullOrEmpty(sessionId) ? this.sessionId : sessionId;
+        if (!Strings.isNullOrEmpty(session)) {
+            attachSauceLink(slackAttachment, session);
         }
         slackAttachment
                 .setColor(succeeded ? "good" : "danger");
@@ -223,6 +217,7 @@ public class SlackIntegration implements Integration, AutoCloseable {
                 slackSession = SlackSessionFactory
                         .createWebSocketSlackSession(slackBotToken);
                 slackSession.connect();
+                publisher = new SlackPublisher(SlackIntegration::send, QUEUE_CAPACITY, MESSAGES_PER_SECOND, INITIAL_BACKOFF_IN_MILLISECONDS);
                 if (Strings.isNullOrEmpty(slackVerboseChannel)) {
                     LOG.warn("No Slack Verbose Channel, Slack Integration will not broadcast success/failures");
                 } else {
@@ -251,16 +246,43 @@ public class SlackIntegration implements Integration, AutoCloseable {
         }
     }
 
-    private boolean verboseEnabled() {
-        return enabled && slackSession != null && verboseChannel != null;
+    private static boolean send(SlackChannel channel, SlackPreparedMessage message) {
+        SlackMessageReply reply = slackSession.sendMessage(channel, message).getReply();
+        if (reply == null || reply.isOk()) {
+            return true;
+        }
+        if ("ratelimited".equals(reply.getErrorMessage())) {
+            return false;
+        }
+        throw new IllegalStateException(String.format("Slack answered %s", reply.getErrorMessage()));
     }
 
-    private boolean digestEnabled() {
-        return enabled && slackSession != null && digestChannel != null;
+    /**
+     * @return the publisher, read once since close can clear it, or null if the verbose messages are not sent.
+     */
+    private SlackPublisher verbosePublisher() {
+        return enabled && verboseChannel != null ? publisher : null;
     }
 
+    /**
+     * @return the publisher, read once since close can clear it, or null if the digest is not sent.
+     */
+    private SlackPublisher digestPublisher() {
+        return enabled && digestChannel != null ? publisher : null;
+    }
+
+    /**
+     * Waits for the queued messages to be sent and disconnects.
+     *
+     * @throws Exception if it could not disconnect.
+     */
     @Override
     public void close() throws Exception {
+        SlackPublisher current = publisher;
+        publisher = null;
+        if (current != null) {
+            current.close();
+        }
         if (slackSession != null) {
             slackSession.disconnect();
         }
@@ -0,0 +1,256 @@
+package com.salesforceiq.augmenteddriver.integrations;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ullink.slack.simpleslackapi.SlackAttachment;
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackPreparedMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the Slack messages from one background thread, so the tests never wait for Slack.
+ *
+ * <p>
+ *     Attachments are queued in a bounded queue, offer never blocks and drops the attachments if the queue is full.
+ *     The sender coalesces the attachments queued for the same channel in one message, sends at most
+ *     messagesPerSecond messages (Slack allows about one per second per channel) and, if Slack rate limits it or
+ *     fails, retries the message with an exponential backoff.
+ * </p>
+ * <p>
+ *     Attachments queued together, for example the header, reason and stack trace of a failure, are never split or
+ *     mixed with the ones of other tests: they are always sent in the same message, in order.
+ * </p>
+ */
+public class SlackPublisher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SlackPublisher.class);
+
+    private static final int MAX_ATTACHMENTS_PER_MESSAGE = 20;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long POLL_IN_MILLISECONDS = 200;
+
+    /**
+     * Sends one message to Slack.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        /**
+         * @param channel where to send the message.
+         * @param message the message.
+         * @return true if it was sent, false if Slack rate limited it.
+         * @throws Exception if it could not be sent.
+         */
+        boolean send(SlackChannel channel, SlackPreparedMessage message) throws Exception;
+    }
+
+    private final Sender sender;
+    private final BlockingQueue<Item> queue;
+    private final RateLimiter rateLimiter;
+    private final long initialBackoffInMilliseconds;
+    private final AtomicInteger dropped;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Creates the publisher and starts its sender thread.
+     *
+     * @param sender sends the messages.
+     * @param capacity how many offers can be waiting to be sent.
+     * @param messagesPerSecond how many messages can be sent per second.
+     * @param initialBackoffInMilliseconds how long to wait before the first retry, doubled on every retry.
+     */
+    public SlackPublisher(Sender sender, int capacity, double messagesPerSecond, long initialBackoffInMilliseconds) {
+        Preconditions.checkArgument(capacity > 0, "capacity should be greater than 0, got %s", capacity);
+        Preconditions.checkArgument(messagesPerSecond > 0, "messagesPerSecond should be greater than 0, got %s", messagesPerSecond);
+        Preconditions.checkArgument(initialBackoffInMilliseconds >= 0,
+                "initialBackoffInMilliseconds should not be negative, got %s", initialBackoffInMilliseconds);
+
+        this.sender = Preconditions.checkNotNull(sender);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.rateLimiter = RateLimiter.create(messagesPerSecond);
+        this.initialBackoffInMilliseconds = initialBackoffInMilliseconds;
+        this.dropped = new AtomicInteger();
+        this.closed = false;
+        this.thread = new ThreadFactoryBuilder()
+                .setNameFormat("slack-publisher-%d")
+                .setDaemon(true)
+                .build()
+                .newThread(this::work);
+        thread.start();
+    }
+
+    /**
+     * Queues an attachment, never blocks.
+     *
+     * @param channel where to send it.
+     * @param attachment what to send.
+     * @return false if it was dropped because the queue is full or the publisher is closed.
+     */
+    public boolean offer(SlackChannel channel, SlackAttachment attachment) {
+        Preconditions.checkNotNull(attachment);
+
+        return offer(channel, ImmutableList.of(attachment));
+    }
+
+    /**
+     * Queues attachments that are sent together in the same message, in order, never blocks.
+     *
+     * @param channel where to send them.
+     * @param attachments what to send.
+     * @return false if they were dropped because the queue is full or the publisher is closed.
+     */
+    public boolean offer(SlackChannel channel, List<SlackAttachment> attachments) {
+        Preconditions.checkNotNull(attachments);
+        Preconditions.checkArgument(!attachments.isEmpty());
+
+        if (closed || !queue.offer(new Item(channel, attachments))) {
+            if (dropped.getAndAdd(attachments.size()) == 0) {
+                LOG.warn("Slack queue is full or closed, dropping messages");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return how many attachments were dropped.
+     */
+    public int dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting attachments and waits for the queued ones to be sent.
+     *
+     * @param timeout how long to wait.
+     * @param unit the unit of the timeout.
+     * @return true if everything was sent, false if the timeout was reached, the rest is discarded.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+        closed = true;
+        thread.join(unit.toMillis(timeout));
+        if (thread.isAlive()) {
+            LOG.warn(String.format("Slack messages not sent after %s %s, discarding %s attachments",
+                    timeout, unit, queue.size()));
+            thread.interrupt();
+            return false;
+        }
+        if (dropped.get() > 0) {
+            LOG.warn(String.format("%s Slack attachments were dropped", dropped.get()));
+        }
+        return true;
+    }
+
+    /**
+     * Same as close with a timeout, waits up to 30 seconds.
+     */
+    @Override
+    public void close() {
+        try {
+            close(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        List<Item> pending = Lists.newArrayList();
+        try {
+            while (!(closed && queue.isEmpty() && pending.isEmpty())) {
+                if (pending.isEmpty()) {
+                    Item next = queue.poll(POLL_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        continue;
+                    }
+                    pending.add(next);
+                }
+                // Waiting for the rate limiter gives the tests time to queue more attachments for the same message.
+                rateLimiter.acquire();
+                queue.drainTo(pending);
+                send(nextMessage(pending));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes from pending the items of the channel of the oldest one, keeping the order.
+     *
+     * <p>
+     *     Only whole items are taken, up to MAX_ATTACHMENTS_PER_MESSAGE attachments, but always at least the oldest.
+     * </p>
+     */
+    private Message nextMessage(List<Item> pending) {
+        SlackChannel channel = pending.get(0).channel;
+        SlackPreparedMessage.Builder builder = new SlackPreparedMessage.Builder().withMessage("");
+        int attachments = 0;
+        for (Iterator<Item> iterator = pending.iterator(); iterator.hasNext(); ) {
+            Item item = iterator.next();
+            if (!Objects.equals(item.channel, channel)) {
+                continue;
+            }
+            if (attachments > 0 && attachments + item.attachments.size() > MAX_ATTACHMENTS_PER_MESSAGE) {
+                break;
+            }
+            item.attachments.forEach(builder::addAttachment);
+            iterator.remove();
+            attachments += item.attachments.size();
+        }
+        return new Message(channel, builder.build(), attachments);
+    }
+
+    private void send(Message message) throws InterruptedException {
+        long backoff = initialBackoffInMilliseconds;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                if (sender.send(message.channel, message.message)) {
+                    return;
+                }
+                LOG.warn(String.format("Slack rate limited a message, attempt %s of %s, retrying in %s ms", attempt, MAX_ATTEMPTS, backoff));
+            } catch (Exception e) {
+                LOG.warn(String.format("Could not send a message to Slack, attempt %s of %s, retrying in %s ms", attempt, MAX_ATTEMPTS, backoff), e);
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                TimeUnit.MILLISECONDS.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+        dropped.addAndGet(message.attachments);
+        LOG.error(String.format("Could not send a message to Slack after %s attempts, dropped %s attachments", MAX_ATTEMPTS, message.attachments));
+    }
+
+    private static class Item {
+        private final SlackChannel channel;
+        private final List<SlackAttachment> attachments;
+
+        private Item(SlackChannel channel, List<SlackAttachment> attachments) {
+            this.channel = channel;
+            this.attachments = ImmutableList.copyOf(attachments);
+        }
+    }
+
+    private static class Message {
+        private final SlackChannel channel;
+        private final SlackPreparedMessage message;
+        private final int attachments;
+
+        private Message(SlackChannel channel, SlackPreparedMessage message, int attachments) {
+            this.channel = channel;
+            this.message = message;
+            this.attachments = attachments;
+        }
+    }
+}
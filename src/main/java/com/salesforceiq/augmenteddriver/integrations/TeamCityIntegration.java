@@ -10,7 +10,7 @@ import com.google.inject.name.Named;
 import org.junit.runner.notification.RunListener;
 import org.openqa.selenium.remote.SessionId;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 /**
  * Integration for TeamCity, used to write the output so Team City understands.
@@ -51,7 +51,7 @@ public class TeamCityIntegration implements Integration {
      * @param nameAppender string to append to the name of the test.
      * @return the Reporter.
      */
-    public RunListener getReporter(ByteArrayOutputStream outputStream, String nameAppender) {
+    public RunListener getReporter(OutputStream outputStream, String nameAppender) {
         Preconditions.checkNotNull(outputStream);
         Preconditions.checkNotNull(nameAppender);
 
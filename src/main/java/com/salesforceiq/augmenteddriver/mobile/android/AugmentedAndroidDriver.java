@@ -2,12 +2,16 @@ package com.salesforceiq.augmenteddriver.mobile.android;
 
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandMetrics;
 import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.Response;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 
 /**
  * Driver used for automation against Android.
@@ -21,6 +25,8 @@ import java.net.URL;
  */
 public class AugmentedAndroidDriver extends AndroidDriver<WebElement> {
     private AugmentedAndroidFunctions augmentedFunctions;
+    // Not initialized here, the session is created by the constructor of the superclass before the initializers run.
+    private String capabilitiesDescription;
 
     /**
      * Extensive constructor.
@@ -52,4 +58,27 @@ public class AugmentedAndroidDriver extends AndroidDriver<WebElement> {
     public void setAugmentedFunctions(AugmentedAndroidFunctions augmentedFunctions) {
         this.augmentedFunctions = augmentedFunctions;
     }
+
+    /**
+     * Records the latency of every command in CommandMetrics.
+     */
+    @Override
+    public Response execute(String driverCommand, Map<String, ?> parameters) {
+        return CommandMetrics.record(driverCommand, describeCapabilities(parameters),
+                () -> super.execute(driverCommand, parameters));
+    }
+
+    /**
+     * Described once the session is created, its capabilities do not change after that.
+     */
+    private String describeCapabilities(Map<String, ?> parameters) {
+        if (capabilitiesDescription == null) {
+            Capabilities capabilities = getCapabilities();
+            if (capabilities == null) {
+                return CommandMetrics.capabilitiesOf(null, parameters);
+            }
+            capabilitiesDescription = CommandMetrics.capabilitiesOf(capabilities, parameters);
+        }
+        return capabilitiesDescription;
+    }
 }
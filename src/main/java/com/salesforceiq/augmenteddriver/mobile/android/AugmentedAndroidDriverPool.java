@@ -0,0 +1,35 @@
+package com.salesforceiq.augmenteddriver.mobile.android;
+
+import com.google.inject.Singleton;
+import com.salesforceiq.augmenteddriver.util.AugmentedDriverPool;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.net.MalformedURLException;
+
+/**
+ * Pool of AugmentedAndroidDrivers.
+ *
+ * <p>
+ *     The state of an app cannot be reset reliably, so sessions are never reused, the pool only hands out the
+ *     sessions created ahead of time by the SessionWarmer.
+ * </p>
+ */
+@Singleton
+public class AugmentedAndroidDriverPool extends AugmentedDriverPool<AugmentedAndroidDriver> {
+
+    private static final Store<AugmentedAndroidDriver> STORE = new Store<>();
+
+    public AugmentedAndroidDriverPool() {
+        super(STORE, false, 1);
+    }
+
+    @Override
+    protected AugmentedAndroidDriver create(String remoteAddress, DesiredCapabilities capabilities) throws MalformedURLException {
+        return new AugmentedAndroidDriver(remoteAddress, capabilities, null);
+    }
+
+    @Override
+    protected void reset(AugmentedAndroidDriver driver) {
+        // Never called, sessions are not reused.
+    }
+}
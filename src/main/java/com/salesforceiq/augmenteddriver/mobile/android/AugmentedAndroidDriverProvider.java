@@ -1,7 +1,7 @@
 package com.salesforceiq.augmenteddriver.mobile.android;
 
 import com.google.common.base.Preconditions;
-import com.google.inject.Provider;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.salesforceiq.augmenteddriver.util.AugmentedProvider;
 
@@ -22,8 +22,14 @@ import com.salesforceiq.augmenteddriver.util.AugmentedProvider;
 @Singleton
 public class AugmentedAndroidDriverProvider implements AugmentedProvider<AugmentedAndroidDriver> {
 
+    private final AugmentedAndroidDriverPool pool;
     private AugmentedAndroidDriver driver;
 
+    @Inject
+    public AugmentedAndroidDriverProvider(AugmentedAndroidDriverPool pool) {
+        this.pool = Preconditions.checkNotNull(pool);
+    }
+
     @Override
     public AugmentedAndroidDriver get() {
         return Preconditions.checkNotNull(driver, "AugmentedAndroidDriver not initialized, call initialize first");
@@ -38,5 +44,15 @@ public class AugmentedAndroidDriverProvider implements AugmentedProvider<Augment
     public boolean isInitialized() {
         return driver != null;
     }
+
+    /**
+     * Gives the driver back to the pool, which quits it.
+     *
+     * @param reusable whether the session could be used by another test, false if the test failed.
+     */
+    @Override
+    public void release(boolean reusable) {
+        pool.release(get(), reusable);
+    }
 }
 
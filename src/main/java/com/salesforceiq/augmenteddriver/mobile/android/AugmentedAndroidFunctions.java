@@ -4,10 +4,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
-import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.AugmentedMobileFunctions;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
 import com.salesforceiq.augmenteddriver.util.AugmentedFunctions;
+import com.salesforceiq.augmenteddriver.util.PollingStrategy;
+import com.salesforceiq.augmenteddriver.util.WaitProfiler;
 import com.salesforceiq.augmenteddriver.util.MobileUtil;
 import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
 import org.openqa.selenium.By;
@@ -26,6 +28,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
         AugmentedAndroidOnlyFunctions {
 
     private final int waitTimeInSeconds;
+    private final PollingStrategy polling;
+    private final WaitProfiler waitProfiler;
     private final AugmentedAndroidElementFactory augmentedAndroidElementFactory;
     private final SearchContext searchContext;
     private final AugmentedAndroidDriverProvider augmentedAndroidDriveProvider;
@@ -35,18 +39,18 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
 
     @Inject
     public AugmentedAndroidFunctions(@Assisted SearchContext searchContext,
-                                     @Named(PropertiesModule.WAIT_IN_SECONDS) String waitTimeInSeconds,
-                                     @Named(PropertiesModule.PRESS_TIME_IN_MILLISECONDS) String pressTimeInMilliSeconds,
-                                     @Named(PropertiesModule.SWIPE_QUANTITY) String swipeQuantity,
-                                     @Named(PropertiesModule.TAP_FINGERS) String tapFingers,
+                                     AugmentedConfig config,
+                                     WaitProfiler waitProfiler,
                                      AugmentedAndroidElementFactory augmentedAndroidElementFactory,
                                      AugmentedAndroidDriverProvider augmentedAndroidDriverProvider) {
         this.searchContext = Preconditions.checkNotNull(searchContext);
         this.augmentedAndroidDriveProvider = Preconditions.checkNotNull(augmentedAndroidDriverProvider);
-        this.pressTimeInMilliSeconds = Integer.valueOf(Preconditions.checkNotNull(pressTimeInMilliSeconds));
-        this.swipeQuantity = Integer.valueOf(Preconditions.checkNotNull(swipeQuantity));
-        this.tapFingers = Integer.valueOf(Preconditions.checkNotNull(tapFingers));
-        this.waitTimeInSeconds= Integer.valueOf(Preconditions.checkNotNull(waitTimeInSeconds));
+        this.pressTimeInMilliSeconds = config.getInt(PropertiesModule.PRESS_TIME_IN_MILLISECONDS);
+        this.swipeQuantity = config.getInt(PropertiesModule.SWIPE_QUANTITY);
+        this.tapFingers = config.getInt(PropertiesModule.TAP_FINGERS);
+        this.waitTimeInSeconds = config.getInt(PropertiesModule.WAIT_IN_SECONDS);
+        this.polling = config.getPollingStrategy(PollingStrategy.DEFAULT);
+        this.waitProfiler = Preconditions.checkNotNull(waitProfiler);
         this.augmentedAndroidElementFactory = Preconditions.checkNotNull(augmentedAndroidElementFactory);
     }
 
@@ -139,7 +143,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public AugmentedAndroidElement findElementPresentAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds));
+        return augmentedAndroidElementFactory.create(waitProfiler.profile("findElementPresentAfter", by,
+                () -> WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -153,7 +158,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public AugmentedAndroidElement findElementVisibleAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds));
+        return augmentedAndroidElementFactory.create(waitProfiler.profile("findElementVisibleAfter", by,
+                () -> WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -167,7 +173,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public AugmentedAndroidElement findElementClickableAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds));
+        return augmentedAndroidElementFactory.create(waitProfiler.profile("findElementClickableAfter", by,
+                () -> WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -181,7 +188,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public AugmentedAndroidElement findElementNotMovingAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.findElementNotMovingAfter(searchContext, by, waitSeconds));
+        return augmentedAndroidElementFactory.create(waitProfiler.profile("findElementNotMovingAfter", by,
+                () -> WebDriverUtil.findElementNotMovingAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -197,7 +205,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
         Preconditions.checkNotNull(by);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(text));
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds));
+        return augmentedAndroidElementFactory.create(waitProfiler.profile("findElementContainAfter", by,
+                () -> WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds, polling)));
     }
 
     @Override
@@ -211,7 +220,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public List<AugmentedAndroidElement> findElementsVisibleAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        return WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsVisibleAfter", by,
+                () -> WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(augmentedAndroidElementFactory::create)
                 .collect(Collectors.toList());
@@ -228,7 +238,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public List<AugmentedAndroidElement> findElementsPresentAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        return WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsPresentAfter", by,
+                () -> WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(augmentedAndroidElementFactory::create)
                 .collect(Collectors.toList());
@@ -245,7 +256,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public List<AugmentedAndroidElement> findElementsClickableAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        return WebDriverUtil.findElementsClickableAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsClickableAfter", by,
+                () -> WebDriverUtil.findElementsClickableAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(augmentedAndroidElementFactory::create)
                 .collect(Collectors.toList());
@@ -262,7 +274,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public void waitElementToNotBePresentAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        WebDriverUtil.waitElementToNotBePresent(searchContext, by, waitInSeconds);
+        waitProfiler.profile("waitElementToNotBePresentAfter", by,
+                () -> WebDriverUtil.waitElementToNotBePresent(searchContext, by, waitInSeconds, polling));
     }
 
     @Override
@@ -276,7 +289,8 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
     public void waitElementToNotBeVisibleAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds);
+        waitProfiler.profile("waitElementToNotBeVisibleAfter", by,
+                () -> WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds, polling));
     }
 
     @Override
@@ -301,7 +315,7 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
         Preconditions.checkNotNull(moveTo);
         Preconditions.checkNotNull(click);
 
-        WebDriverUtil.moveToAndClick(augmentedAndroidDriveProvider.get(), moveTo, click, waitTimeInSeconds);
+        WebDriverUtil.moveToAndClick(augmentedAndroidDriveProvider.get(), moveTo, click, waitTimeInSeconds, polling);
     }
 
     @Override
@@ -309,21 +323,21 @@ public class AugmentedAndroidFunctions implements AugmentedFunctions<AugmentedAn
         Preconditions.checkNotNull(click);
         Preconditions.checkNotNull(moveTo);
 
-        WebDriverUtil.moveToAndClick(augmentedAndroidDriveProvider.get(), moveTo, click, waitInSeconds);
+        WebDriverUtil.moveToAndClick(augmentedAndroidDriveProvider.get(), moveTo, click, waitInSeconds, polling);
     }
 
     @Override
     public AugmentedAndroidElement moveTo(By moveTo) {
         Preconditions.checkNotNull(moveTo);
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.moveTo(augmentedAndroidDriveProvider.get(), moveTo, waitTimeInSeconds));
+        return augmentedAndroidElementFactory.create(WebDriverUtil.moveTo(augmentedAndroidDriveProvider.get(), moveTo, waitTimeInSeconds, polling));
     }
 
     @Override
     public AugmentedAndroidElement moveToAfter(By moveTo, int waitInSeconds) {
         Preconditions.checkNotNull(moveTo);
 
-        return augmentedAndroidElementFactory.create(WebDriverUtil.moveTo(augmentedAndroidDriveProvider.get(), moveTo, waitInSeconds));
+        return augmentedAndroidElementFactory.create(WebDriverUtil.moveTo(augmentedAndroidDriveProvider.get(), moveTo, waitInSeconds, polling));
     }
 
     @Override
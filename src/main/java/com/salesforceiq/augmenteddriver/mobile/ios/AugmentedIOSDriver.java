@@ -4,12 +4,16 @@ import com.google.common.base.Preconditions;
 import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidFunctions;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.CommandMetrics;
 import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.Response;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 
 /**
  * Driver used for automation against IOS.
@@ -23,6 +27,8 @@ import java.net.URL;
  */
 public class AugmentedIOSDriver extends IOSDriver<WebElement> {
     private AugmentedIOSFunctions augmentedFunctions;
+    // Not initialized here, the session is created by the constructor of the superclass before the initializers run.
+    private String capabilitiesDescription;
 
     /**
      * Extensive constructor.
@@ -54,4 +60,27 @@ public class AugmentedIOSDriver extends IOSDriver<WebElement> {
     public void setAugmentedFunctions(AugmentedIOSFunctions augmentedFunctions) {
         this.augmentedFunctions = augmentedFunctions;
     }
+
+    /**
+     * Records the latency of every command in CommandMetrics.
+     */
+    @Override
+    public Response execute(String driverCommand, Map<String, ?> parameters) {
+        return CommandMetrics.record(driverCommand, describeCapabilities(parameters),
+                () -> super.execute(driverCommand, parameters));
+    }
+
+    /**
+     * Described once the session is created, its capabilities do not change after that.
+     */
+    private String describeCapabilities(Map<String, ?> parameters) {
+        if (capabilitiesDescription == null) {
+            Capabilities capabilities = getCapabilities();
+            if (capabilities == null) {
+                return CommandMetrics.capabilitiesOf(null, parameters);
+            }
+            capabilitiesDescription = CommandMetrics.capabilitiesOf(capabilities, parameters);
+        }
+        return capabilitiesDescription;
+    }
 }
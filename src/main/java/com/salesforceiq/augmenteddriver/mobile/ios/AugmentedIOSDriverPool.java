@@ -0,0 +1,35 @@
+package com.salesforceiq.augmenteddriver.mobile.ios;
+
+import com.google.inject.Singleton;
+import com.salesforceiq.augmenteddriver.util.AugmentedDriverPool;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.net.MalformedURLException;
+
+/**
+ * Pool of AugmentedIOSDrivers.
+ *
+ * <p>
+ *     The state of an app cannot be reset reliably, so sessions are never reused, the pool only hands out the
+ *     sessions created ahead of time by the SessionWarmer.
+ * </p>
+ */
+@Singleton
+public class AugmentedIOSDriverPool extends AugmentedDriverPool<AugmentedIOSDriver> {
+
+    private static final Store<AugmentedIOSDriver> STORE = new Store<>();
+
+    public AugmentedIOSDriverPool() {
+        super(STORE, false, 1);
+    }
+
+    @Override
+    protected AugmentedIOSDriver create(String remoteAddress, DesiredCapabilities capabilities) throws MalformedURLException {
+        return new AugmentedIOSDriver(remoteAddress, capabilities, null);
+    }
+
+    @Override
+    protected void reset(AugmentedIOSDriver driver) {
+        // Never called, sessions are not reused.
+    }
+}
@@ -1,7 +1,7 @@
 package com.salesforceiq.augmenteddriver.mobile.ios;
 
 import com.google.common.base.Preconditions;
-import com.google.inject.Provider;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.salesforceiq.augmenteddriver.util.AugmentedProvider;
 
@@ -22,8 +22,14 @@ import com.salesforceiq.augmenteddriver.util.AugmentedProvider;
 @Singleton
 public class AugmentedIOSDriverProvider implements AugmentedProvider<AugmentedIOSDriver> {
 
+    private final AugmentedIOSDriverPool pool;
     private AugmentedIOSDriver driver;
 
+    @Inject
+    public AugmentedIOSDriverProvider(AugmentedIOSDriverPool pool) {
+        this.pool = Preconditions.checkNotNull(pool);
+    }
+
     @Override
     public AugmentedIOSDriver get() {
         return Preconditions.checkNotNull(driver, "AugmentedIOSDriver not initialized, call initialize first");
@@ -38,4 +44,14 @@ public class AugmentedIOSDriverProvider implements AugmentedProvider<AugmentedIO
     public boolean isInitialized() {
         return driver != null;
     }
+
+    /**
+     * Gives the driver back to the pool, which quits it.
+     *
+     * @param reusable whether the session could be used by another test, false if the test failed.
+     */
+    @Override
+    public void release(boolean reusable) {
+        pool.release(get(), reusable);
+    }
 }
\ No newline at end of file
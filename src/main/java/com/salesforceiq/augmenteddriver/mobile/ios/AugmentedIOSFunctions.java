@@ -4,10 +4,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
-import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.mobile.AugmentedMobileFunctions;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
 import com.salesforceiq.augmenteddriver.util.AugmentedFunctions;
+import com.salesforceiq.augmenteddriver.util.PollingStrategy;
+import com.salesforceiq.augmenteddriver.util.WaitProfiler;
 import com.salesforceiq.augmenteddriver.util.MobileUtil;
 import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
 import org.openqa.selenium.By;
@@ -26,6 +28,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
                                               AugmentedIOSOnlyFunctions {
 
     private final int waitTimeInSeconds;
+    private final PollingStrategy polling;
+    private final WaitProfiler waitProfiler;
     private final AugmentedIOSElementFactory augmentedIOSElementFactory;
     private final AugmentedIOSDriverProvider augmentedIOSDriverProvider;
     private final SearchContext searchContext;
@@ -35,18 +39,18 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
 
     @Inject
     public AugmentedIOSFunctions(@Assisted SearchContext searchContext,
-                                 @Named(PropertiesModule.WAIT_IN_SECONDS) String waitTimeInSeconds,
-                                 @Named(PropertiesModule.PRESS_TIME_IN_MILLISECONDS) String pressTimeInMilliSeconds,
-                                 @Named(PropertiesModule.SWIPE_QUANTITY) String swipeQuantity,
-                                 @Named(PropertiesModule.TAP_FINGERS) String tapFingers,
+                                 AugmentedConfig config,
+                                 WaitProfiler waitProfiler,
                                  AugmentedIOSElementFactory augmentedIOSElementFactory,
                                  AugmentedIOSDriverProvider augmentedIOSDriverProvider) {
         this.searchContext = Preconditions.checkNotNull(searchContext);
         this.augmentedIOSDriverProvider = Preconditions.checkNotNull(augmentedIOSDriverProvider);
-        this.pressTimeInMilliSeconds = Integer.valueOf(Preconditions.checkNotNull(pressTimeInMilliSeconds));
-        this.swipeQuantity = Integer.valueOf(Preconditions.checkNotNull(swipeQuantity));
-        this.tapFingers = Integer.valueOf(Preconditions.checkNotNull(tapFingers));
-        this.waitTimeInSeconds= Integer.valueOf(Preconditions.checkNotNull(waitTimeInSeconds));
+        this.pressTimeInMilliSeconds = config.getInt(PropertiesModule.PRESS_TIME_IN_MILLISECONDS);
+        this.swipeQuantity = config.getInt(PropertiesModule.SWIPE_QUANTITY);
+        this.tapFingers = config.getInt(PropertiesModule.TAP_FINGERS);
+        this.waitTimeInSeconds = config.getInt(PropertiesModule.WAIT_IN_SECONDS);
+        this.polling = config.getPollingStrategy(PollingStrategy.DEFAULT);
+        this.waitProfiler = Preconditions.checkNotNull(waitProfiler);
         this.augmentedIOSElementFactory = Preconditions.checkNotNull(augmentedIOSElementFactory);
     }
 
@@ -139,7 +143,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public AugmentedIOSElement findElementPresentAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds));
+        return augmentedIOSElementFactory.create(waitProfiler.profile("findElementPresentAfter", by,
+                () -> WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -153,7 +158,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public AugmentedIOSElement findElementVisibleAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds));
+        return augmentedIOSElementFactory.create(waitProfiler.profile("findElementVisibleAfter", by,
+                () -> WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -167,7 +173,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public AugmentedIOSElement findElementClickableAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds));
+        return augmentedIOSElementFactory.create(waitProfiler.profile("findElementClickableAfter", by,
+                () -> WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -181,7 +188,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public AugmentedIOSElement findElementNotMovingAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.findElementNotMovingAfter(searchContext, by, waitSeconds));
+        return augmentedIOSElementFactory.create(waitProfiler.profile("findElementNotMovingAfter", by,
+                () -> WebDriverUtil.findElementNotMovingAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -197,7 +205,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
         Preconditions.checkNotNull(by);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(text));
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds));
+        return augmentedIOSElementFactory.create(waitProfiler.profile("findElementContainAfter", by,
+                () -> WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds, polling)));
     }
 
     @Override
@@ -211,7 +220,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public List<AugmentedIOSElement> findElementsVisibleAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        return WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsVisibleAfter", by,
+                () -> WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(augmentedIOSElementFactory::create)
                 .collect(Collectors.toList());
@@ -228,7 +238,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public List<AugmentedIOSElement> findElementsPresentAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        return WebDriverUtil.findElementsPresentAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsPresentAfter", by,
+                () -> WebDriverUtil.findElementsPresentAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(augmentedIOSElementFactory::create)
                 .collect(Collectors.toList());
@@ -245,7 +256,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public List<AugmentedIOSElement> findElementsClickableAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        return WebDriverUtil.findElementsClickableAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsClickableAfter", by,
+                () -> WebDriverUtil.findElementsClickableAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(augmentedIOSElementFactory::create)
                 .collect(Collectors.toList());
@@ -262,7 +274,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public void waitElementToNotBePresentAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        WebDriverUtil.waitElementToNotBePresent(searchContext, by, waitInSeconds);
+        waitProfiler.profile("waitElementToNotBePresentAfter", by,
+                () -> WebDriverUtil.waitElementToNotBePresent(searchContext, by, waitInSeconds, polling));
     }
 
     @Override
@@ -276,7 +289,8 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
     public void waitElementToNotBeVisibleAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
 
-        WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds);
+        waitProfiler.profile("waitElementToNotBeVisibleAfter", by,
+                () -> WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds, polling));
     }
 
     @Override
@@ -301,7 +315,7 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
         Preconditions.checkNotNull(click);
         Preconditions.checkNotNull(moveTo);
 
-        WebDriverUtil.moveToAndClick(augmentedIOSDriverProvider.get(), moveTo, click, waitTimeInSeconds);
+        WebDriverUtil.moveToAndClick(augmentedIOSDriverProvider.get(), moveTo, click, waitTimeInSeconds, polling);
     }
 
     @Override
@@ -309,21 +323,21 @@ public class AugmentedIOSFunctions implements AugmentedFunctions<AugmentedIOSEle
         Preconditions.checkNotNull(click);
         Preconditions.checkNotNull(moveTo);
 
-        WebDriverUtil.moveToAndClick(augmentedIOSDriverProvider.get(), moveTo, click, waitInSeconds);
+        WebDriverUtil.moveToAndClick(augmentedIOSDriverProvider.get(), moveTo, click, waitInSeconds, polling);
     }
 
     @Override
     public AugmentedIOSElement moveTo(By moveTo) {
         Preconditions.checkNotNull(moveTo);
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.moveTo(augmentedIOSDriverProvider.get(), moveTo, waitTimeInSeconds));
+        return augmentedIOSElementFactory.create(WebDriverUtil.moveTo(augmentedIOSDriverProvider.get(), moveTo, waitTimeInSeconds, polling));
     }
 
     @Override
     public AugmentedIOSElement moveToAfter(By moveTo, int waitInSeconds) {
         Preconditions.checkNotNull(moveTo);
 
-        return augmentedIOSElementFactory.create(WebDriverUtil.moveTo(augmentedIOSDriverProvider.get(), moveTo, waitInSeconds));
+        return augmentedIOSElementFactory.create(WebDriverUtil.moveTo(augmentedIOSDriverProvider.get(), moveTo, waitInSeconds, polling));
     }
 
     @Override
@@ -1,25 +1,25 @@
 package com.salesforceiq.augmenteddriver.modules;
 
-import com.google.common.base.Strings;
 import com.google.inject.AbstractModule;
 import com.google.inject.name.Names;
+import com.salesforceiq.augmenteddriver.guice.SharedModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
 import com.salesforceiq.augmenteddriver.util.TestRunnerConfig;
 import com.salesforceiq.augmenteddriver.util.Util;
 import com.saucelabs.saucerest.SauceREST;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
 
 /**
  * Guice Module that loads all the properties file.
+ *
+ * <p>
+ *     Shared, so the properties file is only read once per process.
+ * </p>
  */
+@SharedModule
 public class PropertiesModule extends AbstractModule {
 
     // false or true whether to print in the logs the information so TeamCity recognizes the tests
@@ -48,6 +48,18 @@ public class PropertiesModule extends AbstractModule {
     // Where the XML with the results will be stored.
     // results by default
     public static final String JENKINS_XML_DIR = "JENKINS_XML_DIR";
+    // Where the runners write their results (shard results, reports).
+    // results by default
+    public static final String RESULTS_DIR = "RESULTS_DIR";
+    // Where the durations of the tests are stored, so TestSuiteRunner can start the longest ones first.
+    // When running with -shardCount, every shard should see the same file, since it is used to split the suite, and
+    // the shards do not update it, mergeShards -timings does with the durations of all of them.
+    // results/timings.properties by default
+    public static final String TIMINGS_FILE = "TIMINGS_FILE";
+    // Where TestSuiteRunner appends the pass/fail and attempts of every test, read by QuarantineFinder -history.
+    // Empty to not keep the history.
+    // results/history.bin by default
+    public static final String HISTORY_FILE = "HISTORY_FILE";
     // false or true whether to integrate with applitools.
     // default false
     public static final String APPLITOOLS_INTEGRATION = "APPLITOOLS_INTEGRATION";
@@ -73,6 +85,9 @@ public class PropertiesModule extends AbstractModule {
     // Max length of the test/suite in minutes.
     // 20 minutes by default.
     public static final String TIMEOUT_IN_MINUTES = "TIMEOUT_IN_MINUTES";
+    // Max length of one test in minutes, after that only that test is cancelled and the rest keep running.
+    // 0 (no limit) by default.
+    public static final String TEST_TIMEOUT_IN_MINUTES = "TEST_TIMEOUT_IN_MINUTES";
     // How much time in milliseconds will the PageObjectWaiter wait be default.
     // 500 milliseconds by default.
     public static final String WAIT_BETWEEN_ITERATIONS_IN_MILLISECONDS = "WAIT_BETWEEN_ITERATIONS_IN_MILLISECONDS";
@@ -88,6 +103,43 @@ public class PropertiesModule extends AbstractModule {
     // How many total attempts a test will run
     // 2 by default.
     public static final String MAX_ATTEMPTS = "MAX_ATTEMPTS";
+    // Percentage of the tests of a suite that can be retried, shared by all of them, so a down grid or app does not
+    // retry every test.
+    // 10 by default.
+    public static final String RETRY_BUDGET_PERCENT = "RETRY_BUDGET_PERCENT";
+    // true or false whether tests that failed on an assertion are retried, otherwise only the failures of the
+    // infrastructure (session, transport) are.
+    // true by default.
+    public static final String RETRY_ASSERTIONS = "RETRY_ASSERTIONS";
+    // How many tests per second the runners can start (each test creates a new session).
+    // 1 by default.
+    public static final String SESSIONS_PER_SECOND = "SESSIONS_PER_SECOND";
+    // How many KB of the output of each test are kept in memory, after that it is written to a temporary file.
+    // 256 by default.
+    public static final String OUTPUT_IN_MEMORY_IN_KB = "OUTPUT_IN_MEMORY_IN_KB";
+    // true or false whether web sessions are reused between tests with the same capabilities.
+    // On SauceLabs one job will then contain several tests.
+    // false by default.
+    public static final String DRIVER_POOL = "DRIVER_POOL";
+    // How many tests can reuse the same session before it is quit.
+    // 10 by default.
+    public static final String DRIVER_POOL_MAX_USES = "DRIVER_POOL_MAX_USES";
+    // How many sessions the runners create ahead of time, while there are tests waiting to start.
+    // 0 (disabled) by default.
+    public static final String WARM_SESSIONS = "WARM_SESSIONS";
+    // true or false whether web waits for CSS Bys use a MutationObserver in the page instead of polling.
+    // false by default.
+    public static final String EVENT_DRIVEN_WAITS = "EVENT_DRIVEN_WAITS";
+    // How long the waits sleep between polls, for example exponential:50,2000 (see PollingStrategy#parse).
+    // Empty by default, the element waits poll every 500 milliseconds and PageObjectWaiter every
+    // WAIT_BETWEEN_ITERATIONS_IN_MILLISECONDS.
+    public static final String POLLING_STRATEGY = "POLLING_STRATEGY";
+    // true or false whether to record how long each find/wait blocked, written to RESULTS_DIR/waits.txt.
+    // false by default.
+    public static final String PROFILE_WAITS = "PROFILE_WAITS";
+    // true or false whether the runners append one JSON line per test to RESULTS_DIR/run-report.jsonl as tests finish.
+    // true by default.
+    public static final String RUN_REPORT = "RUN_REPORT";
     // User for SauceLabs
     // Empty by default.
     public static final String SAUCE_USER = "SAUCE_USER";
@@ -123,6 +175,7 @@ public class PropertiesModule extends AbstractModule {
             put(LOCAL_ADDRESS, "http://127.0.0.1:7777/wd/hub");
             put(SAUCE_ADDRESS, "http://ondemand.saucelabs.com:80/wd/hub");
             put(TIMEOUT_IN_MINUTES, "20");
+            put(TEST_TIMEOUT_IN_MINUTES, "0");
             put(WAIT_IN_SECONDS, "30");
             put(WAIT_BETWEEN_ITERATIONS_IN_MILLISECONDS, "500");
             put(PRESS_TIME_IN_MILLISECONDS, "1000");
@@ -139,6 +192,9 @@ public class PropertiesModule extends AbstractModule {
             put(SLACK_VERBOSE_CHANNEL, "");
             put(JENKINS_INTEGRATION, "false");
             put(JENKINS_XML_DIR, "results");
+            put(RESULTS_DIR, "results");
+            put(TIMINGS_FILE, "results/timings.properties");
+            put(HISTORY_FILE, "results/history.bin");
             put(SAUCE_KEY, "");
             put(SAUCE_USER, "");
             put(SUITES, "");
@@ -149,52 +205,26 @@ public class PropertiesModule extends AbstractModule {
             put(SAUCELABS_TEST_URL, "https://saucelabs.com/beta/tests/%s/watch");
             put(TAP_FINGERS, "1");
             put(MAX_ATTEMPTS, "2");
+            put(RETRY_BUDGET_PERCENT, "10");
+            put(RETRY_ASSERTIONS, "true");
+            put(SESSIONS_PER_SECOND, "1");
+            put(OUTPUT_IN_MEMORY_IN_KB, "256");
+            put(DRIVER_POOL, "false");
+            put(DRIVER_POOL_MAX_USES, "10");
+            put(WARM_SESSIONS, "0");
+            put(EVENT_DRIVEN_WAITS, "false");
+            put(POLLING_STRATEGY, "");
+            put(PROFILE_WAITS, "false");
+            put(RUN_REPORT, "true");
         }
     };
 
     @Override
     protected void configure() {
-        // Loads the default properties.
-        Properties properties = new Properties();
-        defaultProperties.entrySet()
-                .stream()
-                .forEach(entry -> properties.setProperty(entry.getKey(), entry.getValue()));
-
-        String path = TestRunnerConfig.ARGUMENTS == null ? DEFAULT_CONFIG : TestRunnerConfig.ARGUMENTS.conf();
-        Path propertiesPath = Paths.get(path);
-
-        // Loads the properties set in the properties file.
-        if (Files.exists(propertiesPath)) {
-            try {
-                properties.load(new FileInputStream(propertiesPath.toFile()));
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to load properties file " + propertiesPath, e);
-            }
-        } else {
-            throw new IllegalArgumentException("Properties file does not exist " + propertiesPath);
-        }
-
-        // To load the capabilities from properties file.
-        if (TestRunnerConfig.ARGUMENTS == null && properties.get(CAPABILITIES) != null) {
-            TestRunnerConfig.initialize(properties);
-        }
-
-        if (TestRunnerConfig.ARGUMENTS == null) {
-            throw new IllegalStateException("Capabilities were not loaded. Please set on properties file or command line args.");
-        }
-
-        if (TestRunnerConfig.ARGUMENTS.sauce()) {
-            setSauceProperties(properties);
-        } else {
-            properties.setProperty(PropertiesModule.REMOTE_ADDRESS, properties.getProperty(PropertiesModule.LOCAL_ADDRESS));
-        }
-
-        // This will override the properties set in the property file, with the properties sent in the extra parameters.
-        if (TestRunnerConfig.ARGUMENTS.extra() != null
-                && !TestRunnerConfig.ARGUMENTS.extra().isEmpty()) {
-            properties.putAll(TestRunnerConfig.ARGUMENTS.extra());
-        }
-        Names.bindProperties(binder(), properties);
+        // Loaded once, and only loaded again if TestRunnerConfig is initialized again.
+        AugmentedConfig config = AugmentedConfig.load(defaultProperties);
+        bind(AugmentedConfig.class).toInstance(config);
+        Names.bindProperties(binder(), config.toProperties());
 
         bind(DesiredCapabilities.class).toInstance(TestRunnerConfig.ARGUMENTS.capabilities());
         bind(String.class)
@@ -202,26 +232,6 @@ public class PropertiesModule extends AbstractModule {
                 .toInstance(ID);
 
         // Always set SauceRest, even with empty user key, so Guice does not complain.
-        bind(SauceREST.class).toInstance(new SauceREST(properties.getProperty(PropertiesModule.SAUCE_USER), properties.getProperty(PropertiesModule.SAUCE_KEY)));
-    }
-
-    /**
-     * Hack to set the sauce key and sauce user into the capabilities.
-     */
-    private void setSauceProperties(Properties properties) {
-        properties.setProperty(PropertiesModule.REMOTE_ADDRESS, properties.getProperty(PropertiesModule.SAUCE_ADDRESS));
-        if (Strings.isNullOrEmpty(properties.getProperty(PropertiesModule.SAUCE_KEY))) {
-            throw new IllegalArgumentException("To run on Sauce Labs, define SAUCE_KEY in the properties file");
-        }
-        if (Strings.isNullOrEmpty(properties.getProperty(PropertiesModule.SAUCE_USER))) {
-            throw new IllegalArgumentException("To run on Sauce Labs, define SAUCE_USER in the properties file");
-        }
-
-        // To override the app in the yaml.
-        if (!Strings.isNullOrEmpty(TestRunnerConfig.ARGUMENTS.app())) {
-            TestRunnerConfig.ARGUMENTS.capabilities().setCapability("app", "sauce-storage:" + TestRunnerConfig.ARGUMENTS.app());
-        }
-        TestRunnerConfig.ARGUMENTS.capabilities().setCapability("username", properties.getProperty(PropertiesModule.SAUCE_USER));
-        TestRunnerConfig.ARGUMENTS.capabilities().setCapability("access-key", properties.getProperty(PropertiesModule.SAUCE_KEY));
+        bind(SauceREST.class).toInstance(new SauceREST(config.get(PropertiesModule.SAUCE_USER), config.get(PropertiesModule.SAUCE_KEY)));
     }
 }
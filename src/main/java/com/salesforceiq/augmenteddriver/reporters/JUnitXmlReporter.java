@@ -0,0 +1,256 @@
+package com.salesforceiq.augmenteddriver.reporters;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.salesforceiq.augmenteddriver.runners.TestTrace;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Writes the results of a whole suite to one JUnit XML file, streaming a testcase as each test finishes.
+ *
+ * <p>
+ *     Every test gets its own listener (see listener), all of them write to the same StAX writer, so it is safe to
+ *     use from the -parallel workers. Retries are written the way Surefire does: a test that failed every attempt
+ *     has a failure and one rerunFailure per retry, a test that passed after failing has one flakyFailure per failed
+ *     attempt.
+ * </p>
+ * <p>
+ *     The tests, failures and errors of the testsuite are not written, since they are only known at the end, Jenkins
+ *     counts the testcases.
+ * </p>
+ */
+public class JUnitXmlReporter implements AutoCloseable {
+
+    private final Path file;
+    private final OutputStream out;
+    private final XMLStreamWriter writer;
+
+    /**
+     * Creates the file and starts the testsuite.
+     *
+     * @param file where to write the results.
+     * @param suiteName the name of the testsuite.
+     * @throws IOException if the file could not be created.
+     */
+    public JUnitXmlReporter(Path file, String suiteName) throws IOException {
+        Preconditions.checkNotNull(file);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(suiteName));
+
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.out = Files.newOutputStream(file);
+        try {
+            this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("name", suiteName);
+            writer.writeAttribute("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                    .format(Instant.now().truncatedTo(ChronoUnit.SECONDS).atOffset(ZoneOffset.UTC)));
+            writer.writeAttribute("hostname", hostname());
+            writer.writeCharacters("\n");
+            writer.flush();
+        } catch (XMLStreamException e) {
+            out.close();
+            throw new IOException(String.format("Could not start the JUnit XML report %s", file), e);
+        }
+    }
+
+    /**
+     * @return the file with the results.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @param nameAppender appended to the name of each test, can be empty but not null.
+     * @return a listener for JUnitCore that writes the tests it runs to this report.
+     */
+    public RunListener listener(String nameAppender) {
+        Preconditions.checkNotNull(nameAppender);
+
+        return new Listener(nameAppender);
+    }
+
+    /**
+     * Writes one testcase.
+     *
+     * @param className the class of the test.
+     * @param name the name of the test.
+     * @param millis how long the test took.
+     * @param failure why the test failed, null if it passed.
+     * @param failedAttempts why each attempt failed, the last one being the failure if the test failed.
+     * @param skipped why the test was skipped, null if it was not.
+     * @throws IOException if the testcase could not be written.
+     */
+    public synchronized void testcase(String className,
+                                      String name,
+                                      long millis,
+                                      Throwable failure,
+                                      List<Throwable> failedAttempts,
+                                      String skipped) throws IOException {
+        Preconditions.checkNotNull(failedAttempts);
+
+        try {
+            writer.writeCharacters("  ");
+            writer.writeStartElement("testcase");
+            writer.writeAttribute("classname", Strings.nullToEmpty(className));
+            writer.writeAttribute("name", Strings.nullToEmpty(name));
+            writer.writeAttribute("time", String.format("%.3f", millis / 1000.0));
+            if (skipped != null) {
+                writer.writeEmptyElement("skipped");
+                writer.writeAttribute("message", clean(skipped));
+            } else if (failure != null) {
+                if (failedAttempts.isEmpty()) {
+                    write(failure, "failure", "error");
+                } else {
+                    write(failedAttempts.get(0), "failure", "error");
+                    for (Throwable rerun : failedAttempts.subList(1, failedAttempts.size())) {
+                        write(rerun, "rerunFailure", "rerunError");
+                    }
+                }
+            } else {
+                for (Throwable flaky : failedAttempts) {
+                    write(flaky, "flakyFailure", "flakyError");
+                }
+            }
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not write %s#%s to %s", className, name, file), e);
+        }
+    }
+
+    /**
+     * Ends the testsuite and closes the file.
+     *
+     * @throws IOException if the file could not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not finish the JUnit XML report %s", file), e);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void write(Throwable throwable, String failureElement, String errorElement) throws XMLStreamException {
+        writer.writeStartElement(throwable instanceof AssertionError ? failureElement : errorElement);
+        writer.writeAttribute("message", clean(Strings.nullToEmpty(throwable.getMessage())));
+        writer.writeAttribute("type", throwable.getClass().getName());
+        writer.writeCharacters(clean(ExceptionUtils.getStackTrace(throwable)));
+        writer.writeEndElement();
+    }
+
+    /**
+     * StAX escapes the markup, but not the characters that are not allowed in XML 1.0 (like the ANSI colors some
+     * drivers put in their messages).
+     */
+    private static String clean(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        text.codePoints()
+                .filter(codePoint -> codePoint == '\t' || codePoint == '\n' || codePoint == '\r'
+                        || (codePoint >= 0x20 && codePoint <= 0xD7FF)
+                        || (codePoint >= 0xE000 && codePoint <= 0xFFFD)
+                        || codePoint >= 0x10000)
+                .forEach(result::appendCodePoint);
+        return result.toString();
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    /**
+     * Collects what JUnitCore reports for a test and writes it when the test finishes.
+     */
+    private class Listener extends RunListener {
+        private final String nameAppender;
+        private long start;
+        private Failure failure;
+        private String skipped;
+
+        private Listener(String nameAppender) {
+            this.nameAppender = nameAppender;
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            start = System.currentTimeMillis();
+            failure = null;
+            skipped = null;
+        }
+
+        @Override
+        public void testFailure(Failure failure) throws IOException {
+            if (start == 0) {
+                // Failed before starting, for example in a @BeforeClass.
+                if (TestTrace.retried(failure.getException())) {
+                    return;
+                }
+                testcase(failure.getDescription().getClassName(), name(failure.getDescription()), 0,
+                        failure.getException(), TestTrace.failedAttempts(), null);
+            } else {
+                this.failure = failure;
+            }
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            skipped = Strings.nullToEmpty(failure.getMessage());
+        }
+
+        @Override
+        public void testIgnored(Description description) throws IOException {
+            testcase(description.getClassName(), name(description), 0, null, TestTrace.failedAttempts(), "Ignored");
+        }
+
+        @Override
+        public void testFinished(Description description) throws IOException {
+            if (failure != null && TestTrace.retried(failure.getException())) {
+                // The retry writes the testcase, with this failure as a rerun.
+                start = 0;
+                return;
+            }
+            testcase(description.getClassName(), name(description), System.currentTimeMillis() - start,
+                    failure == null ? null : failure.getException(), TestTrace.failedAttempts(), skipped);
+            start = 0;
+        }
+
+        private String name(Description description) {
+            String methodName = Strings.isNullOrEmpty(description.getMethodName())
+                    ? description.getDisplayName()
+                    : description.getMethodName();
+            return Strings.isNullOrEmpty(nameAppender) ? methodName : String.format("%s-%s", methodName, nameAppender);
+        }
+    }
+}
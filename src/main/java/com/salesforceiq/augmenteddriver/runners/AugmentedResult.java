@@ -1,22 +1,75 @@
 package com.salesforceiq.augmenteddriver.runners;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.salesforceiq.augmenteddriver.util.CommandTotals;
+import org.junit.runner.Description;
 import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
 
-import java.io.ByteArrayOutputStream;
+import java.util.List;
 
 /**
- * Wrapper o a result that also contains the output stream.
+ * Wrapper o a result that also contains the output of the test.
  */
 public class AugmentedResult {
 
     private final Result result;
-    private final ByteArrayOutputStream out;
+    private final TestOutput out;
     private final String testName;
+    private final CommandTotals commands;
+    private final TestTrace trace;
+    private final List<AugmentedResult> previousAttempts;
 
-    public AugmentedResult(String testName, Result result, ByteArrayOutputStream out) {
+    public AugmentedResult(String testName, Result result, TestOutput out) {
+        this(testName, result, out, new CommandTotals(testName));
+    }
+
+    public AugmentedResult(String testName, Result result, TestOutput out, CommandTotals commands) {
+        this(testName, result, out, commands, new TestTrace(testName));
+    }
+
+    public AugmentedResult(String testName, Result result, TestOutput out, CommandTotals commands, TestTrace trace) {
+        this(testName, result, out, commands, trace, ImmutableList.of());
+    }
+
+    private AugmentedResult(String testName,
+                            Result result,
+                            TestOutput out,
+                            CommandTotals commands,
+                            TestTrace trace,
+                            List<AugmentedResult> previousAttempts) {
         this.result = result;
         this.testName = testName;
         this.out = out;
+        this.commands = commands;
+        this.trace = trace;
+        this.previousAttempts = ImmutableList.copyOf(previousAttempts);
+    }
+
+    /**
+     * @param previousAttempts the attempts of the test that ran before this one.
+     * @return this result, keeping the previous attempts.
+     */
+    public AugmentedResult afterAttempts(List<AugmentedResult> previousAttempts) {
+        return new AugmentedResult(testName, result, out, commands, trace, previousAttempts);
+    }
+
+    /**
+     * Result for a test that did not run to completion, for example because it was cancelled.
+     *
+     * @param test the test.
+     * @param cause why it did not complete.
+     * @return a failed result without output.
+     */
+    public static AugmentedResult failed(Description test, Throwable cause) {
+        Result result = new Result();
+        try {
+            result.createListener().testFailure(new Failure(test, cause));
+        } catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
+        return new AugmentedResult(TestTimings.nameOf(test), result, new TestOutput(0));
     }
 
     public Result getResult() {
@@ -27,7 +80,28 @@ public class AugmentedResult {
         return testName;
     }
 
-    public ByteArrayOutputStream getOut() {
+    public TestOutput getOut() {
         return out;
     }
+
+    /**
+     * @return the WebDriver/Appium commands the test executed.
+     */
+    public CommandTotals getCommands() {
+        return commands;
+    }
+
+    /**
+     * @return every attempt of the test, this one last.
+     */
+    public List<AugmentedResult> getAttempts() {
+        return ImmutableList.<AugmentedResult>builder().addAll(previousAttempts).add(this).build();
+    }
+
+    /**
+     * @return the session, attempts and phases of the test.
+     */
+    public TestTrace getTrace() {
+        return trace;
+    }
 }
@@ -0,0 +1,118 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the tests submitted by a runner, so the runner knows when all of them finished instead of polling.
+ *
+ * <p>
+ *     Every tracked test registers in a Phaser and arrives when its future completes, after its callback ran.
+ *     Tests can be tracked while others are still running (for example a retry tracked from a callback), as long as
+ *     it happens before the callback returns.
+ * </p>
+ */
+public class CompletionTracker {
+
+    private final Phaser phaser;
+    private final AtomicInteger passed;
+    private final AtomicInteger failed;
+    private final AtomicInteger cancelled;
+
+    public CompletionTracker() {
+        // The runner is the first party, so the phase does not advance until it waits.
+        this.phaser = new Phaser(1);
+        this.passed = new AtomicInteger();
+        this.failed = new AtomicInteger();
+        this.cancelled = new AtomicInteger();
+    }
+
+    /**
+     * Tracks a test, the callback runs before the test is counted as finished.
+     *
+     * @param future the future with the result of the test.
+     * @param callback what to do when the test finishes.
+     */
+    public void track(ListenableFuture<AugmentedResult> future, FutureCallback<AugmentedResult> callback) {
+        Preconditions.checkNotNull(future);
+        Preconditions.checkNotNull(callback);
+
+        phaser.register();
+        Futures.addCallback(future, new FutureCallback<AugmentedResult>() {
+            @Override
+            public void onSuccess(AugmentedResult result) {
+                try {
+                    callback.onSuccess(result);
+                } finally {
+                    (result.getResult().wasSuccessful() ? passed : failed).incrementAndGet();
+                    phaser.arriveAndDeregister();
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                try {
+                    callback.onFailure(t);
+                } finally {
+                    (t instanceof CancellationException ? cancelled : failed).incrementAndGet();
+                    phaser.arriveAndDeregister();
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits until all the tracked tests finished, or the timeout is reached.
+     *
+     * <p>
+     *     Should be called once, after all the tests were tracked.
+     * </p>
+     *
+     * @param timeout how much time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if all the tests finished, false if the timeout was reached.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            phaser.awaitAdvanceInterruptibly(phaser.arrive(), timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return how many tests finished and passed.
+     */
+    public int passed() {
+        return passed.get();
+    }
+
+    /**
+     * @return how many tests finished and failed, or could not run.
+     */
+    public int failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return how many tests were cancelled, because of a timeout.
+     */
+    public int cancelled() {
+        return cancelled.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PASSED: %s FAILED: %s CANCELLED: %s", passed(), failed(), cancelled());
+    }
+}
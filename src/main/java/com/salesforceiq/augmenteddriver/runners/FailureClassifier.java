@@ -0,0 +1,58 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Throwables;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.IOException;
+
+/**
+ * Tells apart the failures caused by the infrastructure (grid, SauceLabs, the app under test being down) from the
+ * failures of the test itself.
+ *
+ * <p>
+ *     When the infrastructure is down every test fails the same way, so the runners report it instead of retrying
+ *     every test against an unhealthy system.
+ * </p>
+ */
+public final class FailureClassifier {
+
+    /**
+     * What caused a failure.
+     */
+    public enum Kind {
+        // The session could not be created or used, or the transport to the grid failed or timed out.
+        INFRASTRUCTURE,
+        // An assertion, a wait for an element that timed out, or any other failure of the test itself.
+        ASSERTION
+    }
+
+    private FailureClassifier() {
+    }
+
+    /**
+     * @param failure why the test failed.
+     * @return INFRASTRUCTURE if the failure or any of its causes comes from the session or the transport.
+     */
+    public static Kind classify(Throwable failure) {
+        if (failure == null) {
+            return Kind.ASSERTION;
+        }
+        for (Throwable cause : Throwables.getCausalChain(failure)) {
+            if (isInfrastructure(cause)) {
+                return Kind.INFRASTRUCTURE;
+            }
+        }
+        return Kind.ASSERTION;
+    }
+
+    private static boolean isInfrastructure(Throwable cause) {
+        return cause instanceof SessionNotCreatedException
+                || cause instanceof UnreachableBrowserException
+                // A WebDriverException caused by an IOException is a transport error talking with the grid.
+                || cause instanceof WebDriverException && cause.getCause() instanceof IOException
+                // Includes the SocketTimeoutException of a request to the grid that timed out.
+                || cause instanceof IOException;
+    }
+}
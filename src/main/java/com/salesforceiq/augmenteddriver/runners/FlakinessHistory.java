@@ -0,0 +1,378 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.CountingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pass/fail and attempts of every test in every run, used to suggest which tests to quarantine or unquarantine.
+ *
+ * <p>
+ *     Stored as an append-only binary file: the name of each test is written once and every run after that takes
+ *     about 3 bytes per test (test id and one byte with the attempts and whether it passed), so a year of nightly runs
+ *     of a 2000 tests suite is a couple of MB that is read in one sequential pass. A run is appended under a file
+ *     lock, so shards running on the same machine can share the file. Every run ends with an end record, a run
+ *     without it (torn by a crash, or still being appended) is ignored, and dropped by the next append.
+ * </p>
+ */
+public class FlakinessHistory {
+    private static final Logger LOG = LoggerFactory.getLogger(FlakinessHistory.class);
+
+    private static final int MAGIC = 0x41444648;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    private static final int NAME = 1;
+    private static final int RUN = 2;
+    private static final int OUTCOME = 3;
+    private static final int END = 4;
+    private static final int PASSED = 0x80;
+    private static final int MAX_ATTEMPTS = 0x7F;
+
+    private final List<Stats> stats;
+
+    private FlakinessHistory(List<Stats> stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Appends the outcomes of one run.
+     *
+     * @param path where the history is stored, created if it does not exist.
+     * @param startedAt when the run started, in milliseconds since the epoch.
+     * @param outcomes the outcome of each test of the run.
+     * @throws IOException if the history could not be read or written.
+     */
+    public static void append(Path path, long startedAt, List<Outcome> outcomes) throws IOException {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkNotNull(outcomes);
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                append(channel, startedAt, outcomes);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static void append(FileChannel channel, long startedAt, List<Outcome> outcomes) throws IOException {
+        Map<String, Integer> ids = Maps.newHashMap();
+        long end = scan(Channels.newInputStream(channel), new Visitor() {
+            @Override
+            public void name(int id, String name) {
+                ids.put(name, id);
+            }
+        });
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (end == 0) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+        out.writeByte(RUN);
+        out.writeLong(startedAt);
+        for (Outcome outcome : outcomes) {
+            Integer id = ids.get(outcome.name);
+            if (id == null) {
+                id = ids.size();
+                ids.put(outcome.name, id);
+                out.writeByte(NAME);
+                out.writeUTF(outcome.name);
+            }
+            out.writeByte(OUTCOME);
+            writeVarInt(out, id);
+            out.writeByte(Math.min(outcome.attempts, MAX_ATTEMPTS) | (outcome.passed ? PASSED : 0));
+        }
+        out.writeByte(END);
+        out.flush();
+
+        // Drops what a crashed append left after the last complete run.
+        channel.truncate(end);
+        channel.position(end);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Loads the last runs of each test, if the file does not exist it starts with no history.
+     *
+     * @param path where the history is stored.
+     * @param lastRuns how many of the last runs of each test are considered.
+     * @return the history.
+     * @throws IOException if the file exists but cannot be read.
+     */
+    public static FlakinessHistory load(Path path, int lastRuns) throws IOException {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkArgument(lastRuns > 0, "lastRuns should be greater than 0, got %s", lastRuns);
+
+        List<String> names = Lists.newArrayList();
+        Map<Integer, Deque<Integer>> outcomes = Maps.newHashMap();
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                scan(in, new Visitor() {
+                    @Override
+                    public void name(int id, String name) {
+                        names.add(name);
+                    }
+
+                    @Override
+                    public void outcome(int id, int outcome) {
+                        Deque<Integer> last = outcomes.computeIfAbsent(id, ignored -> new ArrayDeque<>(lastRuns));
+                        if (last.size() == lastRuns) {
+                            last.removeFirst();
+                        }
+                        last.addLast(outcome);
+                    }
+                });
+            }
+        }
+        return new FlakinessHistory(outcomes.entrySet().stream()
+                .map(entry -> Stats.of(names.get(entry.getKey()), entry.getValue()))
+                .sorted(Comparator.comparing(Stats::getTestName))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return the stats of every test in the history, sorted by name.
+     */
+    public List<Stats> stats() {
+        return ImmutableList.copyOf(stats);
+    }
+
+    /**
+     * @param quarantined the names of the tests already quarantined, they are not suggested.
+     * @param threshold the flake rate from which a test is suggested, for example 0.1.
+     * @param minRuns how many runs a test needs before being suggested.
+     * @return the tests to quarantine, the flakiest first.
+     */
+    public List<Stats> quarantineCandidates(Set<String> quarantined, double threshold, int minRuns) {
+        Preconditions.checkNotNull(quarantined);
+
+        return stats.stream()
+                .filter(test -> !quarantined.contains(test.getTestName()))
+                .filter(test -> test.getRuns() >= minRuns && test.flakeRate() >= threshold)
+                .sorted(Comparator.comparingDouble(Stats::flakeRate).reversed()
+                        .thenComparing(Comparator.comparingInt(Stats::getRuns).reversed()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param quarantined the names of the tests quarantined.
+     * @param minRuns how many runs in a row a quarantined test should pass at the first attempt.
+     * @return the quarantined tests that became stable, the ones with more runs first.
+     */
+    public List<Stats> unquarantineCandidates(Set<String> quarantined, int minRuns) {
+        Preconditions.checkNotNull(quarantined);
+
+        return stats.stream()
+                .filter(test -> quarantined.contains(test.getTestName()))
+                .filter(test -> test.getRuns() >= minRuns && test.flakeRate() == 0)
+                .sorted(Comparator.comparingInt(Stats::getRuns).reversed().thenComparing(Stats::getTestName))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the records of the complete runs, a run is only visited once its end record is read.
+     *
+     * @return the offset after the last complete run.
+     */
+    private static long scan(InputStream stream, Visitor visitor) throws IOException {
+        CountingInputStream counting = new CountingInputStream(new BufferedInputStream(stream));
+        DataInputStream in = new DataInputStream(counting);
+        long end = 0;
+        try {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a flakiness history, or written by another version");
+            }
+            end = HEADER_SIZE;
+            int names = 0;
+            List<String> runNames = Lists.newArrayList();
+            List<int[]> runOutcomes = Lists.newArrayList();
+            while (true) {
+                int tag = in.read();
+                if (tag == -1) {
+                    return end;
+                }
+                switch (tag) {
+                    case NAME:
+                        runNames.add(in.readUTF());
+                        break;
+                    case RUN:
+                        in.readLong();
+                        break;
+                    case OUTCOME:
+                        int id = readVarInt(in);
+                        int outcome = in.readUnsignedByte();
+                        Preconditions.checkState(id < names + runNames.size(), "Outcome of unknown test %s", id);
+                        runOutcomes.add(new int[] {id, outcome});
+                        break;
+                    case END:
+                        for (String name : runNames) {
+                            visitor.name(names++, name);
+                        }
+                        for (int[] runOutcome : runOutcomes) {
+                            visitor.outcome(runOutcome[0], runOutcome[1]);
+                        }
+                        runNames.clear();
+                        runOutcomes.clear();
+                        end = counting.getCount();
+                        break;
+                    default:
+                        LOG.warn(String.format("Unknown record %s at %s, ignoring the rest of the history", tag, end));
+                        return end;
+                }
+            }
+        } catch (EOFException e) {
+            return end;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int next = in.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed test id in the flakiness history");
+    }
+
+    private interface Visitor {
+        void name(int id, String name);
+
+        default void outcome(int id, int outcome) {
+        }
+    }
+
+    /**
+     * What happened with one test in one run.
+     */
+    public static class Outcome {
+        private final String name;
+        private final boolean passed;
+        private final int attempts;
+
+        /**
+         * @param name the name of the test.
+         * @param passed whether the last attempt passed.
+         * @param attempts how many attempts it took.
+         */
+        public Outcome(String name, boolean passed, int attempts) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+            Preconditions.checkArgument(attempts > 0, "attempts should be greater than 0, got %s", attempts);
+
+            this.name = name;
+            this.passed = passed;
+            this.attempts = attempts;
+        }
+    }
+
+    /**
+     * The last runs of one test.
+     */
+    public static class Stats {
+        private final String testName;
+        private final int runs;
+        private final int failed;
+        private final int flaky;
+
+        public Stats(String testName, int runs, int failed, int flaky) {
+            this.testName = testName;
+            this.runs = runs;
+            this.failed = failed;
+            this.flaky = flaky;
+        }
+
+        private static Stats of(String testName, Deque<Integer> outcomes) {
+            int failed = 0;
+            int flaky = 0;
+            for (int outcome : outcomes) {
+                if ((outcome & PASSED) == 0) {
+                    failed++;
+                } else if ((outcome & MAX_ATTEMPTS) > 1) {
+                    flaky++;
+                }
+            }
+            return new Stats(testName, outcomes.size(), failed, flaky);
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return in how many runs the test failed all its attempts.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return in how many runs the test passed after failing an attempt.
+         */
+        public int getFlaky() {
+            return flaky;
+        }
+
+        /**
+         * @return the fraction of the runs in which an attempt of the test failed.
+         */
+        public double flakeRate() {
+            return runs == 0 ? 0 : (double) (failed + flaky) / runs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %.0f%% (%s failed, %s flaky of the last %s runs)",
+                    testName, flakeRate() * 100, failed, flaky, runs);
+        }
+    }
+}
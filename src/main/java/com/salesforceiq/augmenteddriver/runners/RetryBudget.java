@@ -0,0 +1,103 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How many retries the whole suite can run, shared by all the tests.
+ *
+ * <p>
+ *     Without it, when the grid or the app under test is down every test retries MAX_ATTEMPTS times, multiplying the
+ *     load on a system that is already unhealthy and taking hours to report a broken run. Once the budget is spent the
+ *     failed tests are reported without retrying.
+ * </p>
+ */
+public class RetryBudget {
+    private static final Logger LOG = LoggerFactory.getLogger(RetryBudget.class);
+
+    private final int retries;
+    private final boolean retryAssertions;
+    private final AtomicInteger remaining;
+    private final AtomicBoolean exhausted;
+    private final Map<FailureClassifier.Kind, AtomicInteger> failures;
+
+    /**
+     * @param retries how many retries can be run.
+     * @param retryAssertions whether ASSERTION failures are retried too, otherwise only INFRASTRUCTURE ones are.
+     */
+    public RetryBudget(int retries, boolean retryAssertions) {
+        Preconditions.checkArgument(retries >= 0, "retries should not be negative, got %s", retries);
+
+        this.retries = retries;
+        this.retryAssertions = retryAssertions;
+        this.remaining = new AtomicInteger(retries);
+        this.exhausted = new AtomicBoolean(false);
+        this.failures = new EnumMap<>(FailureClassifier.Kind.class);
+        for (FailureClassifier.Kind kind : FailureClassifier.Kind.values()) {
+            failures.put(kind, new AtomicInteger());
+        }
+    }
+
+    /**
+     * @param tests how many tests the suite runs.
+     * @param percent the percentage of the tests that can be retried, rounded up.
+     * @param retryAssertions whether ASSERTION failures are retried too.
+     * @return the budget for the suite.
+     */
+    public static RetryBudget of(int tests, double percent, boolean retryAssertions) {
+        Preconditions.checkArgument(tests >= 0, "tests should not be negative, got %s", tests);
+        Preconditions.checkArgument(percent >= 0, "percent should not be negative, got %s", percent);
+
+        return new RetryBudget((int) Math.ceil(tests * percent / 100), retryAssertions);
+    }
+
+    /**
+     * Takes one retry from the budget for a failed attempt.
+     *
+     * <p>
+     *     ASSERTION failures are not retried (unless retryAssertions) and do not spend the budget, so a real
+     *     regression does not use up the retries meant for the infrastructure.
+     * </p>
+     *
+     * @param testName the test that failed.
+     * @param failure why it failed.
+     * @return true if the test can be retried, false if it failed on an assertion or the budget is spent.
+     */
+    public boolean tryRetry(String testName, Throwable failure) {
+        FailureClassifier.Kind kind = FailureClassifier.classify(failure);
+        failures.get(kind).incrementAndGet();
+        if (kind == FailureClassifier.Kind.ASSERTION && !retryAssertions) {
+            return false;
+        }
+        if (remaining.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            return true;
+        }
+        if (exhausted.compareAndSet(false, true)) {
+            LOG.error(String.format("Retry budget of %s spent (%s), %s failed with %s, not retrying more tests",
+                    retries, this, testName, kind));
+        }
+        return false;
+    }
+
+    /**
+     * @return how many retries are left.
+     */
+    public int remaining() {
+        return remaining.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s of %s retries used, failures: %s infrastructure, %s assertion",
+                retries - remaining.get(),
+                retries,
+                failures.get(FailureClassifier.Kind.INFRASTRUCTURE).get(),
+                failures.get(FailureClassifier.Kind.ASSERTION).get());
+    }
+}
@@ -0,0 +1,196 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.salesforceiq.augmenteddriver.util.CommandTotals;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report of a run with one JSON record per test (JSON Lines), appended as each test finishes.
+ *
+ * <p>
+ *     Each record is one line written with a single write, and the file is synced every SYNC_EVERY records or
+ *     SYNC_INTERVAL_IN_SECONDS, so it costs one small write per test. If the run is killed midway, the file has a
+ *     complete line for every test that finished before, read skips a last line that was cut in half.
+ * </p>
+ */
+public class RunReport implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(RunReport.class);
+
+    private static final int SYNC_EVERY = 16;
+    private static final long SYNC_INTERVAL_IN_SECONDS = 5;
+
+    private final Path path;
+    private FileChannel channel;
+    private int unsynced;
+    private long lastSync;
+    private boolean failed;
+
+    /**
+     * The file is created, or truncated if it exists, when the first test is appended.
+     *
+     * @param path where to write the report.
+     */
+    public RunReport(Path path) {
+        this.path = Preconditions.checkNotNull(path);
+        this.unsynced = 0;
+        this.lastSync = System.nanoTime();
+        this.failed = false;
+    }
+
+    /**
+     * @param shardIndex which shard.
+     * @param shardCount in how many shards the suite is split.
+     * @return the name of the report of the shard, run-report.jsonl when not sharding.
+     */
+    public static String fileName(int shardIndex, int shardCount) {
+        return shardCount > 1 ? String.format("run-report-%s-of-%s.jsonl", shardIndex, shardCount) : "run-report.jsonl";
+    }
+
+    /**
+     * Appends the record of a test.
+     *
+     * <p>
+     *     Never throws, if the report cannot be written it logs it and stops writing, the run goes on.
+     * </p>
+     *
+     * @param result the result of the test.
+     */
+    public synchronized void append(AugmentedResult result) {
+        Preconditions.checkNotNull(result);
+
+        if (failed) {
+            return;
+        }
+        ByteBuffer line = StandardCharsets.UTF_8.encode(toRecord(result).toString() + "\n");
+        try {
+            if (channel == null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            unsynced++;
+            if (unsynced >= SYNC_EVERY || System.nanoTime() - lastSync >= TimeUnit.SECONDS.toNanos(SYNC_INTERVAL_IN_SECONDS)) {
+                sync();
+            }
+        } catch (IOException e) {
+            failed = true;
+            LOG.warn(String.format("Could not write the run report to %s, not writing it anymore", path), e);
+        }
+    }
+
+    /**
+     * Syncs the records not synced yet and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (!failed) {
+                sync();
+            }
+            channel.close();
+            LOG.info(String.format("Run report written to %s", path));
+        } catch (IOException e) {
+            LOG.warn(String.format("Could not close the run report %s", path), e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private void sync() throws IOException {
+        if (unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+        lastSync = System.nanoTime();
+    }
+
+    /**
+     * Reads a report, even one of a run that was killed.
+     *
+     * @param path the report.
+     * @return one record per test, in the order they finished.
+     * @throws IOException if the file could not be read.
+     */
+    public static List<JsonObject> read(Path path) throws IOException {
+        Preconditions.checkNotNull(path);
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        List<JsonObject> records = Lists.newArrayListWithCapacity(lines.size());
+        JsonParser parser = new JsonParser();
+        for (int index = 0; index < lines.size(); index++) {
+            String line = lines.get(index);
+            if (Strings.isNullOrEmpty(line.trim())) {
+                continue;
+            }
+            try {
+                records.add(parser.parse(line).getAsJsonObject());
+            } catch (JsonParseException | IllegalStateException e) {
+                if (index < lines.size() - 1) {
+                    throw new IOException(String.format("Line %s of %s is not a valid record", index + 1, path), e);
+                }
+                LOG.warn(String.format("Ignoring the last line of %s, the run was probably killed while writing it", path));
+            }
+        }
+        return records;
+    }
+
+    static JsonObject toRecord(AugmentedResult augmentedResult) {
+        Result result = augmentedResult.getResult();
+        TestTrace trace = augmentedResult.getTrace();
+        CommandTotals commands = augmentedResult.getCommands();
+
+        JsonObject record = new JsonObject();
+        record.addProperty("test", augmentedResult.getTestName());
+        record.addProperty("status", result.wasSuccessful() ? "PASSED" : "FAILED");
+        record.addProperty("finishedAt", Instant.now().toString());
+        record.addProperty("attempts", trace == null ? 0 : trace.getAttempts());
+        record.addProperty("runTimeInMillis", result.getRunTime());
+        if (trace != null && trace.getSessionId().isPresent()) {
+            record.addProperty("sessionId", trace.getSessionId().get());
+        }
+        if (!result.getFailures().isEmpty()) {
+            Failure failure = result.getFailures().get(0);
+            record.addProperty("failure", Strings.isNullOrEmpty(failure.getMessage())
+                    ? failure.getException().getClass().getName()
+                    : failure.getMessage());
+        }
+        JsonObject phases = new JsonObject();
+        if (trace != null) {
+            trace.getPhasesInMillis().forEach(phases::addProperty);
+        }
+        record.add("phasesInMillis", phases);
+        if (commands != null) {
+            JsonObject commandsRecord = new JsonObject();
+            commandsRecord.addProperty("count", commands.count());
+            commandsRecord.addProperty("errors", commands.errors());
+            commandsRecord.addProperty("totalInMillis", commands.totalInMillis());
+            record.add("commands", commandsRecord);
+        }
+        return record;
+    }
+}
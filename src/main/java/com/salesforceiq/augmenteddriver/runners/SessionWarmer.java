@@ -0,0 +1,142 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidDriverPool;
+import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSDriverPool;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.testcases.AugmentedAndroidTestCase;
+import com.salesforceiq.augmenteddriver.testcases.AugmentedIOSTestCase;
+import com.salesforceiq.augmenteddriver.testcases.AugmentedWebTestCase;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
+import com.salesforceiq.augmenteddriver.util.AugmentedDriverPool;
+import com.salesforceiq.augmenteddriver.web.AugmentedWebDriverPool;
+import org.junit.runner.Description;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates sessions in the background before the tests need them, so a test does not wait for its session in setUp.
+ *
+ * <p>
+ *     Keeps up to WARM_SESSIONS idle sessions in the pool of the kind of driver the tests use, but never more than
+ *     the tests still queued, so no session is created once the queue is drained.
+ * </p>
+ */
+public class SessionWarmer implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionWarmer.class);
+
+    private static final long CHECK_IN_MILLISECONDS = 1000;
+
+    private final int sessions;
+    private final String remoteAddress;
+    private final DesiredCapabilities capabilities;
+    private final AugmentedWebDriverPool webDriverPool;
+    private final AugmentedAndroidDriverPool androidDriverPool;
+    private final AugmentedIOSDriverPool iosDriverPool;
+    private final AtomicInteger creating;
+    private ScheduledExecutorService checker;
+    private ExecutorService creators;
+
+    @Inject
+    public SessionWarmer(AugmentedConfig config,
+                         DesiredCapabilities capabilities,
+                         AugmentedWebDriverPool webDriverPool,
+                         AugmentedAndroidDriverPool androidDriverPool,
+                         AugmentedIOSDriverPool iosDriverPool) {
+        this.sessions = config.getInt(PropertiesModule.WARM_SESSIONS);
+        this.remoteAddress = config.get(PropertiesModule.REMOTE_ADDRESS);
+        this.capabilities = Preconditions.checkNotNull(capabilities);
+        this.webDriverPool = Preconditions.checkNotNull(webDriverPool);
+        this.androidDriverPool = Preconditions.checkNotNull(androidDriverPool);
+        this.iosDriverPool = Preconditions.checkNotNull(iosDriverPool);
+        this.creating = new AtomicInteger();
+    }
+
+    /**
+     * Starts warming sessions for the tests, does nothing if WARM_SESSIONS is 0.
+     *
+     * @param scheduler the scheduler running the tests.
+     * @param tests the tests that will run.
+     */
+    public void start(TestScheduler scheduler, List<Description> tests) {
+        Preconditions.checkNotNull(scheduler);
+        Preconditions.checkNotNull(tests);
+
+        AugmentedDriverPool<?> pool = poolFor(tests);
+        if (sessions <= 0 || pool == null) {
+            return;
+        }
+        LOG.info(String.format("Warming up to %s sessions ahead of the tests", sessions));
+        creators = Executors.newFixedThreadPool(sessions, new ThreadFactoryBuilder()
+                .setNameFormat("session-warmer-%d")
+                .setDaemon(true)
+                .build());
+        checker = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("session-warmer-checker-%d")
+                .setDaemon(true)
+                .build());
+        checker.scheduleWithFixedDelay(() -> warm(pool, scheduler), 0, CHECK_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+            creators.shutdownNow();
+        }
+    }
+
+    private void warm(AugmentedDriverPool<?> pool, TestScheduler scheduler) {
+        try {
+            int needed = Math.min(sessions, scheduler.queued());
+            pool.trim(remoteAddress, capabilities, needed);
+            pool.keepAlive(remoteAddress, capabilities);
+            for (int ready = pool.idle(remoteAddress, capabilities) + creating.get(); ready < needed; ready++) {
+                creating.incrementAndGet();
+                creators.submit(() -> {
+                    try {
+                        pool.warm(remoteAddress, capabilities);
+                    } catch (Exception e) {
+                        LOG.warn("Could not warm a session", e);
+                    } finally {
+                        creating.decrementAndGet();
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not check the warm sessions", e);
+        }
+    }
+
+    /**
+     * @return the pool of the kind of driver most of the tests use, or null if they are not Augmented test cases.
+     */
+    private AugmentedDriverPool<?> poolFor(List<Description> tests) {
+        long web = count(tests, AugmentedWebTestCase.class);
+        long android = count(tests, AugmentedAndroidTestCase.class);
+        long ios = count(tests, AugmentedIOSTestCase.class);
+        if (web == 0 && android == 0 && ios == 0) {
+            return null;
+        }
+        if (web >= android && web >= ios) {
+            return webDriverPool;
+        }
+        return android >= ios ? androidDriverPool : iosDriverPool;
+    }
+
+    private static long count(List<Description> tests, Class<?> testCase) {
+        return tests.stream()
+                .filter(test -> testCase.isAssignableFrom(test.getTestClass()))
+                .count();
+    }
+}
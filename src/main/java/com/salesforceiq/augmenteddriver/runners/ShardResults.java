@@ -0,0 +1,188 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Results of one shard of a suite, written so the results of all the shards can be merged.
+ *
+ * <p>
+ *     Stored as a properties file with one line per test (testName=PASSED,millis or testName=FAILED,millis).
+ *     Merging is just the union of all the files, since every test belongs to only one shard.
+ * </p>
+ */
+public class ShardResults {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardResults.class);
+
+    private static final String PASSED = "PASSED";
+    private static final String FAILED = "FAILED";
+
+    private static class ShardResultsCommandLineArguments {
+        private static ShardResultsCommandLineArguments ARGUMENTS;
+
+        private static ShardResultsCommandLineArguments initialize(String[] args) {
+            ShardResultsCommandLineArguments result = new ShardResultsCommandLineArguments();
+            JCommander jCommander = new JCommander();
+            jCommander.setAcceptUnknownOptions(true);
+            jCommander.addObject(result);
+            jCommander.parse(args);
+            ARGUMENTS = result;
+            return ARGUMENTS;
+        }
+
+        private List<Path> files() {
+            Preconditions.checkNotNull(ARGUMENTS, "Call ShardResultsCommandLineArguments#intialize first");
+            return Arrays.stream(ARGUMENTS.files.split(","))
+                    .map(Paths::get)
+                    .collect(Collectors.toList());
+        }
+
+        private String timings() {
+            Preconditions.checkNotNull(ARGUMENTS, "Call ShardResultsCommandLineArguments#intialize first");
+            return ARGUMENTS.timings;
+        }
+
+        @Parameter(names = "-files", description = "Comma delimited shard result files to merge")
+        private String files;
+
+        @Parameter(names = "-timings", description = "Timings file to update with the durations of all the shards")
+        private String timings;
+    }
+
+    /**
+     * @param shardIndex which shard.
+     * @param shardCount in how many shards the suite is split.
+     * @return the name of the file with the results of the shard.
+     */
+    public static String fileName(int shardIndex, int shardCount) {
+        return String.format("shard-%s-of-%s.properties", shardIndex, shardCount);
+    }
+
+    /**
+     * Writes the results of a shard.
+     *
+     * @param path where to write the results.
+     * @param results the results of the shard.
+     * @throws IOException if the file could not be written.
+     */
+    public static void write(Path path, List<AugmentedResult> results) throws IOException {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkNotNull(results);
+
+        Properties properties = new Properties();
+        results.forEach(result -> properties.setProperty(result.getTestName(), String.format("%s,%s",
+                result.getResult().wasSuccessful() ? PASSED : FAILED, result.getResult().getRunTime())));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Shard results, testName=PASSED|FAILED,millis");
+        }
+    }
+
+    /**
+     * Reads the results of a shard.
+     *
+     * @param path the file with the results.
+     * @return for each test, whether it passed and how much time it took.
+     * @throws IOException if the file could not be read.
+     */
+    public static Map<String, Entry> read(Path path) throws IOException {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkArgument(Files.exists(path), "Shard results %s do not exist", path);
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, Entry> result = Maps.newHashMap();
+        properties.stringPropertyNames().forEach(testName -> {
+            String[] value = properties.getProperty(testName).split(",", 2);
+            if (value.length != 2) {
+                throw new IllegalArgumentException(String.format("Result of %s in %s is not well formatted", testName, path));
+            }
+            result.put(testName, new Entry(PASSED.equals(value[0]), Long.valueOf(value[1])));
+        });
+        return ImmutableMap.copyOf(result);
+    }
+
+    /**
+     * Result of one test in a shard.
+     */
+    public static class Entry {
+        private final boolean passed;
+        private final long millis;
+
+        public Entry(boolean passed, long millis) {
+            this.passed = passed;
+            this.millis = millis;
+        }
+
+        public boolean passed() {
+            return passed;
+        }
+
+        public long millis() {
+            return millis;
+        }
+    }
+
+    /**
+     * Merges the results of all the shards, prints the failed tests and exits with 1 if any failed.
+     *
+     * <p>
+     *     If -timings is set, the durations of all the shards are recorded there, so the next run splits the suite
+     *     with the timings of all the shards.
+     * </p>
+     *
+     * @param args command line arguments.
+     * @throws Exception if something went wrong.
+     */
+    public static void main(String[] args) throws Exception {
+        ShardResultsCommandLineArguments arguments = ShardResultsCommandLineArguments.initialize(args);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(arguments.files), "You should specify the shard results with -files");
+
+        Map<String, Entry> merged = Maps.newTreeMap();
+        for (Path file : arguments.files()) {
+            merged.putAll(read(file));
+        }
+        List<String> failed = merged.entrySet()
+                .stream()
+                .filter(entry -> !entry.getValue().passed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        if (!Strings.isNullOrEmpty(arguments.timings())) {
+            TestTimings timings = TestTimings.load(Paths.get(arguments.timings()));
+            merged.entrySet()
+                    .stream()
+                    // Tests that were cancelled before running have no duration.
+                    .filter(entry -> entry.getValue().millis() > 0)
+                    .forEach(entry -> timings.record(entry.getKey(), entry.getValue().millis()));
+            timings.save();
+        }
+
+        failed.forEach(testName -> System.out.println(String.format("FAILED %s", testName)));
+        LOG.info(String.format("TOTAL: %s SUCCEEDED: %s FAILED %s", merged.size(), merged.size() - failed.size(), failed.size()));
+        if (!failed.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -5,24 +5,31 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.*;
 import com.google.inject.*;
-import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
+import com.salesforceiq.augmenteddriver.util.AugmentedDriverPool;
 import com.salesforceiq.augmenteddriver.util.TestRunnerConfig;
 import com.salesforceiq.augmenteddriver.modules.CommandLineArgumentsModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.modules.TestRunnerModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
+import com.salesforceiq.augmenteddriver.util.CommandMetrics;
 import com.salesforceiq.augmenteddriver.util.Util;
+import com.salesforceiq.augmenteddriver.util.WaitProfiler;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.junit.runner.Description;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -33,46 +40,65 @@ import java.util.stream.Collectors;
 public class TestMethodRunner implements Callable<List<AugmentedResult>> {
     private static final Logger LOG = LoggerFactory.getLogger(TestMethodRunner.class);
 
-    private final Method method;
+    private final Description test;
     private final int quantity;
-    private final ListeningExecutorService executor;
+    private final TestScheduler scheduler;
+    private final CompletionTracker tracker;
     private final List<AugmentedResult> results;
     private final int timeoutInMinutes;
     private final TestRunnerFactory testRunnerFactory;
     private final int parallel;
     private final IntegrationFactory integrationFactory;
+    private final SessionWarmer sessionWarmer;
+    private final Path resultsDir;
+    private final boolean writeRunReport;
+    private final RunReport runReport;
 
     @Inject
-    public TestMethodRunner(@Named(PropertiesModule.TIMEOUT_IN_MINUTES) String timeOutInMinutes,
+    public TestMethodRunner(AugmentedConfig config,
                             TestRunnerConfig arguments,
                             TestRunnerFactory testRunnerFactory,
-                            IntegrationFactory integrationFactory) {
-        this.method = Preconditions.checkNotNull(arguments.test());
+                            IntegrationFactory integrationFactory,
+                            SessionWarmer sessionWarmer) {
+        Method method = Preconditions.checkNotNull(arguments.test());
+        // Described with -clazz, which can inherit the test from a base class.
+        this.test = Description.createTestDescription(arguments.clazz(), method.getName(), method.getAnnotations());
         this.testRunnerFactory = Preconditions.checkNotNull(testRunnerFactory);
         this.quantity = arguments.quantity();
         this.results = Collections.synchronizedList(Lists.newArrayList());
         this.parallel = arguments.parallel();
-        this.executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(parallel));
-        this.timeoutInMinutes = Integer.valueOf(timeOutInMinutes);
+        this.tracker = new CompletionTracker();
+        this.scheduler = new TestScheduler(parallel, config.getDouble(PropertiesModule.SESSIONS_PER_SECOND),
+                config.getDuration(PropertiesModule.TEST_TIMEOUT_IN_MINUTES, ChronoUnit.MINUTES).getSeconds());
+        this.timeoutInMinutes = config.getInt(PropertiesModule.TIMEOUT_IN_MINUTES);
         this.integrationFactory = Preconditions.checkNotNull(integrationFactory);
+        this.sessionWarmer = Preconditions.checkNotNull(sessionWarmer);
+        this.resultsDir = Paths.get(config.get(PropertiesModule.RESULTS_DIR));
+        this.writeRunReport = config.getBoolean(PropertiesModule.RUN_REPORT);
+        this.runReport = new RunReport(resultsDir.resolve(RunReport.fileName(0, 1)));
     }
 
     @Override
     public List<AugmentedResult> call() throws Exception {
-        String testName = String.format("%s#%s", method.getDeclaringClass().getCanonicalName(), method.getName());
+        String testName = TestTimings.nameOf(test);
         long start = System.currentTimeMillis();
         LOG.info(String.format("STARTING TestMethodRunner %s, running it %s times %s in parallel", testName, quantity, parallel));
         try {
+            if (integrationFactory.jenkins().isEnabled()) {
+                integrationFactory.jenkins().startSuite(testName);
+            }
             if (integrationFactory.slack().isEnabled()) {
                 integrationFactory.slack().initialize();
                 integrationFactory.slack().startDigest(String.format("Running %s, %s times, %s in parallel", testName, quantity, parallel));
             }
             for (int index = 0; index < this.quantity; index++) {
-                Util.pause(Util.getRandom(500, 2000));
-                ListenableFuture<AugmentedResult> future = executor.submit(testRunnerFactory.create(method, String.valueOf(index), false));
-                Futures.addCallback(future, createCallback(method));
+                ListenableFuture<AugmentedResult> future = scheduler.submit(testRunnerFactory.create(test, String.valueOf(index)));
+                tracker.track(future, createCallback(test));
             }
-            executor.awaitTermination(timeoutInMinutes, TimeUnit.MINUTES);
+            scheduler.shutdown();
+            sessionWarmer.start(scheduler, Collections.nCopies(quantity, test));
+            awaitCompletion();
+            WaitProfiler.writeReport(resultsDir);
             LOG.info(String.format("FINISHED TestMethodRunner %s in %s", testName,Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start)));
 
             if (integrationFactory.slack().isEnabled()) {
@@ -81,32 +107,56 @@ public class TestMethodRunner implements Callable<List<AugmentedResult>> {
             }
             return ImmutableList.copyOf(results);
         } finally {
+            sessionWarmer.close();
+            runReport.close();
+            if (integrationFactory.sauceLabs().isEnabled()) {
+                integrationFactory.sauceLabs().flush();
+            }
+            integrationFactory.jenkins().finishSuite();
+            AugmentedDriverPool.drainAll();
             if (integrationFactory.slack().isEnabled()) {
                 integrationFactory.slack().close();
             }
         }
     }
 
-    private FutureCallback<AugmentedResult> createCallback(Method method) {
+    /**
+     * Waits for all the tests, if the timeout is reached the ones still queued or running are cancelled.
+     */
+    private void awaitCompletion() throws InterruptedException {
+        if (!tracker.await(timeoutInMinutes, TimeUnit.MINUTES)) {
+            LOG.error(String.format("TIMEOUT: tests did not finish after %s minutes, cancelled %s of them",
+                    timeoutInMinutes, scheduler.shutdownNow()));
+        }
+        LOG.info(String.format("TOTAL: %s %s", tracker.passed() + tracker.failed() + tracker.cancelled(), tracker));
+        LOG.info(String.format("COMMANDS:%n%s", CommandMetrics.summary()));
+    }
+
+    private FutureCallback<AugmentedResult> createCallback(Description test) {
         return new FutureCallback<AugmentedResult>() {
             @Override
             public void onSuccess(AugmentedResult result) {
                 results.add(result);
-                LOG.info(String.format("Test %s finished of %s", results.size(), quantity));
-                if (results.size() == quantity) {
-                    executor.shutdown();
+                if (writeRunReport) {
+                    runReport.append(result);
                 }
+                LOG.info(String.format("Test %s finished of %s", results.size(), quantity));
                 processOutput(result.getOut());
             }
 
             @Override
             public void onFailure(Throwable t) {
+                AugmentedResult result = AugmentedResult.failed(test, t);
+                results.add(result);
+                if (writeRunReport) {
+                    runReport.append(result);
+                }
                 System.out.println("-------------------------------------------------------------");
                 System.out.println("-------------------------------------------------------------");
                 System.out.println("-------------------------------------------------------------");
                 System.out.println("-------------------------------------------------------------");
-                System.out.println("UNEXPECTED FAILURE");
-                System.out.println(String.format("FAILED %s#%s", method.getDeclaringClass(), method.getName()));
+                System.out.println(t instanceof CancellationException ? "CANCELLED" : "UNEXPECTED FAILURE");
+                System.out.println(String.format("FAILED %s#%s", test.getTestClass(), test.getMethodName()));
                 System.out.println("REASON: " + t.getMessage());
                 System.out.println("STACKTRACE:");
                 System.out.println(ExceptionUtils.getStackTrace(t));
@@ -115,13 +165,19 @@ public class TestMethodRunner implements Callable<List<AugmentedResult>> {
                 System.out.println("-------------------------------------------------------------");
             }
 
-            private void processOutput(ByteArrayOutputStream outputStream) {
-                ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
-                int oneByte;
-                synchronized (System.out) {
-                    while ((oneByte = inputStream.read()) != -1) {
-                        System.out.write(oneByte);
+            /**
+             * Prints the output of the test in one bulk transfer, so it is not mixed with the output of other tests.
+             */
+            private void processOutput(TestOutput output) {
+                try {
+                    synchronized (System.out) {
+                        output.transferTo(Channels.newChannel(System.out));
+                        System.out.flush();
                     }
+                } catch (IOException e) {
+                    LOG.warn(String.format("Could not print the output of %s#%s", test.getTestClass(), test.getMethodName()), e);
+                } finally {
+                    output.release();
                 }
             }
         };
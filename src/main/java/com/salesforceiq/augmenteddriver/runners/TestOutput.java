@@ -0,0 +1,167 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Inject;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Output of one test.
+ *
+ * <p>
+ *     Kept in memory until it reaches the threshold, after that everything is spilled to a temporary file, so
+ *     verbose tests running in parallel do not fill the heap. Once printed, call release to delete the file, the
+ *     file is also deleted when the JVM exits in case the output of a test is never released.
+ * </p>
+ */
+public class TestOutput extends OutputStream {
+    private static final Logger LOG = LoggerFactory.getLogger(TestOutput.class);
+
+    private final int thresholdInBytes;
+    private byte[] buffer;
+    private int count;
+    private Path file;
+    private OutputStream fileStream;
+    private long size;
+    private boolean released;
+
+    @Inject
+    public TestOutput(AugmentedConfig config) {
+        this(config.getInt(PropertiesModule.OUTPUT_IN_MEMORY_IN_KB) * 1024);
+    }
+
+    /**
+     * @param thresholdInBytes how many bytes are kept in memory before spilling to a file.
+     */
+    public TestOutput(int thresholdInBytes) {
+        Preconditions.checkArgument(thresholdInBytes >= 0, "thresholdInBytes should not be negative, got %s", thresholdInBytes);
+
+        this.thresholdInBytes = thresholdInBytes;
+        this.buffer = new byte[Math.min(thresholdInBytes, 1024)];
+        this.count = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public synchronized void write(int oneByte) throws IOException {
+        write(new byte[] {(byte) oneByte}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        Preconditions.checkNotNull(bytes);
+        Preconditions.checkPositionIndexes(offset, offset + length, bytes.length);
+
+        if (released) {
+            // A cancelled test can still be writing after its output was released.
+            return;
+        }
+        if (fileStream == null && count + length > thresholdInBytes) {
+            spill();
+        }
+        if (fileStream != null) {
+            fileStream.write(bytes, offset, length);
+        } else {
+            if (count + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(thresholdInBytes, Math.max(buffer.length * 2, count + length)));
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+        size += length;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (fileStream != null) {
+            fileStream.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * @return how many bytes were written.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @return whether the output was spilled to a temporary file.
+     */
+    public synchronized boolean spilled() {
+        return file != null;
+    }
+
+    /**
+     * Writes all the output to the target in bulk.
+     *
+     * @param target where to write the output, for example Channels.newChannel(System.out).
+     * @throws IOException if the output could not be read or written.
+     */
+    public synchronized void transferTo(WritableByteChannel target) throws IOException {
+        Preconditions.checkNotNull(target);
+
+        if (file == null) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, count);
+            while (bytes.hasRemaining()) {
+                target.write(bytes);
+            }
+            return;
+        }
+        fileStream.flush();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            long total = channel.size();
+            while (position < total) {
+                position += channel.transferTo(position, total - position, target);
+            }
+        }
+    }
+
+    /**
+     * Frees the memory and deletes the temporary file, the output is empty after this and later writes are dropped.
+     */
+    public synchronized void release() {
+        released = true;
+        buffer = new byte[0];
+        count = 0;
+        if (file != null) {
+            try {
+                fileStream.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.warn(String.format("Could not delete the test output %s", file), e);
+            } finally {
+                file = null;
+                fileStream = null;
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        file = Files.createTempFile("augmented-output-", ".log");
+        file.toFile().deleteOnExit();
+        fileStream = new BufferedOutputStream(Files.newOutputStream(file));
+        fileStream.write(buffer, 0, count);
+        buffer = new byte[0];
+        count = 0;
+    }
+}
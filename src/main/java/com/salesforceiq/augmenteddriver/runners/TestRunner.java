@@ -1,21 +1,26 @@
 package com.salesforceiq.augmenteddriver.runners;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
+import com.salesforceiq.augmenteddriver.util.CommandMetrics;
+import com.salesforceiq.augmenteddriver.util.CommandTotals;
 import com.salesforceiq.augmenteddriver.util.Util;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.junit.runner.Description;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Request;
 import org.junit.runner.Result;
 import ru.yandex.qatools.allure.junit.AllureRunListener;
 
-import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
-import java.lang.reflect.Method;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.function.Predicate;
 
 /**
  * Knows how to run one test.
@@ -23,23 +28,41 @@ import java.util.concurrent.Callable;
 public class TestRunner implements Callable<AugmentedResult> {
     private static final Log LOG = LogFactory.getLog(TestRunner.class);
 
-    private final Method test;
-    private final ByteArrayOutputStream outputStream;
+    private final Description test;
+    private final TestOutput outputStream;
     private final String nameAppender;
     private final IntegrationFactory integrationFactory;
-    private final boolean retry;
+    private final long createdAt;
+    private List<AugmentedResult> previousAttempts;
+    private Predicate<Throwable> retryPolicy;
 
     @Inject
-    public TestRunner(@Assisted Method test,
+    public TestRunner(@Assisted Description test,
                       @Assisted String nameAppender,
-                      @Assisted boolean retry,
-                      ByteArrayOutputStream outputStream,
+                      TestOutput outputStream,
                       IntegrationFactory integrationFactory) {
         this.test = Preconditions.checkNotNull(test);
         this.nameAppender = Preconditions.checkNotNull(nameAppender);
         this.outputStream = Preconditions.checkNotNull(outputStream);
-        this.retry = retry;
         this.integrationFactory = Preconditions.checkNotNull(integrationFactory);
+        // Runners create the TestRunner when they queue the test.
+        this.createdAt = System.currentTimeMillis();
+        this.previousAttempts = ImmutableList.of();
+        this.retryPolicy = failure -> false;
+    }
+
+    /**
+     * Runs the test as one more attempt of a test that failed.
+     *
+     * @param previousAttempts the attempts that ran before, in order.
+     * @param retryPolicy whether the test is retried if this attempt fails with the given failure, asked once when
+     *                    it fails, so the reporters know if this is the last attempt.
+     * @return this runner.
+     */
+    public TestRunner attempt(List<AugmentedResult> previousAttempts, Predicate<Throwable> retryPolicy) {
+        this.previousAttempts = ImmutableList.copyOf(Preconditions.checkNotNull(previousAttempts));
+        this.retryPolicy = Preconditions.checkNotNull(retryPolicy);
+        return this;
     }
 
     /**
@@ -51,21 +74,38 @@ public class TestRunner implements Callable<AugmentedResult> {
     @Override
     public AugmentedResult call() throws Exception {
         JUnitCore jUnitCore = getJUnitCore();
-        String testName = String.format("%s#%s", test.getDeclaringClass().getCanonicalName(), test.getName());
+        String testName = TestTimings.nameOf(test);
         long start = System.currentTimeMillis();
+        CommandMetrics.startTest(testName);
+        TestTrace.start(testName,
+                previousAttempts.isEmpty() ? null : Iterables.getLast(previousAttempts).getTrace(),
+                retryPolicy);
+        TestTrace.phase("queued", start - createdAt);
         try {
             LOG.info(String.format("STARTING Test %s", testName));
-            // HACK since for TestSuiteRunner we want to retry, and for TestMethodRunner we don't want to
-            // The other way would be a RETRY on augmented.properties, but this is independent of the configuration of
-            // the test.
-            if (retry) {
-                TestRunnerRetryingRule.retry();
+            Result result = jUnitCore.run(Request.method(test.getTestClass(), test.getMethodName()));
+            CommandTotals commands = CommandMetrics.finishTest();
+            if (!result.wasSuccessful() && TestTrace.failedAttempts().size() <= previousAttempts.size()) {
+                // Failed outside of the test method (for example in a @BeforeClass), where the rule does not see it.
+                TestTrace.attemptFailed(result.getFailures().get(0).getException());
+            }
+            if (!result.wasSuccessful()) {
+                // Decided here if no reporter asked when the test failed.
+                TestTrace.retried(result.getFailures().get(0).getException());
             }
-            Result result = jUnitCore.run(Request.method(test.getDeclaringClass(), test.getName()));
-            LOG.info(String.format("FINSHED Test %s in %s, result %s", testName,
-                    Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start), result.wasSuccessful()? "SUCCEEDED" : "FAILED"));
-            return new AugmentedResult(testName, result, outputStream);
+            TestTrace.phase("run", result.getRunTime());
+            TestTrace.phase("commands", commands.totalInMillis());
+            TestTrace trace = TestTrace.finish();
+            LOG.info(String.format("FINSHED Test %s in %s, result %s, %s", testName,
+                    Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start), result.wasSuccessful()? "SUCCEEDED" : "FAILED", commands));
+            return new AugmentedResult(testName, result, outputStream, commands, trace);
+        } catch (Throwable e) {
+            // Without a result nobody will print the output.
+            outputStream.release();
+            throw e;
         } finally {
+            CommandMetrics.finishTest();
+            TestTrace.finish();
             outputStream.close();
         }
     }
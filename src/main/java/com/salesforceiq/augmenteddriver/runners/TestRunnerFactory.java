@@ -1,6 +1,6 @@
 package com.salesforceiq.augmenteddriver.runners;
 
-import java.lang.reflect.Method;
+import org.junit.runner.Description;
 
 /**
  * Guice factory for creating TestRunners.
@@ -9,10 +9,9 @@ public interface TestRunnerFactory {
     /**
      * Creates a TestRunner that knows how to run a test.
      *
-     * @param test the test to run.
+     * @param test the test to run, with the class that runs it.
      * @param nameAppender String to append to the test name.
-     * @param retry whether to retry or not failing tests.
      * @return a Runner that can run a particular test.
      */
-    TestRunner create(Method test, String nameAppender, boolean retry);
+    TestRunner create(Description test, String nameAppender);
 }
\ No newline at end of file
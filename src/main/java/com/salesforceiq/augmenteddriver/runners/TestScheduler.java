@@ -0,0 +1,290 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules tests over a fixed number of workers.
+ *
+ * <p>
+ *     All the tests are queued up front, and every idle worker takes the next test from the queue as soon as it
+ *     finishes the one it was running, so no worker waits while there is still work queued.
+ * </p>
+ * <p>
+ *     Starting a test creates a new session on Selenium/Appium/SauceLabs, and starting all of them at once overloads
+ *     the grid. Instead of sleeping before each submission, every test has to take a token from a token bucket that
+ *     admits sessionsPerSecond tests per second before it starts.
+ * </p>
+ * <p>
+ *     Retries of failed tests go to a second queue, that workers only take from when there are no first attempts
+ *     queued, so a transient failure does not hold a worker with back to back retries and has time to clear.
+ *     Retries can be submitted after shutdown, until the last test finishes.
+ * </p>
+ * <p>
+ *     If a test runs longer than the test timeout, its future is cancelled and its worker interrupted, so one hung
+ *     test does not hold the whole run.
+ * </p>
+ */
+public class TestScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(TestScheduler.class);
+
+    private static final long POLL_IN_MILLISECONDS = 200;
+
+    private final BlockingDeque<ScheduledTest> queue;
+    private final BlockingDeque<ScheduledTest> retries;
+    private final Set<ScheduledTest> running;
+    private final RateLimiter admission;
+    private final CountDownLatch terminated;
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final long testTimeoutInSeconds;
+    private volatile boolean shutdown;
+    private volatile boolean stopped;
+
+    /**
+     * Creates the scheduler, without a timeout per test, and starts its workers.
+     *
+     * @param parallel how many tests can run at the same time.
+     * @param sessionsPerSecond how many tests can be started per second.
+     */
+    public TestScheduler(int parallel, double sessionsPerSecond) {
+        this(parallel, sessionsPerSecond, 0);
+    }
+
+    /**
+     * Creates the scheduler and starts its workers.
+     *
+     * @param parallel how many tests can run at the same time.
+     * @param sessionsPerSecond how many tests can be started per second.
+     * @param testTimeoutInSeconds after how many seconds a running test is cancelled, 0 for no timeout.
+     */
+    public TestScheduler(int parallel, double sessionsPerSecond, long testTimeoutInSeconds) {
+        Preconditions.checkArgument(parallel > 0, "parallel should be greater than 0, got %s", parallel);
+        Preconditions.checkArgument(sessionsPerSecond > 0, "sessionsPerSecond should be greater than 0, got %s", sessionsPerSecond);
+        Preconditions.checkArgument(testTimeoutInSeconds >= 0, "testTimeoutInSeconds should not be negative, got %s", testTimeoutInSeconds);
+
+        this.queue = new LinkedBlockingDeque<>();
+        this.retries = new LinkedBlockingDeque<>();
+        this.running = ConcurrentHashMap.newKeySet();
+        this.admission = RateLimiter.create(sessionsPerSecond);
+        this.terminated = new CountDownLatch(parallel);
+        this.testTimeoutInSeconds = testTimeoutInSeconds;
+        this.timeouts = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .setNameFormat("test-timeouts-%d")
+                .setDaemon(true)
+                .build());
+        // The timeout of a test that finished is cancelled, so it should not stay queued until it expires.
+        this.timeouts.setRemoveOnCancelPolicy(true);
+        this.shutdown = false;
+        this.stopped = false;
+
+        // Daemon, so a test that ignores the interruption after being cancelled does not keep the JVM alive.
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("test-worker-%d")
+                .setDaemon(true)
+                .build();
+        for (int index = 0; index < parallel; index++) {
+            threadFactory.newThread(this::work).start();
+        }
+    }
+
+    /**
+     * Queues a test to run.
+     *
+     * @param test the test to run.
+     * @return the future with the result of the test.
+     */
+    public ListenableFuture<AugmentedResult> submit(Callable<AugmentedResult> test) {
+        Preconditions.checkNotNull(test);
+        Preconditions.checkState(!shutdown, "Scheduler was already shut down");
+
+        ScheduledTest scheduledTest = new ScheduledTest(test);
+        queue.offer(scheduledTest);
+        return scheduledTest.future;
+    }
+
+    /**
+     * Queues the retry of a failed test, it runs once there are no first attempts queued.
+     *
+     * @param test the test to run.
+     * @return the future with the result of the retry.
+     */
+    public ListenableFuture<AugmentedResult> submitRetry(Callable<AugmentedResult> test) {
+        Preconditions.checkNotNull(test);
+        Preconditions.checkState(!stopped, "Scheduler was already stopped");
+
+        ScheduledTest scheduledTest = new ScheduledTest(test);
+        retries.offer(scheduledTest);
+        return scheduledTest.future;
+    }
+
+    /**
+     * @return how many tests are waiting for a worker, including the retries.
+     */
+    public int queued() {
+        return queue.size() + retries.size();
+    }
+
+    /**
+     * No more tests will be submitted, the workers finish once the queue is drained.
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Cancels all the queued tests and the ones running.
+     *
+     * @return how many tests were cancelled.
+     */
+    public int shutdownNow() {
+        shutdown = true;
+        stopped = true;
+        List<ScheduledTest> cancelled = Lists.newArrayList();
+        queue.drainTo(cancelled);
+        retries.drainTo(cancelled);
+        cancelled.addAll(running);
+        cancelled.forEach(ScheduledTest::cancel);
+        timeouts.shutdownNow();
+        return cancelled.size();
+    }
+
+    /**
+     * Waits until all the workers finished, or the timeout is reached.
+     *
+     * @param timeout how much time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if all the workers finished, false if the timeout was reached.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    private void work() {
+        try {
+            // A running test can still queue its retry, so workers wait for it.
+            while (!(shutdown && queue.isEmpty() && retries.isEmpty() && running.isEmpty())) {
+                ScheduledTest next = queue.poll();
+                if (next == null) {
+                    next = retries.poll();
+                }
+                if (next == null) {
+                    next = queue.poll(POLL_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+                }
+                if (next != null) {
+                    admission.acquire();
+                    run(next);
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.warn(String.format("Worker %s interrupted, stopping", Thread.currentThread().getName()));
+            Thread.currentThread().interrupt();
+        } finally {
+            terminated.countDown();
+            if (terminated.getCount() == 0) {
+                timeouts.shutdownNow();
+            }
+        }
+    }
+
+    private void run(ScheduledTest scheduledTest) {
+        running.add(scheduledTest);
+        ScheduledFuture<?> timeout = null;
+        if (testTimeoutInSeconds > 0 && !timeouts.isShutdown()) {
+            timeout = timeouts.schedule(() -> scheduledTest.timeOut(testTimeoutInSeconds), testTimeoutInSeconds, TimeUnit.SECONDS);
+        }
+        try {
+            scheduledTest.run();
+        } finally {
+            running.remove(scheduledTest);
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A test waiting in the queue, with the future that will hold its result.
+     */
+    private static class ScheduledTest {
+        private final Callable<AugmentedResult> test;
+        private final SettableFuture<AugmentedResult> future;
+        private Thread worker;
+
+        private ScheduledTest(Callable<AugmentedResult> test) {
+            this.test = test;
+            this.future = SettableFuture.create();
+        }
+
+        private void run() {
+            if (!start()) {
+                return;
+            }
+            try {
+                AugmentedResult result = test.call();
+                if (!future.set(result) && result != null) {
+                    // Cancelled while running, nobody will print its output.
+                    result.getOut().release();
+                }
+            } catch (Throwable e) {
+                future.setException(e);
+            } finally {
+                finish();
+            }
+        }
+
+        private synchronized boolean start() {
+            worker = Thread.currentThread();
+            return !future.isDone();
+        }
+
+        private synchronized void finish() {
+            worker = null;
+            // Clears the interruption of a cancel that arrived while running, so the worker keeps taking tests.
+            Thread.interrupted();
+        }
+
+        /**
+         * Cancels the test, interrupting the worker if it is running.
+         *
+         * @return true if the test was cancelled, false if it had already finished.
+         */
+        private synchronized boolean cancel() {
+            boolean cancelled = future.cancel(false);
+            if (cancelled && worker != null) {
+                worker.interrupt();
+            }
+            return cancelled;
+        }
+
+        /**
+         * Cancels the test because it ran longer than the timeout.
+         */
+        private synchronized void timeOut(long timeoutInSeconds) {
+            // Read before cancelling, the worker is cleared once the test finishes.
+            String workerName = worker == null ? "a worker" : worker.getName();
+            if (cancel()) {
+                LOG.warn(String.format("Test running on %s did not finish after %s seconds, cancelled it",
+                        workerName, timeoutInSeconds));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.junit.runner.Description;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the tests of a suite in shards, so several runners (in different JVMs or machines) can run one suite.
+ *
+ * <p>
+ *     The split only depends on the tests and the timings, so every shard computes the same partition without
+ *     talking to the others.
+ * </p>
+ */
+public class TestShard {
+
+    /**
+     * Returns the tests that belong to one shard.
+     *
+     * <p>
+     *     If there are timings, each test (longest first) is assigned to the shard with the least total time so far,
+     *     so all the shards take about the same time. Otherwise tests are sorted by name and dealt one per shard.
+     * </p>
+     *
+     * @param tests all the tests of the suite.
+     * @param timings durations of previous runs, can be empty.
+     * @param shardIndex which shard to return, from 0 to shardCount - 1.
+     * @param shardCount in how many shards the suite is split.
+     * @return the tests of the shard.
+     */
+    public static List<Description> of(List<Description> tests, TestTimings timings, int shardIndex, int shardCount) {
+        Preconditions.checkNotNull(tests);
+        Preconditions.checkNotNull(timings);
+        Preconditions.checkArgument(shardCount > 0, "shardCount should be greater than 0, got %s", shardCount);
+        Preconditions.checkArgument(shardIndex >= 0 && shardIndex < shardCount,
+                "shardIndex should be between 0 and %s, got %s", shardCount - 1, shardIndex);
+
+        boolean byDuration = !timings.isEmpty();
+        List<Description> sorted = byDuration ? timings.longestFirst(tests) : tests.stream()
+                .sorted(Comparator.comparing(TestTimings::nameOf))
+                .collect(Collectors.toList());
+
+        long[] totals = new long[shardCount];
+        List<Description> result = Lists.newArrayList();
+        for (int index = 0; index < sorted.size(); index++) {
+            Description test = sorted.get(index);
+            int shard = byDuration ? lightest(totals) : index % shardCount;
+            if (byDuration) {
+                totals[shard] += timings.estimate(TestTimings.nameOf(test));
+            }
+            if (shard == shardIndex) {
+                result.add(test);
+            }
+        }
+        return result;
+    }
+
+    private static int lightest(long[] totals) {
+        int lightest = 0;
+        for (int shard = 1; shard < totals.length; shard++) {
+            if (totals[shard] < totals[lightest]) {
+                lightest = shard;
+            }
+        }
+        return lightest;
+    }
+}
@@ -7,36 +7,42 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.Singleton;
-import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
 import com.salesforceiq.augmenteddriver.modules.CommandLineArgumentsModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.modules.TestRunnerModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
+import com.salesforceiq.augmenteddriver.util.CommandMetrics;
 import com.salesforceiq.augmenteddriver.util.Quarantine;
+import com.salesforceiq.augmenteddriver.util.AugmentedDriverPool;
 import com.salesforceiq.augmenteddriver.util.TestRunnerConfig;
 import com.salesforceiq.augmenteddriver.util.TestsFinder;
 import com.salesforceiq.augmenteddriver.util.Util;
+import com.salesforceiq.augmenteddriver.util.WaitProfiler;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junit.runner.Description;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -50,29 +56,57 @@ public class TestSuiteRunner implements Callable<List<AugmentedResult>> {
     private final List<String> suites;
     private final String suitesPackage;
     private final int timeoutInMinutes;
-    private final ListeningExecutorService executor;
+    private final TestScheduler scheduler;
+    private final CompletionTracker tracker;
     private final List<AugmentedResult> results;
     private final int parallel;
     private final boolean quarantine;
     private final IntegrationFactory integrationFactory;
+    private final SessionWarmer sessionWarmer;
+    private final Path timingsFile;
+    private final String historyFile;
+    private final Path resultsDir;
+    private final int shardIndex;
+    private final int shardCount;
+    private final int maxAttempts;
+    private final double retryBudgetPercent;
+    private final boolean retryAssertions;
+    private final boolean writeRunReport;
+    private final RunReport runReport;
     private int totalTests;
+    private RetryBudget retryBudget;
 
     @Inject
     public TestSuiteRunner(
-            @Named(PropertiesModule.TIMEOUT_IN_MINUTES) String timeOutInMinutes,
+            AugmentedConfig config,
             TestRunnerConfig arguments,
             TestRunnerFactory testRunnerFactory,
-            IntegrationFactory integrationFactory) {
+            IntegrationFactory integrationFactory,
+            SessionWarmer sessionWarmer) {
         this.testRunnerFactory = Preconditions.checkNotNull(testRunnerFactory);
         this.suites = arguments.suites();
         this.suitesPackage = arguments.suitesPackage();
-        this.timeoutInMinutes = Integer.valueOf(timeOutInMinutes);
+        this.timeoutInMinutes = config.getInt(PropertiesModule.TIMEOUT_IN_MINUTES);
         this.parallel = arguments.parallel();
-        this.executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(parallel));
+        this.tracker = new CompletionTracker();
+        this.scheduler = new TestScheduler(parallel, config.getDouble(PropertiesModule.SESSIONS_PER_SECOND),
+                config.getDuration(PropertiesModule.TEST_TIMEOUT_IN_MINUTES, ChronoUnit.MINUTES).getSeconds());
         this.totalTests = 0;
         this.quarantine = arguments.quarantine();
         this.results = Collections.synchronizedList(Lists.newArrayList());
         this.integrationFactory = Preconditions.checkNotNull(integrationFactory);
+        this.sessionWarmer = Preconditions.checkNotNull(sessionWarmer);
+        this.timingsFile = Paths.get(config.get(PropertiesModule.TIMINGS_FILE));
+        this.historyFile = config.get(PropertiesModule.HISTORY_FILE);
+        this.resultsDir = Paths.get(config.get(PropertiesModule.RESULTS_DIR));
+        this.shardIndex = arguments.shardIndex();
+        this.shardCount = arguments.shardCount();
+        this.maxAttempts = config.getInt(PropertiesModule.MAX_ATTEMPTS);
+        this.retryBudgetPercent = config.getDouble(PropertiesModule.RETRY_BUDGET_PERCENT);
+        this.retryAssertions = config.getBoolean(PropertiesModule.RETRY_ASSERTIONS);
+        this.retryBudget = new RetryBudget(0, retryAssertions);
+        this.writeRunReport = config.getBoolean(PropertiesModule.RUN_REPORT);
+        this.runReport = new RunReport(resultsDir.resolve(RunReport.fileName(shardIndex, shardCount)));
     }
 
     @Override
@@ -82,31 +116,54 @@ public class TestSuiteRunner implements Callable<List<AugmentedResult>> {
         List<Class> classesToTest = TestsFinder.getTestClassesOfPackage(suites, suitesPackage);
         LOG.info(String.format("Test Classes to run: %s", classesToTest));
         try {
+            if (integrationFactory.jenkins().isEnabled()) {
+                integrationFactory.jenkins().startSuite(suiteName());
+            }
             if (integrationFactory.slack().isEnabled()) {
                 integrationFactory.slack().initialize();
                 integrationFactory.slack().startDigest(String.format("Running %s suites", suites));
             }
-            classesToTest.stream()
-                    .forEach(test -> Lists.newArrayList(test.getMethods())
-                            .stream()
+            // Described with the class that runs them, so a test inherited from a base class is one test per subclass.
+            List<Description> allTests = classesToTest.stream()
+                    .flatMap(test -> Lists.newArrayList(test.getMethods()).stream()
                             .filter(method -> method.isAnnotationPresent(Test.class)
                                     && !method.isAnnotationPresent(Ignore.class)
                                     && method.isAnnotationPresent(Quarantine.class) == quarantine)
-
-                            .forEach(method -> {
-                                totalTests++;
-                                Util.pause(Util.getRandom(500, 2000));
-                                ListenableFuture<AugmentedResult> future = executor.submit(testRunnerFactory.create(method, "", true));
-                                Futures.addCallback(future, createCallback(method));
-                            }));
-            LOG.info(String.format("Total tests running: %s", totalTests));
-            executor.awaitTermination(timeoutInMinutes, TimeUnit.MINUTES);
+                            .map(method -> Description.createTestDescription(
+                                    test, method.getName(), method.getAnnotations())))
+                    .collect(Collectors.toList());
+            TestTimings timings = TestTimings.load(timingsFile);
+            List<Description> tests = TestShard.of(allTests, timings, shardIndex, shardCount);
+            totalTests = tests.size();
+            retryBudget = RetryBudget.of(totalTests, retryBudgetPercent, retryAssertions);
+            LOG.info(String.format("Total tests running: %s (shard %s of %s, %s tests in the suite)",
+                    totalTests, shardIndex, shardCount, allTests.size()));
+            timings.longestFirst(tests).forEach(test -> tracker.track(attempt(test), createCallback(test)));
+            scheduler.shutdown();
+            sessionWarmer.start(scheduler, tests);
+            awaitCompletion();
+            if (shardCount > 1) {
+                // Every shard has to split the next run with the same timings, so they are only updated when the
+                // shards are merged (mergeShards -timings).
+                saveShardResults();
+            } else {
+                saveTimings(timings);
+            }
+            saveHistory(start);
+            WaitProfiler.writeReport(resultsDir);
             LOG.info(String.format("FINISHED TestSuiteRunner for suites [%s] in %s", suites, Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start)));
             if (integrationFactory.slack().isEnabled()) {
                 integrationFactory.slack().finishDigest(String.format("Suite Results: %s finished in %s",
                         suites, Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start)), results);
             }
         } finally {
+            sessionWarmer.close();
+            runReport.close();
+            if (integrationFactory.sauceLabs().isEnabled()) {
+                integrationFactory.sauceLabs().flush();
+            }
+            integrationFactory.jenkins().finishSuite();
+            AugmentedDriverPool.drainAll();
             if (integrationFactory.slack().isEnabled()) {
                 integrationFactory.slack().close();
             }
@@ -115,36 +172,164 @@ public class TestSuiteRunner implements Callable<List<AugmentedResult>> {
     }
 
     /**
-     * Creates a callback that is used to retry tests that fail.
+     * Runs the first attempt of a test, and retries it from the retries queue of the scheduler while it fails.
      *
-     * @param method the test to run.
-     * @return the Callback that will retry if a test fails.
+     * @param test the test to run.
+     * @return the future with the result of the last attempt, holding the previous ones.
+     */
+    private ListenableFuture<AugmentedResult> attempt(Description test) {
+        return attempt(test, ImmutableList.of(), scheduler::submit);
+    }
+
+    private ListenableFuture<AugmentedResult> attempt(Description test,
+                                                      List<AugmentedResult> previousAttempts,
+                                                      Function<Callable<AugmentedResult>, ListenableFuture<AugmentedResult>> submit) {
+        int attempt = previousAttempts.size() + 1;
+        String testName = TestTimings.nameOf(test);
+        // Asked once when the attempt fails, before the reporters write it, so a refused retry is still reported.
+        Predicate<Throwable> retryPolicy = failure -> attempt < maxAttempts && retryBudget.tryRetry(testName, failure);
+        ListenableFuture<AugmentedResult> future = submit.apply(
+                testRunnerFactory.create(test, "").attempt(previousAttempts, retryPolicy));
+        // Runs on the worker of the test before it takes the next one, so the scheduler never ends with a retry pending.
+        return Futures.transformAsync(future, result -> {
+            if (result.getResult().wasSuccessful() || !result.getTrace().isRetried()) {
+                return Futures.immediateFuture(result.afterAttempts(previousAttempts));
+            }
+            LOG.warn(String.format("Test %s failed with %s, attempt %s of %s, queued for retry (%s retries left)",
+                    testName,
+                    FailureClassifier.classify(result.getResult().getFailures().get(0).getException()),
+                    attempt,
+                    maxAttempts,
+                    retryBudget.remaining()));
+            List<AugmentedResult> attempts = ImmutableList.<AugmentedResult>builder()
+                    .addAll(previousAttempts)
+                    .add(result)
+                    .build();
+            ListenableFuture<AugmentedResult> retry = attempt(test, attempts, scheduler::submitRetry);
+            // If the retry is cancelled the callback only gets the cancellation, so this attempt is released here.
+            Futures.addCallback(retry, new FutureCallback<AugmentedResult>() {
+                @Override
+                public void onSuccess(AugmentedResult retried) {
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    result.getOut().release();
+                }
+            });
+            return retry;
+        });
+    }
+
+    /**
+     * @return the name of the suites run, and of the shard if the suite is split.
      */
-    private FutureCallback<AugmentedResult> createCallback(Method method) {
+    private String suiteName() {
+        String suiteName = String.join("-", suites);
+        return shardCount > 1 ? String.format("%s-shard-%s-of-%s", suiteName, shardIndex, shardCount) : suiteName;
+    }
+
+    /**
+     * Records the durations of this run, so the next one starts the longest tests first.
+     */
+    private void saveTimings(TestTimings timings) {
+        synchronized (results) {
+            results.stream()
+                    .filter(result -> result.getResult().getRunCount() > 0)
+                    .forEach(result -> timings.record(result.getTestName(), result.getResult().getRunTime()));
+        }
+        try {
+            timings.save();
+        } catch (IOException e) {
+            LOG.warn(String.format("Could not save the test timings to %s", timingsFile), e);
+        }
+    }
+
+    /**
+     * Appends the outcome of every test that ran to the flakiness history, the cancelled ones are left out.
+     */
+    private void saveHistory(long startedAt) {
+        if (Strings.isNullOrEmpty(historyFile)) {
+            return;
+        }
+        List<FlakinessHistory.Outcome> outcomes;
+        synchronized (results) {
+            outcomes = results.stream()
+                    .filter(result -> result.getTrace().getAttempts() > 0)
+                    .map(result -> new FlakinessHistory.Outcome(result.getTestName(),
+                            result.getResult().wasSuccessful(),
+                            result.getTrace().getAttempts()))
+                    .collect(Collectors.toList());
+        }
+        try {
+            FlakinessHistory.append(Paths.get(historyFile), startedAt, outcomes);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn(String.format("Could not append to the flakiness history %s", historyFile), e);
+        }
+    }
+
+    /**
+     * Writes the results of this shard, so they can be merged with ShardResults.
+     */
+    private void saveShardResults() {
+        Path shardResults = resultsDir.resolve(ShardResults.fileName(shardIndex, shardCount));
+        try {
+            ShardResults.write(shardResults, ImmutableList.copyOf(results));
+            LOG.info(String.format("Shard results written to %s", shardResults));
+        } catch (IOException e) {
+            LOG.warn(String.format("Could not write the shard results to %s", shardResults), e);
+        }
+    }
+
+    /**
+     * Waits for all the tests, if the timeout is reached the ones still queued or running are cancelled.
+     */
+    private void awaitCompletion() throws InterruptedException {
+        if (!tracker.await(timeoutInMinutes, TimeUnit.MINUTES)) {
+            LOG.error(String.format("TIMEOUT: tests did not finish after %s minutes, cancelled %s of them",
+                    timeoutInMinutes, scheduler.shutdownNow()));
+        }
+        LOG.info(String.format("TOTAL: %s %s", tracker.passed() + tracker.failed() + tracker.cancelled(), tracker));
+        LOG.info(String.format("RETRIES: %s", retryBudget));
+        LOG.info(String.format("COMMANDS:%n%s", CommandMetrics.summary()));
+    }
+
+    /**
+     * Creates a callback that records the result of a test once it has no attempts left.
+     *
+     * @param test the test to run.
+     * @return the Callback that records the result.
+     */
+    private FutureCallback<AugmentedResult> createCallback(Description test) {
         return new FutureCallback<AugmentedResult>() {
             @Override
             public void onSuccess(AugmentedResult result) {
                 results.add(result);
-                LOG.info(String.format("Test %s finished of %s", results.size(), totalTests));
-                if (results.size() == totalTests) {
-                    executor.shutdown();
+                if (writeRunReport) {
+                    runReport.append(result);
                 }
-                processOutput(result.getOut());
+                LOG.info(String.format("Test %s finished of %s", results.size(), totalTests));
+                result.getAttempts().forEach(attempt -> processOutput(attempt.getOut()));
             }
 
             /**
-             * For debugging, if everything goes well should never happen.
+             * Only happens if the test was cancelled, or for debugging, if everything goes well should never happen.
              *
              * @param t the throwable that caused the error.
              */
             @Override
             public void onFailure(Throwable t) {
+                AugmentedResult result = AugmentedResult.failed(test, t);
+                results.add(result);
+                if (writeRunReport) {
+                    runReport.append(result);
+                }
                 System.out.println("-------------------------------------------------------------");
                 System.out.println("-------------------------------------------------------------");
                 System.out.println("-------------------------------------------------------------");
                 System.out.println("-------------------------------------------------------------");
-                System.out.println("UNEXPECTED FAILURE");
-                System.out.println(String.format("FAILED %s#%s", method.getDeclaringClass(), method.getName()));
+                System.out.println(t instanceof CancellationException ? "CANCELLED" : "UNEXPECTED FAILURE");
+                System.out.println(String.format("FAILED %s#%s", test.getTestClass(), test.getMethodName()));
                 System.out.println("REASON: " + t.getMessage());
                 System.out.println("STACKTRACE:");
                 System.out.println(ExceptionUtils.getStackTrace(t));
@@ -153,13 +338,19 @@ public class TestSuiteRunner implements Callable<List<AugmentedResult>> {
                 System.out.println("-------------------------------------------------------------");
             }
 
-            private void processOutput(ByteArrayOutputStream outputStream) {
-                ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
-                int oneByte;
-                synchronized (System.out) {
-                    while ((oneByte = inputStream.read()) != -1) {
-                        System.out.write(oneByte);
+            /**
+             * Prints the output of the test in one bulk transfer, so it is not mixed with the output of other tests.
+             */
+            private void processOutput(TestOutput output) {
+                try {
+                    synchronized (System.out) {
+                        output.transferTo(Channels.newChannel(System.out));
+                        System.out.flush();
                     }
+                } catch (IOException e) {
+                    LOG.warn(String.format("Could not print the output of %s#%s", test.getTestClass(), test.getMethodName()), e);
+                } finally {
+                    output.release();
                 }
             }
         };
@@ -176,6 +367,9 @@ public class TestSuiteRunner implements Callable<List<AugmentedResult>> {
         Preconditions.checkArgument(!arguments.suites().isEmpty(), "There should be at least one suite passed in the -suites argument");
         Preconditions.checkArgument(!Strings.isNullOrEmpty(arguments.suitesPackage()), "-suitesPackage should be defined");
         Preconditions.checkNotNull(arguments.capabilities(), "You should specify capabilites with -capabilities parameter");
+        Preconditions.checkArgument(arguments.shardCount() > 0, "-shardCount should be greater than 0");
+        Preconditions.checkArgument(arguments.shardIndex() >= 0 && arguments.shardIndex() < arguments.shardCount(),
+                "-shardIndex should be between 0 and -shardCount - 1");
     }
 
     public static void main(String[] args) throws Exception {
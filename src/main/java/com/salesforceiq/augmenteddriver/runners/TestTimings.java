@@ -0,0 +1,167 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Durations of the tests in previous runs, used to start the longest tests first.
+ *
+ * <p>
+ *     Stored as a properties file with one line per test (testName=millis). Each new duration is averaged with the
+ *     previous one, so a single slow run does not move a test to the front for good.
+ * </p>
+ */
+public class TestTimings {
+    private static final Logger LOG = LoggerFactory.getLogger(TestTimings.class);
+
+    private final Path path;
+    private final Map<String, Long> durations;
+
+    private TestTimings(Path path, Map<String, Long> durations) {
+        this.path = path;
+        this.durations = durations;
+    }
+
+    /**
+     * Loads the timings from a file, if the file does not exist it starts with no timings.
+     *
+     * @param path where the timings are stored.
+     * @return the timings.
+     * @throws IOException if the file exists but cannot be read.
+     */
+    public static TestTimings load(Path path) throws IOException {
+        Preconditions.checkNotNull(path);
+
+        Map<String, Long> durations = new ConcurrentHashMap<>();
+        if (Files.exists(path)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            properties.stringPropertyNames().forEach(testName -> {
+                try {
+                    durations.put(testName, Long.valueOf(properties.getProperty(testName)));
+                } catch (NumberFormatException e) {
+                    LOG.warn(String.format("Ignoring timing for %s, %s is not a number", testName, properties.getProperty(testName)));
+                }
+            });
+        }
+        return new TestTimings(path, durations);
+    }
+
+    /**
+     * @param test the test, with the class that runs it (not the one declaring the method, which can be a base class
+     *             shared by several tests).
+     * @return the name used to identify the test, same as AugmentedResult#getTestName.
+     */
+    public static String nameOf(Description test) {
+        Preconditions.checkNotNull(test);
+        Preconditions.checkArgument(test.getTestClass() != null && test.getMethodName() != null,
+                "%s is not a test method", test);
+
+        return String.format("%s#%s", test.getTestClass().getCanonicalName(), test.getMethodName());
+    }
+
+    /**
+     * @param testName the name of the test.
+     * @return the duration of the test in milliseconds, empty if the test never ran.
+     */
+    public Optional<Long> duration(String testName) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(testName));
+
+        return Optional.ofNullable(durations.get(testName));
+    }
+
+    /**
+     * @return whether there is any timing stored.
+     */
+    public boolean isEmpty() {
+        return durations.isEmpty();
+    }
+
+    /**
+     * Records how much time a test took.
+     *
+     * @param testName the name of the test.
+     * @param millis how much time it took in milliseconds.
+     */
+    public void record(String testName, long millis) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(testName));
+        Preconditions.checkArgument(millis >= 0);
+
+        durations.merge(testName, millis, (previous, current) -> (previous + current) / 2);
+    }
+
+    /**
+     * Sorts the tests starting with the ones that took the longest.
+     *
+     * <p>
+     *     Tests that never ran are estimated with the average of the known ones. Ties are broken by name so the order
+     *     is always the same.
+     * </p>
+     *
+     * @param tests the tests to sort.
+     * @return the tests, longest first.
+     */
+    public List<Description> longestFirst(List<Description> tests) {
+        Preconditions.checkNotNull(tests);
+
+        long unknown = average();
+        return tests.stream()
+                .sorted(Comparator
+                        .comparingLong((Description test) -> durations.getOrDefault(nameOf(test), unknown)).reversed()
+                        .thenComparing(TestTimings::nameOf))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param testName the name of the test.
+     * @return the duration of the test, or the average of all the durations if the test never ran.
+     */
+    public long estimate(String testName) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(testName));
+
+        Long duration = durations.get(testName);
+        return duration == null ? average() : duration;
+    }
+
+    private long average() {
+        return (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    /**
+     * Writes the timings back to the file, replacing it atomically.
+     *
+     * @throws IOException if the file could not be written.
+     */
+    public void save() throws IOException {
+        Properties properties = new Properties();
+        durations.forEach((testName, millis) -> properties.setProperty(testName, String.valueOf(millis)));
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Test durations in milliseconds");
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,206 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * What happened while a test ran besides its JUnit Result: the session it used, how many attempts it took and how
+ * long each phase (queued, session, run...) took.
+ *
+ * <p>
+ *     IMPORTANT: collected per thread like CommandMetrics, since the test case and the TestRunner that runs it have
+ *     different Injectors.
+ * </p>
+ */
+public class TestTrace {
+
+    private static final ThreadLocal<TestTrace> CURRENT = new ThreadLocal<>();
+    private static final Predicate<Throwable> NEVER_RETRY = failure -> false;
+
+    private final String testName;
+    private final Map<String, Long> phases;
+    private final List<Throwable> failedAttempts;
+    private final Predicate<Throwable> retryPolicy;
+    private String sessionId;
+    private int attempts;
+    private Boolean retried;
+
+    public TestTrace(String testName) {
+        this(testName, 0, ImmutableList.of(), NEVER_RETRY);
+    }
+
+    private TestTrace(String testName, int previousAttempts, List<Throwable> previousFailures, Predicate<Throwable> retryPolicy) {
+        this.testName = testName;
+        this.phases = Maps.newLinkedHashMap();
+        this.failedAttempts = Lists.newArrayList(previousFailures);
+        this.attempts = previousAttempts;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Starts collecting the trace of a test run by the current thread.
+     *
+     * @param testName the name of the test.
+     */
+    public static void start(String testName) {
+        start(testName, null, NEVER_RETRY);
+    }
+
+    /**
+     * Starts collecting the trace of an attempt run by the current thread, counting the previous attempts.
+     *
+     * @param testName the name of the test.
+     * @param previous the trace of the previous attempt, null if this is the first.
+     * @param retryPolicy whether the test is retried if it fails with the given failure, asked at most once.
+     */
+    public static void start(String testName, TestTrace previous, Predicate<Throwable> retryPolicy) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(testName));
+        Preconditions.checkNotNull(retryPolicy);
+
+        CURRENT.set(previous == null
+                ? new TestTrace(testName, 0, ImmutableList.of(), retryPolicy)
+                : new TestTrace(testName, previous.attempts, previous.failedAttempts, retryPolicy));
+    }
+
+    /**
+     * Decides whether the failed test running on the current thread is retried, so the reporters that run on the
+     * thread of the test can leave it to the retry. Only the first call asks the retry policy (which can take a
+     * retry from the RetryBudget), the rest return the same answer.
+     *
+     * @param failure why the attempt failed.
+     * @return true if the test is going to be retried.
+     */
+    public static boolean retried(Throwable failure) {
+        TestTrace trace = CURRENT.get();
+        return trace != null && trace.retry(failure);
+    }
+
+    /**
+     * @param failure why the attempt failed.
+     * @return whether the test is retried, asking the retry policy the first time.
+     */
+    public synchronized boolean retry(Throwable failure) {
+        if (retried == null) {
+            retried = retryPolicy.test(failure);
+        }
+        return retried;
+    }
+
+    /**
+     * @return whether the attempt failed and it was decided to retry it.
+     */
+    public synchronized boolean isRetried() {
+        return retried != null && retried;
+    }
+
+    /**
+     * Stops collecting the trace of the current thread.
+     *
+     * @return the trace since start, empty if start was not called.
+     */
+    public static TestTrace finish() {
+        TestTrace trace = CURRENT.get();
+        CURRENT.remove();
+        return trace == null ? new TestTrace("") : trace;
+    }
+
+    /**
+     * @param sessionId the Selenium/Appium session of the test running on the current thread.
+     */
+    public static void session(String sessionId) {
+        TestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.sessionId = sessionId;
+        }
+    }
+
+    /**
+     * The test running on the current thread started one more attempt.
+     */
+    public static void attempt() {
+        TestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.attempts++;
+        }
+    }
+
+    /**
+     * The attempt of the test running on the current thread failed, it may be retried.
+     *
+     * @param cause why it failed.
+     */
+    public static void attemptFailed(Throwable cause) {
+        Preconditions.checkNotNull(cause);
+
+        TestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.failedAttempts.add(cause);
+        }
+    }
+
+    /**
+     * @return why each failed attempt of the test running on the current thread failed, for the reporters that
+     *         run on the thread of the test.
+     */
+    public static List<Throwable> failedAttempts() {
+        TestTrace trace = CURRENT.get();
+        return trace == null ? ImmutableList.of() : trace.getFailedAttempts();
+    }
+
+    /**
+     * Records how long a phase of the test running on the current thread took, added up if it happens more than
+     * once (for example the session of each attempt).
+     *
+     * @param phase the name of the phase, for example session.
+     * @param millis how long it took.
+     */
+    public static void phase(String phase, long millis) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(phase));
+
+        TestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.phases.merge(phase, Math.max(0, millis), Long::sum);
+        }
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    /**
+     * @return the session of the last attempt, empty if no session was created.
+     */
+    public Optional<String> getSessionId() {
+        return Optional.ofNullable(Strings.emptyToNull(sessionId));
+    }
+
+    /**
+     * @return how many times the test was attempted, counting the previous attempts, 0 if it never started.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return why each failed attempt failed, in order, the last one is the failure of the test if no attempt passed.
+     */
+    public List<Throwable> getFailedAttempts() {
+        return ImmutableList.copyOf(failedAttempts);
+    }
+
+    /**
+     * @return how long each phase took in milliseconds, in the order they happened.
+     */
+    public Map<String, Long> getPhasesInMillis() {
+        return ImmutableMap.copyOf(phases);
+    }
+}
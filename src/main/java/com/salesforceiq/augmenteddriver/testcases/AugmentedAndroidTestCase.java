@@ -9,6 +9,7 @@ import com.salesforceiq.augmenteddriver.asserts.AugmentedAssert;
 import com.salesforceiq.augmenteddriver.guice.GuiceModules;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
 import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidDriver;
+import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidDriverPool;
 import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidDriverProvider;
 import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidElement;
 import com.salesforceiq.augmenteddriver.mobile.android.AugmentedAndroidFunctions;
@@ -19,6 +20,7 @@ import com.salesforceiq.augmenteddriver.mobile.android.pageobjects.AndroidPageOb
 import com.salesforceiq.augmenteddriver.mobile.android.pageobjects.AndroidPageObjectActionsInterface;
 import com.salesforceiq.augmenteddriver.modules.AugmentedAndroidDriverModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.runners.TestTrace;
 import com.salesforceiq.augmenteddriver.util.AugmentedTestWatcher;
 import com.salesforceiq.augmenteddriver.util.PageObject;
 import com.salesforceiq.augmenteddriver.util.PageObjectWaiter;
@@ -46,6 +48,9 @@ public class AugmentedAndroidTestCase extends AugmentedBaseTestCase implements A
     @Inject
     private AugmentedAndroidDriverProvider augmentedAndroidDriverProvider;
 
+    @Inject
+    private AugmentedAndroidDriverPool augmentedAndroidDriverPool;
+
     @Inject
     private AugmentedAndroidFunctionsFactory augmentedAndroidFunctionsFactory;
 
@@ -79,6 +84,7 @@ public class AugmentedAndroidTestCase extends AugmentedBaseTestCase implements A
     @Before
     public void setUp() {
         Preconditions.checkNotNull(augmentedAndroidDriverProvider);
+        Preconditions.checkNotNull(augmentedAndroidDriverPool);
         Preconditions.checkNotNull(integrations);
         Preconditions.checkNotNull(arguments);
         Preconditions.checkNotNull(androidPageObjectActions);
@@ -91,10 +97,12 @@ public class AugmentedAndroidTestCase extends AugmentedBaseTestCase implements A
         // AugmentedWebDriverProvider and AugmentedWebFunctionsFactory.
         //
         // NOT IDEAL.
+        //
+        // If the SessionWarmer created a session ahead of time, that one is used.
         long start = System.currentTimeMillis();
         LOG.info("Creating AugmentedAndroidDriver");
         try {
-            driver = new AugmentedAndroidDriver(remoteAddress, capabilities, augmentedAndroidFunctions);
+            driver = augmentedAndroidDriverPool.lease(remoteAddress, capabilities);
         } catch (MalformedURLException e) {
             throw new IllegalArgumentException("Check your addresses on the properties file", e);
         }
@@ -103,6 +111,7 @@ public class AugmentedAndroidTestCase extends AugmentedBaseTestCase implements A
 
         augmentedAndroidDriverProvider.initialize(driver);
         LOG.info("AugmentedAndroidDriver created in " + Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start));
+        TestTrace.phase("session", System.currentTimeMillis() - start);
 
         String sessionId = driver.getSessionId().toString();
         setSessionId(sessionId);
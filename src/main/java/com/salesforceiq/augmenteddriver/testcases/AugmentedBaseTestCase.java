@@ -9,6 +9,7 @@ import com.salesforceiq.augmenteddriver.guice.GuiceTestRunner;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import com.salesforceiq.augmenteddriver.runners.TestRunnerRetryingRule;
+import com.salesforceiq.augmenteddriver.runners.TestTrace;
 import com.salesforceiq.augmenteddriver.util.Util;
 import org.junit.Rule;
 import org.junit.rules.TestName;
@@ -81,6 +82,7 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
     protected void setSessionId(String sessionId) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(sessionId));
         this.sessionId = sessionId;
+        TestTrace.session(sessionId);
     }
 
     /**
@@ -110,7 +112,7 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
                 integrations.sauceLabs().testPassed(false, sessionId);
             }
             if (integrations.slack().isEnabled() && !Strings.isNullOrEmpty(sessionId)) {
-                integrations.slack().failed(description, e, sessionId);
+                integrations.slack().failed(description, e, integrations.sauceLabs().isEnabled() ? sessionId : null);
             }
         }
 
@@ -120,7 +122,7 @@ public abstract class AugmentedBaseTestCase implements AugmentedAssertInterface
                 integrations.sauceLabs().testPassed(true, sessionId);
             }
             if (integrations.slack().isEnabled() && !Strings.isNullOrEmpty(sessionId)) {
-                integrations.slack().passed(description, sessionId);
+                integrations.slack().passed(description, integrations.sauceLabs().isEnabled() ? sessionId : null);
             }
         }
     };
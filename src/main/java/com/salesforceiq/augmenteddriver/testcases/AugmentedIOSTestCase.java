@@ -9,6 +9,7 @@ import com.salesforceiq.augmenteddriver.asserts.AugmentedAssert;
 import com.salesforceiq.augmenteddriver.guice.GuiceModules;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
 import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSDriver;
+import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSDriverPool;
 import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSDriverProvider;
 import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSElement;
 import com.salesforceiq.augmenteddriver.mobile.ios.AugmentedIOSFunctions;
@@ -19,6 +20,7 @@ import com.salesforceiq.augmenteddriver.mobile.ios.pageobjects.IOSPageObjectActi
 import com.salesforceiq.augmenteddriver.mobile.ios.pageobjects.IOSPageObjectActionsInterface;
 import com.salesforceiq.augmenteddriver.modules.AugmentedIOSDriverModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.runners.TestTrace;
 import com.salesforceiq.augmenteddriver.util.AugmentedTestWatcher;
 import com.salesforceiq.augmenteddriver.util.PageObject;
 import com.salesforceiq.augmenteddriver.util.PageObjectWaiter;
@@ -51,6 +53,9 @@ public class AugmentedIOSTestCase extends AugmentedBaseTestCase implements IOSPa
     @Inject
     private AugmentedIOSDriverProvider augmentedIOSDriverProvider;
 
+    @Inject
+    private AugmentedIOSDriverPool augmentedIOSDriverPool;
+
     @Inject
     private IOSPageObjectActions iosPageObjectActions;
 
@@ -79,6 +84,7 @@ public class AugmentedIOSTestCase extends AugmentedBaseTestCase implements IOSPa
     @Before
     public void setUp() {
         Preconditions.checkNotNull(augmentedIOSDriverProvider);
+        Preconditions.checkNotNull(augmentedIOSDriverPool);
         Preconditions.checkNotNull(integrations);
         Preconditions.checkNotNull(arguments);
         Preconditions.checkNotNull(iosPageObjectActions);
@@ -91,10 +97,12 @@ public class AugmentedIOSTestCase extends AugmentedBaseTestCase implements IOSPa
         // AugmentedWebDriverProvider and AugmentedWebFunctionsFactory.
         //
         // NOT IDEAL.
+        //
+        // If the SessionWarmer created a session ahead of time, that one is used.
         long start = System.currentTimeMillis();
         LOG.info("Creating AugmentedIOSDriver");
         try {
-            driver = new AugmentedIOSDriver(remoteAddress, capabilities, augmentedIOSFunctions);
+            driver = augmentedIOSDriverPool.lease(remoteAddress, capabilities);
         } catch (MalformedURLException e) {
             throw new IllegalArgumentException("Check your addresses on the properties file", e);
         }
@@ -102,6 +110,7 @@ public class AugmentedIOSTestCase extends AugmentedBaseTestCase implements IOSPa
         driver.setAugmentedFunctions(augmentedIOSFunctions);
         augmentedIOSDriverProvider.initialize(driver);
         LOG.info("AugmentedIOSDriver created in " + Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start));
+        TestTrace.phase("session", System.currentTimeMillis() - start);
 
         String sessionId = driver.getSessionId().toString();
         setSessionId(sessionId);
@@ -10,12 +10,14 @@ import com.salesforceiq.augmenteddriver.guice.GuiceModules;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
 import com.salesforceiq.augmenteddriver.modules.AugmentedWebDriverModule;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.runners.TestTrace;
 import com.salesforceiq.augmenteddriver.util.AugmentedTestWatcher;
 import com.salesforceiq.augmenteddriver.util.PageObject;
 import com.salesforceiq.augmenteddriver.util.PageObjectWaiter;
 import com.salesforceiq.augmenteddriver.util.TestRunnerConfig;
 import com.salesforceiq.augmenteddriver.util.Util;
 import com.salesforceiq.augmenteddriver.web.AugmentedWebDriver;
+import com.salesforceiq.augmenteddriver.web.AugmentedWebDriverPool;
 import com.salesforceiq.augmenteddriver.web.AugmentedWebDriverProvider;
 import com.salesforceiq.augmenteddriver.web.AugmentedWebElement;
 import com.salesforceiq.augmenteddriver.web.AugmentedWebFunctions;
@@ -45,6 +47,9 @@ public class AugmentedWebTestCase extends AugmentedBaseTestCase implements WebPa
     @Inject
     private AugmentedWebDriverProvider augmentedWebDriverProvider;
 
+    @Inject
+    private AugmentedWebDriverPool augmentedWebDriverPool;
+
     @Inject
     private AugmentedWebFunctionsFactory augmentedWebFunctionsFactory;
 
@@ -112,6 +117,7 @@ public class AugmentedWebTestCase extends AugmentedBaseTestCase implements WebPa
     @Before
     public void setUp() {
         Preconditions.checkNotNull(augmentedWebDriverProvider);
+        Preconditions.checkNotNull(augmentedWebDriverPool);
         Preconditions.checkNotNull(augmentedWebFunctionsFactory);
         Preconditions.checkNotNull(integrations);
         Preconditions.checkNotNull(arguments);
@@ -125,10 +131,13 @@ public class AugmentedWebTestCase extends AugmentedBaseTestCase implements WebPa
         // AugmentedWebDriverProvider and AugmentedWebFunctionsFactory.
         //
         // NOT IDEAL.
+        //
+        // If DRIVER_POOL is enabled, the session of a previous test is reused when there is one idle, and if the
+        // SessionWarmer created a session ahead of time, that one is used.
         long start = System.currentTimeMillis();
         LOG.info("Creating AugmentedWebDriver");
         try {
-            driver = new AugmentedWebDriver(remoteAddress, capabilities);
+            driver = augmentedWebDriverPool.lease(remoteAddress, capabilities);
         } catch (MalformedURLException e) {
             throw new IllegalArgumentException("Check your addresses on the properties file", e);
         }
@@ -137,6 +146,7 @@ public class AugmentedWebTestCase extends AugmentedBaseTestCase implements WebPa
 
         augmentedWebDriverProvider.initialize(driver);
         LOG.info("AugmentedWebDriver created in " + Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start));
+        TestTrace.phase("session", System.currentTimeMillis() - start);
 
 
         String sessionId = driver.getSessionId().toString();
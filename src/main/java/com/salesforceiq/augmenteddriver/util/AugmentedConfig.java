@@ -0,0 +1,244 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.temporal.TemporalUnit;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of the configuration: the default properties, overridden by the properties file, overridden by
+ * the extra command line parameters.
+ *
+ * <p>
+ *     Loaded and validated once per TestRunnerConfig, so the properties file is not read and parsed again for
+ *     every Injector, and values are parsed once instead of on every constructor.
+ * </p>
+ */
+public class AugmentedConfig {
+
+    // Read with getDouble, the rest of the numeric properties with getInt.
+    private static final Set<String> DECIMALS = ImmutableSet.of(
+            PropertiesModule.SESSIONS_PER_SECOND,
+            PropertiesModule.RETRY_BUDGET_PERCENT);
+    // Read with getDuration.
+    private static final Set<String> DURATIONS = ImmutableSet.of(PropertiesModule.TEST_TIMEOUT_IN_MINUTES);
+
+    private static AugmentedConfig loaded;
+
+    private final TestRunnerConfig arguments;
+    private final Map<String, String> properties;
+
+    private AugmentedConfig(TestRunnerConfig arguments, Map<String, String> properties) {
+        this.arguments = arguments;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the configuration, loading it only the first time or if TestRunnerConfig was initialized again.
+     *
+     * @param defaults the default value of each property.
+     * @return the configuration.
+     */
+    public static synchronized AugmentedConfig load(Map<String, String> defaults) {
+        Preconditions.checkNotNull(defaults);
+
+        if (loaded == null || loaded.arguments != TestRunnerConfig.ARGUMENTS) {
+            loaded = create(defaults);
+        }
+        return loaded;
+    }
+
+    /**
+     * Reads a properties file.
+     *
+     * @param path the properties file.
+     * @return the properties.
+     * @throws IllegalArgumentException if the file does not exist.
+     * @throws IllegalStateException if the file could not be read.
+     */
+    public static Properties read(Path path) {
+        Preconditions.checkNotNull(path);
+        Preconditions.checkArgument(Files.exists(path), "Properties file does not exist %s", path);
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load properties file " + path, e);
+        }
+        return properties;
+    }
+
+    private static AugmentedConfig create(Map<String, String> defaults) {
+        // Loads the default properties.
+        Properties properties = new Properties();
+        properties.putAll(defaults);
+
+        String path = TestRunnerConfig.ARGUMENTS == null ? PropertiesModule.DEFAULT_CONFIG : TestRunnerConfig.ARGUMENTS.conf();
+
+        // Loads the properties set in the properties file.
+        properties.putAll(read(Paths.get(path)));
+
+        // To load the capabilities from properties file.
+        if (TestRunnerConfig.ARGUMENTS == null && properties.get(PropertiesModule.CAPABILITIES) != null) {
+            TestRunnerConfig.initialize(properties);
+        }
+
+        if (TestRunnerConfig.ARGUMENTS == null) {
+            throw new IllegalStateException("Capabilities were not loaded. Please set on properties file or command line args.");
+        }
+
+        if (TestRunnerConfig.ARGUMENTS.sauce()) {
+            setSauceProperties(properties);
+        } else {
+            properties.setProperty(PropertiesModule.REMOTE_ADDRESS, properties.getProperty(PropertiesModule.LOCAL_ADDRESS));
+        }
+
+        // This will override the properties set in the property file, with the properties sent in the extra parameters.
+        if (TestRunnerConfig.ARGUMENTS.extra() != null
+                && !TestRunnerConfig.ARGUMENTS.extra().isEmpty()) {
+            properties.putAll(TestRunnerConfig.ARGUMENTS.extra());
+        }
+
+        ImmutableMap.Builder<String, String> result = ImmutableMap.builder();
+        properties.stringPropertyNames().forEach(name -> result.put(name, properties.getProperty(name)));
+        AugmentedConfig config = new AugmentedConfig(TestRunnerConfig.ARGUMENTS, result.build());
+        config.validate(defaults);
+        return config;
+    }
+
+    /**
+     * Hack to set the sauce key and sauce user into the capabilities.
+     */
+    private static void setSauceProperties(Properties properties) {
+        properties.setProperty(PropertiesModule.REMOTE_ADDRESS, properties.getProperty(PropertiesModule.SAUCE_ADDRESS));
+        if (Strings.isNullOrEmpty(properties.getProperty(PropertiesModule.SAUCE_KEY))) {
+            throw new IllegalArgumentException("To run on Sauce Labs, define SAUCE_KEY in the properties file");
+        }
+        if (Strings.isNullOrEmpty(properties.getProperty(PropertiesModule.SAUCE_USER))) {
+            throw new IllegalArgumentException("To run on Sauce Labs, define SAUCE_USER in the properties file");
+        }
+
+        // To override the app in the yaml.
+        if (!Strings.isNullOrEmpty(TestRunnerConfig.ARGUMENTS.app())) {
+            TestRunnerConfig.ARGUMENTS.capabilities().setCapability("app", "sauce-storage:" + TestRunnerConfig.ARGUMENTS.app());
+        }
+        TestRunnerConfig.ARGUMENTS.capabilities().setCapability("username", properties.getProperty(PropertiesModule.SAUCE_USER));
+        TestRunnerConfig.ARGUMENTS.capabilities().setCapability("access-key", properties.getProperty(PropertiesModule.SAUCE_KEY));
+    }
+
+    /**
+     * Properties with a numeric or boolean default have to be set to a number or a boolean, checked with the parser
+     * of the getter that reads them, so a decimal in an int property fails here and not in the middle of a test.
+     */
+    private void validate(Map<String, String> defaults) {
+        defaults.forEach((name, defaultValue) -> {
+            String value = properties.get(name);
+            if (isBoolean(defaultValue)) {
+                Preconditions.checkArgument(isBoolean(value), "%s should be true or false, got %s", name, value);
+            } else if (DECIMALS.contains(name)) {
+                Preconditions.checkArgument(parses(value, Double::valueOf),
+                        "%s should be a number, got %s", name, value);
+            } else if (DURATIONS.contains(name)) {
+                Preconditions.checkArgument(parses(value, Long::valueOf),
+                        "%s should be a whole number, got %s", name, value);
+            } else if (parses(defaultValue, Integer::valueOf)) {
+                Preconditions.checkArgument(parses(value, Integer::valueOf),
+                        "%s should be a whole number, got %s", name, value);
+            }
+        });
+        getPollingStrategy(PollingStrategy.DEFAULT);
+    }
+
+    private static boolean isBoolean(String value) {
+        return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+    }
+
+    private static boolean parses(String value, Function<String, ?> parser) {
+        try {
+            parser.apply(value);
+            return true;
+        } catch (NumberFormatException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param name the name of the property, one of PropertiesModule constants.
+     * @return the value.
+     * @throws IllegalArgumentException if the property is not set.
+     */
+    public String get(String name) {
+        Preconditions.checkArgument(properties.containsKey(name), "Property %s is not set", name);
+
+        return properties.get(name);
+    }
+
+    /**
+     * @param name the name of the property.
+     * @return the value as an int.
+     */
+    public int getInt(String name) {
+        return Integer.valueOf(get(name));
+    }
+
+    /**
+     * @param name the name of the property.
+     * @return the value as a double.
+     */
+    public double getDouble(String name) {
+        return Double.valueOf(get(name));
+    }
+
+    /**
+     * @param name the name of the property.
+     * @return the value as a boolean.
+     */
+    public boolean getBoolean(String name) {
+        return Boolean.valueOf(get(name));
+    }
+
+    /**
+     * @param name the name of the property, for example TIMEOUT_IN_MINUTES.
+     * @param unit the unit of the property, for example ChronoUnit.MINUTES.
+     * @return the value as a Duration.
+     */
+    public Duration getDuration(String name, TemporalUnit unit) {
+        Preconditions.checkNotNull(unit);
+
+        return Duration.of(Long.valueOf(get(name)), unit);
+    }
+
+    /**
+     * @param defaultStrategy the strategy to use if POLLING_STRATEGY is not set.
+     * @return the PollingStrategy set in POLLING_STRATEGY, or defaultStrategy.
+     */
+    public PollingStrategy getPollingStrategy(PollingStrategy defaultStrategy) {
+        Preconditions.checkNotNull(defaultStrategy);
+
+        String polling = get(PropertiesModule.POLLING_STRATEGY);
+        return Strings.isNullOrEmpty(polling) ? defaultStrategy : PollingStrategy.parse(polling);
+    }
+
+    /**
+     * @return a copy of all the properties, for binding them with Names#bindProperties.
+     */
+    public Properties toProperties() {
+        Properties result = new Properties();
+        result.putAll(properties);
+        return result;
+    }
+}
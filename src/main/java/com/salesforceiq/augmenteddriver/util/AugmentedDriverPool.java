@@ -0,0 +1,332 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of sessions, so a test can reuse the session of a previous one instead of creating a new one.
+ *
+ * <p>
+ *     Sessions are pooled by remote address and capabilities. A released session is reset before it goes back to
+ *     the pool, and it is quit instead if the test failed, the reset failed, or it was already used maxUses times.
+ * </p>
+ * <p>
+ *     Sessions can also be created ahead of time with warm (see SessionWarmer), those are handed to the next tests
+ *     even if reusing sessions is disabled.
+ * </p>
+ * <p>
+ *     IMPORTANT: the sessions are kept in a static Store, for the same reason as the Slack session in
+ *     SlackIntegration, every test has its own Injector so @Singleton is not enough.
+ * </p>
+ *
+ * @param <T> the RemoteWebDriver of the pool.
+ */
+public abstract class AugmentedDriverPool<T extends RemoteWebDriver> {
+    private static final Logger LOG = LoggerFactory.getLogger(AugmentedDriverPool.class);
+
+    // SauceLabs quits sessions idle for 90 seconds, older idle sessions are not handed to tests.
+    private static final long MAX_IDLE_IN_MILLISECONDS = TimeUnit.SECONDS.toMillis(60);
+
+    private static final List<Store<?>> STORES = Collections.synchronizedList(Lists.newArrayList());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AugmentedDriverPool::drainAll, "driver-pool-drain"));
+    }
+
+    private final Store<T> store;
+    private final boolean enabled;
+    private final int maxUses;
+
+    /**
+     * @param store where the sessions are kept, one static Store per kind of driver.
+     * @param enabled whether sessions are reused, if not release always quits the session.
+     * @param maxUses how many tests can use the same session.
+     */
+    protected AugmentedDriverPool(Store<T> store, boolean enabled, int maxUses) {
+        Preconditions.checkArgument(maxUses > 0, "maxUses should be greater than 0, got %s", maxUses);
+
+        this.store = Preconditions.checkNotNull(store);
+        this.enabled = enabled;
+        this.maxUses = maxUses;
+    }
+
+    /**
+     * Creates a new session.
+     *
+     * @param remoteAddress where Selenium/Appium is running.
+     * @param capabilities the capabilities of the session.
+     * @return the new driver.
+     * @throws MalformedURLException if the remoteAddress is not well formed.
+     */
+    protected abstract T create(String remoteAddress, DesiredCapabilities capabilities) throws MalformedURLException;
+
+    /**
+     * Leaves the session ready for the next test.
+     *
+     * @param driver the driver to reset.
+     */
+    protected abstract void reset(T driver);
+
+    /**
+     * @return whether sessions are reused.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets a session from the pool, or creates one if there is no idle session with the same capabilities.
+     *
+     * <p>
+     *     Sessions idle for more than a minute are quit instead, since SauceLabs may have already closed them.
+     * </p>
+     *
+     * @param remoteAddress where Selenium/Appium is running.
+     * @param capabilities the capabilities of the session.
+     * @return the driver, has to be released with release.
+     * @throws MalformedURLException if the remoteAddress is not well formed.
+     */
+    public T lease(String remoteAddress, DesiredCapabilities capabilities) throws MalformedURLException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(remoteAddress));
+        Preconditions.checkNotNull(capabilities);
+
+        Key key = new Key(remoteAddress, capabilities);
+        T driver;
+        while ((driver = store.idle(key).poll()) != null) {
+            Lease lease = store.leases.get(driver);
+            if (System.currentTimeMillis() - lease.idleSince < MAX_IDLE_IN_MILLISECONDS) {
+                LOG.info(String.format("Reusing session %s, used by %s tests", driver.getSessionId(), lease.uses));
+                return driver;
+            }
+            store.leases.remove(driver);
+            quit(driver);
+        }
+        driver = create(remoteAddress, capabilities);
+        if (enabled) {
+            store.leases.put(driver, new Lease(key));
+        }
+        return driver;
+    }
+
+    /**
+     * Creates a session and leaves it idle in the pool, for the next test that needs it.
+     *
+     * @param remoteAddress where Selenium/Appium is running.
+     * @param capabilities the capabilities of the session.
+     * @throws MalformedURLException if the remoteAddress is not well formed.
+     */
+    public void warm(String remoteAddress, DesiredCapabilities capabilities) throws MalformedURLException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(remoteAddress));
+        Preconditions.checkNotNull(capabilities);
+
+        Key key = new Key(remoteAddress, capabilities);
+        T driver = create(remoteAddress, capabilities);
+        store.leases.put(driver, new Lease(key));
+        if (store.draining) {
+            release(driver, false);
+        } else {
+            store.idle(key).offer(driver);
+        }
+    }
+
+    /**
+     * @param remoteAddress where Selenium/Appium is running.
+     * @param capabilities the capabilities of the session.
+     * @return how many sessions are idle in the pool.
+     */
+    public int idle(String remoteAddress, DesiredCapabilities capabilities) {
+        return store.idle(new Key(remoteAddress, capabilities)).size();
+    }
+
+    /**
+     * Quits idle sessions until there are at most keep of them.
+     *
+     * @param remoteAddress where Selenium/Appium is running.
+     * @param capabilities the capabilities of the session.
+     * @param keep how many idle sessions to keep.
+     */
+    public void trim(String remoteAddress, DesiredCapabilities capabilities, int keep) {
+        BlockingDeque<T> idle = store.idle(new Key(remoteAddress, capabilities));
+        T driver;
+        while (idle.size() > keep && (driver = idle.pollLast()) != null) {
+            store.leases.remove(driver);
+            quit(driver);
+        }
+    }
+
+    /**
+     * Pings the idle sessions that were not used for a while, so SauceLabs does not close them, and quits the ones
+     * that do not answer.
+     *
+     * @param remoteAddress where Selenium/Appium is running.
+     * @param capabilities the capabilities of the session.
+     */
+    public void keepAlive(String remoteAddress, DesiredCapabilities capabilities) {
+        BlockingDeque<T> idle = store.idle(new Key(remoteAddress, capabilities));
+        for (int index = idle.size(); index > 0; index--) {
+            T driver = idle.pollFirst();
+            if (driver == null) {
+                return;
+            }
+            Lease lease = store.leases.get(driver);
+            if (System.currentTimeMillis() - lease.idleSince > MAX_IDLE_IN_MILLISECONDS / 2) {
+                try {
+                    driver.getWindowHandle();
+                    lease.idleSince = System.currentTimeMillis();
+                } catch (RuntimeException e) {
+                    LOG.warn(String.format("Idle session %s does not answer, quitting it", driver.getSessionId()), e);
+                    store.leases.remove(driver);
+                    quit(driver);
+                    continue;
+                }
+            }
+            idle.offerLast(driver);
+        }
+    }
+
+    /**
+     * Gives back a session after the test finished.
+     *
+     * @param driver the driver leased.
+     * @param reusable false if the session should not be used again, for example because the test failed.
+     */
+    public void release(T driver, boolean reusable) {
+        Preconditions.checkNotNull(driver);
+
+        Lease lease = store.leases.get(driver);
+        if (lease == null) {
+            quit(driver);
+            return;
+        }
+        lease.uses++;
+        if (enabled && reusable && lease.uses < maxUses && !store.draining) {
+            try {
+                reset(driver);
+                lease.idleSince = System.currentTimeMillis();
+                store.idle(lease.key).offer(driver);
+                return;
+            } catch (RuntimeException e) {
+                LOG.warn(String.format("Could not reset session %s, quitting it", driver.getSessionId()), e);
+            }
+        }
+        store.leases.remove(driver);
+        quit(driver);
+    }
+
+    /**
+     * Quits all the idle sessions of all the pools, called by the runners once all the tests finished.
+     */
+    public static void drainAll() {
+        List<Store<?>> stores;
+        synchronized (STORES) {
+            stores = Lists.newArrayList(STORES);
+        }
+        stores.forEach(Store::drain);
+    }
+
+    private static void quit(RemoteWebDriver driver) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            LOG.warn(String.format("Could not quit session %s", driver.getSessionId()), e);
+        }
+    }
+
+    /**
+     * Sessions of one kind of driver, shared by all the Injectors.
+     *
+     * @param <T> the RemoteWebDriver of the pool.
+     */
+    public static class Store<T extends RemoteWebDriver> {
+        private final Map<Key, BlockingDeque<T>> idle;
+        private final Map<T, Lease> leases;
+        private volatile boolean draining;
+
+        public Store() {
+            this.idle = new ConcurrentHashMap<>();
+            this.leases = new ConcurrentHashMap<>();
+            this.draining = false;
+            STORES.add(this);
+        }
+
+        private BlockingDeque<T> idle(Key key) {
+            return idle.computeIfAbsent(key, ignored -> new LinkedBlockingDeque<>());
+        }
+
+        private void drain() {
+            draining = true;
+            List<T> drained = Lists.newArrayList();
+            idle.values().forEach(sessions -> sessions.drainTo(drained));
+            drained.forEach(driver -> {
+                leases.remove(driver);
+                quit(driver);
+            });
+            if (!drained.isEmpty()) {
+                LOG.info(String.format("Quit %s pooled sessions", drained.size()));
+            }
+        }
+    }
+
+    /**
+     * How many tests used a session, since when it is idle, and with which key it was created.
+     */
+    private static class Lease {
+        private final Key key;
+        private int uses;
+        private long idleSince;
+
+        private Lease(Key key) {
+            this.key = key;
+            this.uses = 0;
+            this.idleSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Sessions can only be shared by tests with the same remote address and capabilities.
+     */
+    private static class Key {
+        private final String remoteAddress;
+        private final Map<String, String> capabilities;
+
+        private Key(String remoteAddress, DesiredCapabilities capabilities) {
+            this.remoteAddress = remoteAddress;
+            this.capabilities = ImmutableMap.copyOf(capabilities.asMap()
+                    .entrySet()
+                    .stream()
+                    .filter(entry -> entry.getValue() != null)
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> String.valueOf(entry.getValue()))));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return remoteAddress.equals(key.remoteAddress) && capabilities.equals(key.capabilities);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(remoteAddress, capabilities);
+        }
+    }
+}
@@ -24,4 +24,13 @@ public interface AugmentedProvider<T extends RemoteWebDriver> extends Provider<T
      * @return Whether the provider has been initialized or not.
      */
     boolean isInitialized();
+
+    /**
+     * Called when the test finished, by default quits the driver.
+     *
+     * @param reusable whether the session could be used by another test, false if the test failed.
+     */
+    default void release(boolean reusable) {
+        get().quit();
+    }
 }
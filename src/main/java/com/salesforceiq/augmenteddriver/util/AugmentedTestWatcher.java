@@ -32,14 +32,14 @@ public class AugmentedTestWatcher<T extends AugmentedProvider<? extends RemoteWe
             if (integrationFactory.allure().isEnabled() && driverProvider.get().getSessionId() != null) {
                 takeScrenshoot();
             }
-            driverProvider.get().quit();
+            driverProvider.release(false);
         }
     }
 
     @Override
     protected void succeeded(Description description) {
         if (driverProvider.isInitialized()) {
-            driverProvider.get().quit();
+            driverProvider.release(true);
         }
     }
 
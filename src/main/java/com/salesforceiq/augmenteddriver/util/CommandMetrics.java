@@ -0,0 +1,178 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import org.openqa.selenium.Capabilities;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Latency of every WebDriver/Appium command, recorded by AugmentedWebDriver, AugmentedAndroidDriver and
+ * AugmentedIOSDriver.
+ *
+ * <p>
+ *     For the whole run there is one LatencyHistogram per command and capabilities, printed by the runners at the
+ *     end. For each test, TestRunner collects the CommandTotals of the commands its thread executed, which end
+ *     up in the AugmentedResult.
+ * </p>
+ * <p>
+ *     IMPORTANT: static, since the drivers are not created by Guice.
+ * </p>
+ */
+public class CommandMetrics {
+
+    private static final Map<Key, Stats> RUN = new ConcurrentHashMap<>();
+    private static final ThreadLocal<CommandTotals> TEST = new ThreadLocal<>();
+
+    /**
+     * Starts collecting the commands executed by the current thread for a test.
+     *
+     * @param testName the name of the test.
+     */
+    public static void startTest(String testName) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(testName));
+
+        TEST.set(new CommandTotals(testName));
+    }
+
+    /**
+     * Stops collecting the commands executed by the current thread.
+     *
+     * @return the commands executed since startTest, empty if startTest was not called.
+     */
+    public static CommandTotals finishTest() {
+        CommandTotals totals = TEST.get();
+        TEST.remove();
+        return totals == null ? new CommandTotals("") : totals;
+    }
+
+    /**
+     * Executes and records a command.
+     *
+     * @param command the name of the command, for example findElements.
+     * @param capabilities the capabilities of the session, see capabilitiesOf.
+     * @param execution executes the command.
+     * @param <T> what the command returns.
+     * @return what the command returned.
+     */
+    public static <T> T record(String command, String capabilities, Supplier<T> execution) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = execution.get();
+            failed = false;
+            return result;
+        } finally {
+            long latency = System.nanoTime() - start;
+            Stats stats = RUN.computeIfAbsent(new Key(command, Strings.nullToEmpty(capabilities)), ignored -> new Stats());
+            stats.histogram.record(latency);
+            if (failed) {
+                stats.errors.increment();
+            }
+            CommandTotals totals = TEST.get();
+            if (totals != null) {
+                totals.record(command, latency, failed);
+            }
+        }
+    }
+
+    /**
+     * @param capabilities the capabilities of the session, null while the session is being created.
+     * @param parameters the parameters of the command, that contain the capabilities when creating the session.
+     * @return a short description of the capabilities, for example "chrome 61 LINUX" or "Android 7.1 Pixel".
+     */
+    public static String capabilitiesOf(Capabilities capabilities, Map<String, ?> parameters) {
+        if (capabilities != null) {
+            return describe(capabilities.asMap());
+        }
+        Object desired = parameters == null ? null : parameters.get("desiredCapabilities");
+        if (desired instanceof Capabilities) {
+            return describe(((Capabilities) desired).asMap());
+        }
+        if (desired instanceof Map) {
+            return describe((Map<?, ?>) desired);
+        }
+        return "";
+    }
+
+    private static String describe(Map<?, ?> capabilities) {
+        List<Object> values = Lists.newArrayList();
+        for (String name : new String[] {"browserName", "version", "platform", "platformName", "platformVersion", "deviceName"}) {
+            Object value = capabilities.get(name);
+            if (value != null && !Strings.isNullOrEmpty(value.toString()) && !values.contains(value)) {
+                values.add(value);
+            }
+        }
+        return Joiner.on(' ').join(values);
+    }
+
+    /**
+     * @return a table with the count, errors and latency percentiles of each command, slowest total first.
+     */
+    public static String summary() {
+        List<Map.Entry<Key, Stats>> entries = Lists.newArrayList(RUN.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Key, Stats> entry) -> entry.getValue().histogram.totalInMicros()).reversed());
+
+        StringBuilder summary = new StringBuilder(String.format("%-30s %-30s %8s %7s %9s %9s %9s %9s %10s%n",
+                "COMMAND", "CAPABILITIES", "COUNT", "ERRORS", "P50(ms)", "P90(ms)", "P99(ms)", "MAX(ms)", "TOTAL(s)"));
+        for (Map.Entry<Key, Stats> entry : entries) {
+            LatencyHistogram histogram = entry.getValue().histogram;
+            summary.append(String.format("%-30s %-30s %8s %7s %9.1f %9.1f %9.1f %9.1f %10.1f%n",
+                    entry.getKey().command,
+                    entry.getKey().capabilities,
+                    histogram.count(),
+                    entry.getValue().errors.sum(),
+                    histogram.percentileInMicros(50) / 1000.0,
+                    histogram.percentileInMicros(90) / 1000.0,
+                    histogram.percentileInMicros(99) / 1000.0,
+                    histogram.maxInMicros() / 1000.0,
+                    TimeUnit.MICROSECONDS.toMillis(histogram.totalInMicros()) / 1000.0));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Forgets all the commands recorded, for tests.
+     */
+    static void reset() {
+        RUN.clear();
+    }
+
+    private static class Stats {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    private static class Key {
+        private final String command;
+        private final String capabilities;
+
+        private Key(String command, String capabilities) {
+            this.command = command;
+            this.capabilities = capabilities;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return command.equals(key.command) && capabilities.equals(key.capabilities);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(command, capabilities);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * How many commands a test executed, how long they took and how many failed, per command.
+ */
+public class CommandTotals {
+
+    private final String testName;
+    private final Map<String, long[]> commands;
+    private long count;
+    private long totalInNanos;
+    private long errors;
+
+    public CommandTotals(String testName) {
+        this.testName = testName;
+        this.commands = Maps.newHashMap();
+    }
+
+    synchronized void record(String command, long latencyInNanos, boolean failed) {
+        long[] totals = commands.computeIfAbsent(command, ignored -> new long[3]);
+        totals[0]++;
+        totals[1] += latencyInNanos;
+        count++;
+        totalInNanos += latencyInNanos;
+        if (failed) {
+            totals[2]++;
+            errors++;
+        }
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    /**
+     * @return how many commands were executed.
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * @return how many commands failed.
+     */
+    public synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * @return how long all the commands took, in milliseconds.
+     */
+    public synchronized long totalInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalInNanos);
+    }
+
+    /**
+     * @return how long each command took in total, in milliseconds.
+     */
+    public synchronized Map<String, Long> totalInMillisByCommand() {
+        return ImmutableMap.copyOf(Maps.transformValues(commands, totals -> TimeUnit.NANOSECONDS.toMillis(totals[1])));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s commands (%s failed) in %s ms [%s]", count, errors, totalInMillis(),
+                commands.entrySet()
+                        .stream()
+                        .sorted((first, second) -> Long.compare(second.getValue()[1], first.getValue()[1]))
+                        .map(entry -> String.format("%s: %s in %s ms", entry.getKey(), entry.getValue()[0],
+                                TimeUnit.NANOSECONDS.toMillis(entry.getValue()[1])))
+                        .collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,216 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for an element with a MutationObserver installed in the page, instead of polling with findElements.
+ *
+ * <p>
+ *     The script resolves as soon as an element matching the selector meets the condition, so a wait costs one
+ *     command instead of one findElements, plus one isDisplayed/isEnabled per child, every 500 milliseconds.
+ * </p>
+ * <p>
+ *     Only Bys that can be expressed as CSS (cssSelector, id, name, className and tagName) are observed, the rest
+ *     are waited by polling as usual. The element found by the script is checked again with WebDriver, since
+ *     the visibility computed in the page is an approximation of isDisplayed, and if it does not match, or the
+ *     script fails (for example because the page navigated), the remaining time is waited by polling.
+ * </p>
+ * <p>
+ *     The script timeout of the driver is never changed, longer waits are observed in several scripts that each fit
+ *     in the default script timeout (30 seconds). If it was lowered, the scripts time out and the wait polls.
+ * </p>
+ */
+public class ElementObserver {
+    private static final Logger LOG = LoggerFactory.getLogger(ElementObserver.class);
+
+    private static final String SCRIPT =
+            "var root = arguments[0] || document, selector = arguments[1], condition = arguments[2],\n" +
+            "    text = arguments[3], done = arguments[arguments.length - 1];\n" +
+            "function visible(e) {\n" +
+            "  var style = window.getComputedStyle(e);\n" +
+            "  return style.display !== 'none' && style.visibility !== 'hidden' && e.getClientRects().length > 0;\n" +
+            "}\n" +
+            "function textOf(e) {\n" +
+            "  return (e.tagName === 'INPUT' || e.tagName === 'TEXTAREA') ? e.value : (e.innerText || e.textContent || '');\n" +
+            "}\n" +
+            "function match() {\n" +
+            "  var all = root.querySelectorAll(selector);\n" +
+            "  if (condition === 'CONTAINS') { return all.length > 0 && textOf(all[0]).indexOf(text) >= 0 ? all[0] : null; }\n" +
+            "  for (var i = 0; i < all.length; i++) {\n" +
+            "    if (condition === 'PRESENT') { return all[i]; }\n" +
+            "    if (visible(all[i]) && (condition === 'VISIBLE' || !all[i].disabled)) { return all[i]; }\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n" +
+            "var found = match();\n" +
+            "if (found) { done(found); return; }\n" +
+            "var observer, timer;\n" +
+            "function finish(e) { observer.disconnect(); clearTimeout(timer); done(e); }\n" +
+            "observer = new MutationObserver(function() { var e = match(); if (e) { finish(e); } });\n" +
+            "observer.observe(root === document ? document.documentElement : root,\n" +
+            "    {childList: true, subtree: true, attributes: true, characterData: true});\n" +
+            "timer = setTimeout(function() { finish(null); }, arguments[4]);";
+
+    // Below the default script timeout of WebDriver (30 seconds), so each script resolves by itself.
+    private static final long SLICE_IN_MILLISECONDS = TimeUnit.SECONDS.toMillis(25);
+
+    /**
+     * What the element has to meet.
+     */
+    public enum Condition {
+        PRESENT,
+        VISIBLE,
+        CLICKABLE,
+        CONTAINS
+    }
+
+    /**
+     * Finds an element that meets the condition.
+     *
+     * @param driver the driver where the script is executed.
+     * @param parent The context where the element is going to be looked, the driver or an element.
+     * @param by The identifier of the element.
+     * @param condition what the element has to meet.
+     * @param text the text the element has to contain, only for CONTAINS.
+     * @param timeoutInSeconds How much time to wait.
+     * @param polling how long to sleep between polls, if the By cannot be observed.
+     * @return the first element that meets the condition.
+     */
+    public static WebElement findElementAfter(RemoteWebDriver driver,
+                                              SearchContext parent,
+                                              By by,
+                                              Condition condition,
+                                              String text,
+                                              int timeoutInSeconds,
+                                              PollingStrategy polling) {
+        Preconditions.checkNotNull(driver);
+        Preconditions.checkNotNull(parent);
+        Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(condition);
+        Preconditions.checkArgument(condition != Condition.CONTAINS || !Strings.isNullOrEmpty(text));
+        Preconditions.checkNotNull(polling);
+
+        Optional<String> selector = cssSelector(by);
+        if (!selector.isPresent() || timeoutInSeconds <= 0) {
+            return pollElementAfter(parent, by, condition, text, timeoutInSeconds, polling);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutInSeconds);
+        try {
+            WebElement found = observe(driver, parent, selector.get(), condition, text, timeoutInSeconds);
+            if (found != null && meets(found, condition, text)) {
+                return found;
+            }
+        } catch (WebDriverException e) {
+            LOG.debug(String.format("Could not observe %s, polling instead", by), e);
+        }
+        int remainingInSeconds = (int) Math.max(0, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime()));
+        return pollElementAfter(parent, by, condition, text, remainingInSeconds, polling);
+    }
+
+    /**
+     * @param by the By to translate.
+     * @return the CSS selector equivalent to the By, or empty if there is none.
+     */
+    static Optional<String> cssSelector(By by) {
+        if (by instanceof By.ByCssSelector) {
+            return Optional.of(valueOf(by, "By.cssSelector: "));
+        }
+        if (by instanceof By.ById) {
+            return Optional.of(String.format("[id=\"%s\"]", escape(valueOf(by, "By.id: "))));
+        }
+        if (by instanceof By.ByName) {
+            return Optional.of(String.format("[name=\"%s\"]", escape(valueOf(by, "By.name: "))));
+        }
+        if (by instanceof By.ByClassName) {
+            return Optional.of(String.format("[class~=\"%s\"]", escape(valueOf(by, "By.className: "))));
+        }
+        if (by instanceof By.ByTagName) {
+            return Optional.of(valueOf(by, "By.tagName: "));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Selenium does not expose the value of a By, only its toString.
+     */
+    private static String valueOf(By by, String prefix) {
+        String description = by.toString();
+        Preconditions.checkState(description.startsWith(prefix), "Unexpected By %s", description);
+
+        return description.substring(prefix.length());
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static WebElement observe(RemoteWebDriver driver,
+                                      SearchContext parent,
+                                      String selector,
+                                      Condition condition,
+                                      String text,
+                                      int timeoutInSeconds) {
+        Object root = parent instanceof WebElement ? parent : null;
+        long slice;
+        // Every script waits its whole slice unless it finds the element.
+        for (long left = TimeUnit.SECONDS.toMillis(timeoutInSeconds); left > 0; left -= slice) {
+            slice = Math.min(left, SLICE_IN_MILLISECONDS);
+            Object result = driver.executeAsyncScript(SCRIPT, root, selector, condition.name(),
+                    Strings.nullToEmpty(text), slice);
+            if (result instanceof WebElement) {
+                return (WebElement) result;
+            }
+        }
+        return null;
+    }
+
+    private static boolean meets(WebElement element, Condition condition, String text) {
+        switch (condition) {
+            case VISIBLE:
+                return element.isDisplayed();
+            case CLICKABLE:
+                return element.isDisplayed() && element.isEnabled();
+            case CONTAINS:
+                return WebDriverUtil.getText(element).contains(text);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Finds an element that meets the condition by polling, as WebDriverUtil does.
+     *
+     * @param parent The context where the element is going to be looked.
+     * @param by The identifier of the element.
+     * @param condition what the element has to meet.
+     * @param text the text the element has to contain, only for CONTAINS.
+     * @param timeoutInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
+     * @return the first element that meets the condition.
+     */
+    public static WebElement pollElementAfter(SearchContext parent, By by, Condition condition, String text, int timeoutInSeconds,
+                                              PollingStrategy polling) {
+        switch (condition) {
+            case VISIBLE:
+                return WebDriverUtil.findElementVisibleAfter(parent, by, timeoutInSeconds, polling);
+            case CLICKABLE:
+                return WebDriverUtil.findElementClickableAfter(parent, by, timeoutInSeconds, polling);
+            case CONTAINS:
+                return WebDriverUtil.findElementContainAfter(parent, by, text, timeoutInSeconds, polling);
+            default:
+                return WebDriverUtil.findElementPresentAfter(parent, by, timeoutInSeconds, polling);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe histogram of latencies, in the style of HdrHistogram but with a fixed precision.
+ *
+ * <p>
+ *     Latencies are recorded in microseconds in logarithmic buckets, each power of two split in 4 sub buckets, so
+ *     the percentiles are precise to 25% with 248 counters, no matter how long the latencies are.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 62 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder totalInMicros;
+    private final LongAccumulator maxInMicros;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.totalInMicros = new LongAdder();
+        this.maxInMicros = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * @param latencyInNanos the latency to record.
+     */
+    public void record(long latencyInNanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyInNanos));
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalInMicros.add(micros);
+        maxInMicros.accumulate(micros);
+    }
+
+    /**
+     * @return how many latencies were recorded.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of all the latencies, in microseconds.
+     */
+    public long totalInMicros() {
+        return totalInMicros.sum();
+    }
+
+    /**
+     * @return the longest latency, in microseconds.
+     */
+    public long maxInMicros() {
+        return maxInMicros.get();
+    }
+
+    /**
+     * @param percentile between 0 and 100, for example 99.
+     * @return the latency below which that percentile of the latencies are, in microseconds, 0 if none was recorded.
+     */
+    public long percentileInMicros(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile should be between 0 and 100, got %s", percentile);
+
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(bucket), maxInMicros());
+            }
+        }
+        return maxInMicros();
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+        return Math.min((exponent - 1) * SUB_BUCKETS + subBucket, BUCKETS - 1);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS - 1) {
+            return bucket;
+        }
+        if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        int next = bucket + 1;
+        int exponent = next / SUB_BUCKETS + 1;
+        return ((long) (SUB_BUCKETS + next % SUB_BUCKETS) << (exponent - 2)) - 1;
+    }
+}
@@ -1,38 +1,43 @@
 package com.salesforceiq.augmenteddriver.util;
 
-import com.beust.jcommander.internal.Lists;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
-import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Calendar;
-import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Waits until a condition on a PageObject is true, or times out.
+ *
+ * <p>
+ *     The deadline is measured with System.nanoTime, so it is not affected by changes of the system clock, and
+ *     the wait stops with an IllegalStateException if the thread is interrupted, for example by a suite timeout.
+ * </p>
  */
 public class PageObjectWaiter {
     private static final Logger LOG = LoggerFactory.getLogger(PageObjectWaiter.class);
-    private final List<Class<?>> ignoreExceptions;
-
-    private int waitInSeconds;
-
-    private int waitBetweenIterationsInMilliseconds;
+    private static final Set<Class<? extends Throwable>> IGNORE_EXCEPTIONS = ImmutableSet.of(StaleElementReferenceException.class);
 
+    private final int waitInSeconds;
+    private final PollingStrategy polling;
 
     @Inject
-    public PageObjectWaiter(@Named(PropertiesModule.WAIT_IN_SECONDS) String waitInSeconds,
-                            @Named(PropertiesModule.WAIT_BETWEEN_ITERATIONS_IN_MILLISECONDS) String waitBetweenIterationsInMilliseconds) {
-        this.waitInSeconds = Integer.valueOf(Preconditions.checkNotNull(waitInSeconds));
-        this.waitBetweenIterationsInMilliseconds = Integer.valueOf(Preconditions.checkNotNull(waitBetweenIterationsInMilliseconds));
-        this.ignoreExceptions = Lists.newArrayList();
-        this.ignoreExceptions.add(StaleElementReferenceException.class);
+    public PageObjectWaiter(AugmentedConfig config) {
+        this.waitInSeconds = config.getInt(PropertiesModule.WAIT_IN_SECONDS);
+        this.polling = config.getPollingStrategy(
+                PollingStrategy.fixed(config.getInt(PropertiesModule.WAIT_BETWEEN_ITERATIONS_IN_MILLISECONDS)));
+    }
+
+    PageObjectWaiter(int waitInSeconds, PollingStrategy polling) {
+        this.waitInSeconds = waitInSeconds;
+        this.polling = Preconditions.checkNotNull(polling);
     }
 
     /**
@@ -98,24 +103,58 @@ public class PageObjectWaiter {
         Preconditions.checkNotNull(waitUntil);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(errorMessage));
 
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.SECOND, waitTimeInSeconds);
-        long limit = calendar.getTimeInMillis();
-        while (System.currentTimeMillis() < limit) {
-            try {
-                if (waitUntil.apply(entity)) {
-                    return;
-                } else {
-                    Util.pause(waitBetweenIterationsInMilliseconds);
+        waitUntilAfter(entity, waitUntil, errorMessage, waitTimeInSeconds, polling);
+    }
+
+    /**
+     * Waits until the Predicate on the Page Object entity is true, times out in waitTimeInSeconds.
+     *
+     * @param entity what Page object is going to be applied to the predicate.
+     * @param waitTimeInSeconds How much time to wait
+     * @param waitUntil the predicate to check if it is fulfilled.
+     * @param errorMessage what to print if it times out
+     * @param polling how long to sleep between polls, instead of POLLING_STRATEGY.
+     * @param <T> the type of the Page Object.
+     */
+    public <T extends PageObject> void waitUntilAfter(T entity, Predicate<T> waitUntil,
+                                                            String errorMessage, int waitTimeInSeconds,
+                                                            PollingStrategy polling) {
+        Preconditions.checkNotNull(entity);
+        Preconditions.checkNotNull(waitUntil);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(errorMessage));
+        Preconditions.checkNotNull(polling);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(waitTimeInSeconds);
+        int polls = 0;
+        try {
+            while (true) {
+                polls++;
+                try {
+                    if (waitUntil.apply(entity)) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    if (!IGNORE_EXCEPTIONS.contains(e.getClass())) {
+                        throw e;
+                    }
                 }
-            } catch (Throwable e) {
-                if (ignoreExceptions.contains(e.getClass())) {
-                    Util.pause(waitBetweenIterationsInMilliseconds);
-                } else {
-                    throw e;
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new AssertionError(String.format("%s (waited %s ms, %s polls)",
+                            errorMessage, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), polls));
                 }
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(polling.delayInMilliseconds(polls))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting: " + errorMessage, e);
+        } finally {
+            long waited = System.nanoTime() - start;
+            WaitStatistics.record(polls, waited);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(String.format("Waited %s ms and %s polls", TimeUnit.NANOSECONDS.toMillis(waited), polls));
             }
         }
-        throw new AssertionError(errorMessage);
     }
 }
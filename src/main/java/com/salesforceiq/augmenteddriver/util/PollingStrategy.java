@@ -0,0 +1,132 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How long a wait sleeps between polls.
+ *
+ * <p>
+ *     Set for all the waits with POLLING_STRATEGY, or per call with the WebDriverUtil and PageObjectWaiter methods
+ *     that take a PollingStrategy.
+ * </p>
+ */
+public interface PollingStrategy {
+
+    /**
+     * What WebElementWait always used, 500 milliseconds between polls.
+     */
+    PollingStrategy DEFAULT = fixed(500);
+
+    /**
+     * @param polls how many polls were done so far, starting at 1.
+     * @return how many milliseconds to sleep before the next poll.
+     */
+    long delayInMilliseconds(int polls);
+
+    /**
+     * @param delayInMilliseconds the time between polls.
+     * @return a strategy that always sleeps the same time.
+     */
+    static PollingStrategy fixed(long delayInMilliseconds) {
+        Preconditions.checkArgument(delayInMilliseconds >= 0, "delayInMilliseconds should not be negative, got %s", delayInMilliseconds);
+
+        return polls -> delayInMilliseconds;
+    }
+
+    /**
+     * @param initialInMilliseconds the time before the second poll.
+     * @param maxInMilliseconds the longest time between polls.
+     * @return a strategy that doubles the time between polls, up to maxInMilliseconds.
+     */
+    static PollingStrategy exponential(long initialInMilliseconds, long maxInMilliseconds) {
+        Preconditions.checkArgument(initialInMilliseconds > 0, "initialInMilliseconds should be greater than 0, got %s", initialInMilliseconds);
+        Preconditions.checkArgument(maxInMilliseconds >= initialInMilliseconds, "maxInMilliseconds should not be less than %s, got %s",
+                initialInMilliseconds, maxInMilliseconds);
+
+        return polls -> {
+            long delay = initialInMilliseconds;
+            for (int poll = 1; poll < polls && delay < maxInMilliseconds; poll++) {
+                delay *= 2;
+            }
+            return Math.min(delay, maxInMilliseconds);
+        };
+    }
+
+    /**
+     * @param fastInMilliseconds the time between the first polls.
+     * @param fastPolls how many polls are fast.
+     * @param slowInMilliseconds the time between the rest of the polls.
+     * @return a strategy for waits that usually end quickly, but can take long.
+     */
+    static PollingStrategy fastThenSlow(long fastInMilliseconds, int fastPolls, long slowInMilliseconds) {
+        Preconditions.checkArgument(fastInMilliseconds >= 0, "fastInMilliseconds should not be negative, got %s", fastInMilliseconds);
+        Preconditions.checkArgument(fastPolls >= 0, "fastPolls should not be negative, got %s", fastPolls);
+        Preconditions.checkArgument(slowInMilliseconds >= 0, "slowInMilliseconds should not be negative, got %s", slowInMilliseconds);
+
+        return polls -> polls <= fastPolls ? fastInMilliseconds : slowInMilliseconds;
+    }
+
+    /**
+     * @param strategy the strategy to add jitter to.
+     * @param ratio how much the delay can vary, 0.2 is +-20%.
+     * @return a strategy that randomizes the delays, so parallel tests do not poll the grid in lockstep.
+     */
+    static PollingStrategy jittered(PollingStrategy strategy, double ratio) {
+        Preconditions.checkNotNull(strategy);
+        Preconditions.checkArgument(ratio >= 0 && ratio <= 1, "ratio should be between 0 and 1, got %s", ratio);
+
+        return polls -> {
+            long delay = strategy.delayInMilliseconds(polls);
+            double factor = 1 + ratio * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+            return Math.round(delay * factor);
+        };
+    }
+
+    /**
+     * Parses a strategy from POLLING_STRATEGY.
+     *
+     * <p>
+     *     Examples: fixed:500, exponential:50,2000, fastThenSlow:50,10,500 and jittered:0.2:exponential:50,2000.
+     * </p>
+     *
+     * @param description the strategy.
+     * @return the strategy.
+     * @throws IllegalArgumentException if the description is not valid.
+     */
+    static PollingStrategy parse(String description) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(description), "Polling strategy should not be empty");
+
+        List<String> parts = Splitter.on(':').limit(2).trimResults().splitToList(description);
+        String name = parts.get(0);
+        String arguments = parts.size() > 1 ? parts.get(1) : "";
+        try {
+            if ("jittered".equals(name)) {
+                List<String> jittered = Splitter.on(':').limit(2).trimResults().splitToList(arguments);
+                Preconditions.checkArgument(jittered.size() == 2, "Expected jittered:ratio:strategy, got %s", description);
+                return jittered(parse(jittered.get(1)), Double.valueOf(jittered.get(0)));
+            }
+            List<Long> values = Lists.transform(Splitter.on(',').trimResults().omitEmptyStrings().splitToList(arguments), Long::valueOf);
+            switch (name) {
+                case "fixed":
+                    Preconditions.checkArgument(values.size() == 1, "Expected fixed:delay, got %s", description);
+                    return fixed(values.get(0));
+                case "exponential":
+                    Preconditions.checkArgument(values.size() == 2, "Expected exponential:initial,max, got %s", description);
+                    return exponential(values.get(0), values.get(1));
+                case "fastThenSlow":
+                    Preconditions.checkArgument(values.size() == 3, "Expected fastThenSlow:fast,fastPolls,slow, got %s", description);
+                    return fastThenSlow(values.get(0), values.get(1).intValue(), values.get(2));
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown polling strategy %s", description));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid polling strategy %s", description), e);
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.salesforceiq.augmenteddriver.util;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
-import com.beust.jcommander.internal.Lists;
 import com.google.common.base.Preconditions;
-import org.junit.Ignore;
-import org.junit.Test;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.salesforceiq.augmenteddriver.runners.FlakinessHistory;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Utility class for finding all the tests that are quarantined.
+ *
+ * <p>
+ *     With -history it also suggests, from the flakiness history written by TestSuiteRunner, the tests to quarantine
+ *     (flakiest first) and the quarantined tests that became stable.
+ * </p>
  */
 public class QuarantineFinder {
 
@@ -38,11 +45,43 @@ public class QuarantineFinder {
             return ARGUMENTS.suitesPackage;
         }
 
+        private String history() {
+            Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#intialize first");
+            return ARGUMENTS.history;
+        }
+
+        private int runs() {
+            Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#intialize first");
+            return ARGUMENTS.runs;
+        }
+
+        private int minRuns() {
+            Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#intialize first");
+            return ARGUMENTS.minRuns;
+        }
+
+        private double threshold() {
+            Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#intialize first");
+            return ARGUMENTS.threshold;
+        }
+
         @Parameter(names = "-suites", description = "Comma delimited suites to find quarantined tests")
         private String suites;
 
         @Parameter(names = "-suitesPackage", description = "Base package to grab the tests")
         private String suitesPackage;
+
+        @Parameter(names = "-history", description = "Flakiness history (HISTORY_FILE) to suggest tests to quarantine and unquarantine")
+        private String history;
+
+        @Parameter(names = "-runs", description = "How many of the last runs of each test are considered, 30 by default")
+        private int runs = 30;
+
+        @Parameter(names = "-minRuns", description = "How many runs a test needs to be suggested, 5 by default")
+        private int minRuns = 5;
+
+        @Parameter(names = "-threshold", description = "Flake rate from which a test is suggested for quarantine, 0.1 by default")
+        private double threshold = 0.1;
     }
 
     /**
@@ -54,20 +93,30 @@ public class QuarantineFinder {
     public static void main(String[] args) throws Exception {
         QuarantineCommandLineArguments arguments = QuarantineCommandLineArguments.initialize(args);
         checkArguments(arguments);
-        List<Class> classes = TestsFinder.getTestClassesOfPackage(arguments.suites(), arguments.suitesPackage());
+        List<String> quarantined = TestsFinder.getTestsOfPackage(arguments.suites(), arguments.suitesPackage(), true);
         System.out.println(String.format("Quarantined tests for suites %s in package %s",
                                                                                 arguments.suites(),
                                                                                 arguments.suitesPackage()));
-        classes.stream()
-                .forEach(test -> Lists.newArrayList(test.getMethods())
-                        .stream()
-                        .filter(method -> method.isAnnotationPresent(Test.class)
-                                && !method.isAnnotationPresent(Ignore.class)
-                                && method.isAnnotationPresent(Quarantine.class) == true)
-                        .forEach(quarantinedTest-> {
-                            System.out.println(String.format("%s:%s", quarantinedTest.getDeclaringClass().getCanonicalName(),
-                                                                      quarantinedTest.getName()));
-                        }));
+        quarantined.forEach(quarantinedTest -> System.out.println(quarantinedTest.replace('#', ':')));
+        if (!Strings.isNullOrEmpty(arguments.history())) {
+            printCandidates(arguments, ImmutableSet.copyOf(quarantined),
+                    ImmutableSet.copyOf(TestsFinder.getTestsOfPackage(arguments.suites(), arguments.suitesPackage(), false)));
+        }
+    }
+
+    private static void printCandidates(QuarantineCommandLineArguments arguments,
+                                        Set<String> quarantined,
+                                        Set<String> tests) throws Exception {
+        FlakinessHistory history = FlakinessHistory.load(Paths.get(arguments.history()), arguments.runs());
+
+        System.out.println(String.format("Candidates to quarantine (flake rate of at least %.0f%%):", arguments.threshold() * 100));
+        history.quarantineCandidates(quarantined, arguments.threshold(), arguments.minRuns()).stream()
+                .filter(candidate -> tests.contains(candidate.getTestName()))
+                .forEach(System.out::println);
+        System.out.println(String.format("Candidates to unquarantine (passed at the first attempt in all their last runs, at least %s):",
+                arguments.minRuns()));
+        history.unquarantineCandidates(quarantined, arguments.minRuns())
+                .forEach(System.out::println);
     }
 
     private static void checkArguments(QuarantineCommandLineArguments arguments) {
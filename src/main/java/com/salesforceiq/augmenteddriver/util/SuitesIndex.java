@@ -0,0 +1,157 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the classes annotated with Suites and of their tests, written at compile time by SuitesIndexProcessor.
+ *
+ * <p>
+ *     One line per entry, tab separated: "suites class SUITE,SUITE" for each class, then "test class method" or
+ *     "quarantine class method" for each of its tests that is not ignored. Every jar (or classes directory) has its
+ *     own index, they are all merged.
+ * </p>
+ */
+public class SuitesIndex {
+
+    public static final String RESOURCE = "META-INF/augmenteddriver/suites.index";
+    static final String SUITES = "suites";
+    static final String TEST = "test";
+    static final String QUARANTINE = "quarantine";
+
+    private static final Splitter TAB = Splitter.on('\t');
+    private static final Splitter COMMA = Splitter.on(',').omitEmptyStrings().trimResults();
+
+    private final Map<String, List<String>> suitesByClass;
+    private final Map<String, List<String>> testsByClass;
+    private final Map<String, List<String>> quarantinedByClass;
+
+    private SuitesIndex() {
+        this.suitesByClass = Maps.newLinkedHashMap();
+        this.testsByClass = Maps.newHashMap();
+        this.quarantinedByClass = Maps.newHashMap();
+    }
+
+    /**
+     * @param classLoader where to look for the indexes.
+     * @return the merged indexes, empty if there is none.
+     * @throws IOException if an index could not be read.
+     */
+    public static Optional<SuitesIndex> load(ClassLoader classLoader) throws IOException {
+        Preconditions.checkNotNull(classLoader);
+
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return Optional.empty();
+        }
+        SuitesIndex index = new SuitesIndex();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    index.add(line);
+                }
+            }
+        }
+        return Optional.of(index);
+    }
+
+    private void add(String line) {
+        if (Strings.isNullOrEmpty(line) || line.startsWith("#")) {
+            return;
+        }
+        List<String> fields = TAB.splitToList(line);
+        if (fields.size() < 3) {
+            return;
+        }
+        String className = fields.get(1);
+        switch (fields.get(0)) {
+            case SUITES:
+                suitesByClass.put(className, COMMA.splitToList(fields.get(2)));
+                break;
+            case TEST:
+                testsByClass.computeIfAbsent(className, ignored -> Lists.newArrayList()).add(fields.get(2));
+                break;
+            case QUARANTINE:
+                quarantinedByClass.computeIfAbsent(className, ignored -> Lists.newArrayList()).add(fields.get(2));
+                break;
+            default:
+                // Written by a newer version, ignored.
+        }
+    }
+
+    /**
+     * @param suites the suites, case insensitive.
+     * @param suitesPackage the root package.
+     * @return the names of the classes of the package annotated with any of the suites.
+     */
+    public List<String> classesOf(List<String> suites, String suitesPackage) {
+        Preconditions.checkNotNull(suites);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(suitesPackage));
+
+        return suitesByClass.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(suitesPackage + "."))
+                .filter(entry -> entry.getValue().stream().anyMatch(suite -> suites.stream().anyMatch(suite::equalsIgnoreCase)))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param className the name of the class.
+     * @param quarantined whether to return the quarantined tests or the rest.
+     * @return the name of the test methods of the class that are not ignored.
+     */
+    public List<String> testsOf(String className, boolean quarantined) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(className));
+
+        return ImmutableList.copyOf((quarantined ? quarantinedByClass : testsByClass).getOrDefault(className, ImmutableList.of()));
+    }
+
+    /**
+     * @param className the name of the class.
+     * @return whether the class is in the index.
+     */
+    public boolean contains(String className) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(className));
+
+        return suitesByClass.containsKey(className);
+    }
+
+    /**
+     * @param suitesPackage the root package.
+     * @return the names of all the classes of the package in the index.
+     */
+    public List<String> classesOf(String suitesPackage) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(suitesPackage));
+
+        return suitesByClass.keySet().stream()
+                .filter(className -> className.startsWith(suitesPackage + "."))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param suitesPackage the root package.
+     * @return whether the index has any class of the package, if not it was not built for it.
+     */
+    public boolean covers(String suitesPackage) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(suitesPackage));
+
+        return suitesByClass.keySet().stream().anyMatch(className -> className.startsWith(suitesPackage + "."));
+    }
+}
@@ -0,0 +1,107 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the SuitesIndex of the classes annotated with Suites, so TestsFinder does not scan the classpath.
+ *
+ * <p>
+ *     Not registered in META-INF/services, so it does not run in every project that depends on AugmentedDriver.
+ *     Enable it when compiling the tests with -processor com.salesforceiq.augmenteddriver.util.SuitesIndexProcessor
+ *     (listing any other processor of the project too, naming one turns off their discovery). Without the index
+ *     TestsFinder falls back to scanning the class files.
+ * </p>
+ */
+public class SuitesIndexProcessor extends AbstractProcessor {
+
+    private static final String TEST = "org.junit.Test";
+    private static final String IGNORE = "org.junit.Ignore";
+
+    // Sorted by class, so the index is the same on every build.
+    private final Map<String, String> entriesByClass = Maps.newTreeMap();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return ImmutableSet.of(Suites.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Suites.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                TypeElement type = (TypeElement) element;
+                entriesByClass.put(binaryName(type), entries(type));
+            }
+        }
+        if (roundEnv.processingOver() && !entriesByClass.isEmpty()) {
+            write();
+        }
+        return false;
+    }
+
+    private String entries(TypeElement type) {
+        String className = binaryName(type);
+        StringBuilder entries = new StringBuilder();
+        entries.append(String.format("%s\t%s\t%s%n",
+                SuitesIndex.SUITES, className, String.join(",", type.getAnnotation(Suites.class).value())));
+        // Includes the tests inherited, as TestSuiteRunner does with Class#getMethods.
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && hasAnnotation(method, TEST) && !hasAnnotation(method, IGNORE)) {
+                entries.append(String.format("%s\t%s\t%s%n",
+                        method.getAnnotation(Quarantine.class) == null ? SuitesIndex.TEST : SuitesIndex.QUARANTINE,
+                        className,
+                        method.getSimpleName()));
+            }
+        }
+        return entries.toString();
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation));
+    }
+
+    private void write() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SuitesIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(String.format("# Written by %s%n", SuitesIndexProcessor.class.getSimpleName()));
+                for (String entries : entriesByClass.values()) {
+                    writer.write(entries);
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    String.format("Could not write %s, the tests will be found scanning the classpath: %s", SuitesIndex.RESOURCE, e));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the classes annotated with Suites reading their class files, without loading them.
+ *
+ * <p>
+ *     Used by TestsFinder when there is no SuitesIndex. Only the constant pool and the class annotations of each
+ *     class file are read. The package is looked up with ClassLoader#getResources, so it works with any class loader
+ *     that serves directories or jars.
+ * </p>
+ */
+public class SuitesScanner {
+
+    private static final String SUITES_DESCRIPTOR = "L" + Suites.class.getName().replace('.', '/') + ";";
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+    private SuitesScanner() {
+    }
+
+    /**
+     * @param classLoader where to look for the classes.
+     * @param suitesPackage the root package.
+     * @return the name of each top level class of the package, and its subpackages, with the suites it belongs to.
+     * @throws IOException if a directory, jar or class file could not be read.
+     */
+    public static List<ScannedClass> scan(ClassLoader classLoader, String suitesPackage) throws IOException {
+        return scan(classLoader, suitesPackage, className -> true);
+    }
+
+    /**
+     * @param classLoader where to look for the classes.
+     * @param suitesPackage the root package.
+     * @param read which classes to read, the rest are returned with no suites without reading their class file.
+     * @return the name of each top level class of the package, and its subpackages, with the suites it belongs to.
+     * @throws IOException if a directory, jar or class file could not be read.
+     */
+    public static List<ScannedClass> scan(ClassLoader classLoader, String suitesPackage, Predicate<String> read) throws IOException {
+        Preconditions.checkNotNull(classLoader);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(suitesPackage));
+        Preconditions.checkNotNull(read);
+
+        String packagePath = suitesPackage.replace('.', '/') + "/";
+        Set<String> seen = Sets.newHashSet();
+        List<ScannedClass> result = Lists.newArrayList();
+        Enumeration<URL> roots = classLoader.getResources(packagePath);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+            if ("jar".equals(root.getProtocol())) {
+                scanJar(root, packagePath, read, seen, result);
+            } else if ("file".equals(root.getProtocol())) {
+                scanDirectory(root, suitesPackage, read, seen, result);
+            }
+        }
+        return result;
+    }
+
+    private static void scanJar(URL root, String packagePath, Predicate<String> read, Set<String> seen, List<ScannedClass> result)
+            throws IOException {
+        JarURLConnection connection = (JarURLConnection) root.openConnection();
+        connection.setUseCaches(false);
+        try (JarFile jar = connection.getJarFile()) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.startsWith(packagePath) && isTopLevelClass(name)) {
+                    String className = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+                    if (!seen.add(className)) {
+                        continue;
+                    }
+                    if (read.test(className)) {
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            result.add(new ScannedClass(className, readSuites(in)));
+                        }
+                    } else {
+                        result.add(new ScannedClass(className, ImmutableList.of()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void scanDirectory(URL root, String suitesPackage, Predicate<String> read, Set<String> seen, List<ScannedClass> result)
+            throws IOException {
+        Path directory;
+        try {
+            directory = Paths.get(root.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(String.format("Could not read the classes of %s", root), e);
+        }
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(directory)) {
+            classFiles = files.filter(file -> isTopLevelClass(file.getFileName().toString())).collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            String relative = directory.relativize(classFile).toString().replace(classFile.getFileSystem().getSeparator(), ".");
+            String className = suitesPackage + "." + relative.substring(0, relative.length() - ".class".length());
+            if (!seen.add(className)) {
+                continue;
+            }
+            if (read.test(className)) {
+                try (InputStream in = Files.newInputStream(classFile)) {
+                    result.add(new ScannedClass(className, readSuites(in)));
+                }
+            } else {
+                result.add(new ScannedClass(className, ImmutableList.of()));
+            }
+        }
+    }
+
+    private static boolean isTopLevelClass(String name) {
+        return name.endsWith(".class") && !name.contains("$") && !name.endsWith("package-info.class");
+    }
+
+    /**
+     * @return the values of the Suites annotation of the class, empty if it does not have it.
+     */
+    static List<String> readSuites(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != CLASS_FILE_MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        Object[] constants = readConstantPool(in);
+        // Access flags, this class and super class.
+        skip(in, 6);
+        skip(in, 2 * in.readUnsignedShort());
+        skipMembers(in);
+        skipMembers(in);
+        int attributes = in.readUnsignedShort();
+        for (int attribute = 0; attribute < attributes; attribute++) {
+            String name = (String) constants[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                skip(in, length);
+                continue;
+            }
+            int annotations = in.readUnsignedShort();
+            for (int annotation = 0; annotation < annotations; annotation++) {
+                String type = (String) constants[in.readUnsignedShort()];
+                List<String> values = Lists.newArrayList();
+                int pairs = in.readUnsignedShort();
+                for (int pair = 0; pair < pairs; pair++) {
+                    in.readUnsignedShort();
+                    readElementValue(in, constants, values);
+                }
+                if (SUITES_DESCRIPTOR.equals(type)) {
+                    return ImmutableList.copyOf(values);
+                }
+            }
+        }
+        return ImmutableList.of();
+    }
+
+    /**
+     * @return the UTF8 constants by index, the rest are skipped.
+     */
+    private static Object[] readConstantPool(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        Object[] constants = new Object[count];
+        for (int index = 1; index < count; index++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    constants[index] = in.readUTF();
+                    break;
+                case 7: case 8: case 16: case 19: case 20:
+                    skip(in, 2);
+                    break;
+                case 15:
+                    skip(in, 3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    skip(in, 4);
+                    break;
+                case 5: case 6:
+                    skip(in, 8);
+                    // Longs and doubles take two entries.
+                    index++;
+                    break;
+                default:
+                    throw new IOException(String.format("Unknown constant pool tag %s", tag));
+            }
+        }
+        return constants;
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int members = in.readUnsignedShort();
+        for (int member = 0; member < members; member++) {
+            // Access flags, name and descriptor.
+            skip(in, 6);
+            int attributes = in.readUnsignedShort();
+            for (int attribute = 0; attribute < attributes; attribute++) {
+                skip(in, 2);
+                skip(in, in.readInt());
+            }
+        }
+    }
+
+    /**
+     * Reads an element value, adding the strings found to values.
+     */
+    private static void readElementValue(DataInputStream in, Object[] constants, List<String> values) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 's':
+                values.add((String) constants[in.readUnsignedShort()]);
+                break;
+            case 'e':
+                skip(in, 4);
+                break;
+            case '@':
+                in.readUnsignedShort();
+                int pairs = in.readUnsignedShort();
+                for (int pair = 0; pair < pairs; pair++) {
+                    in.readUnsignedShort();
+                    readElementValue(in, constants, Lists.newArrayList());
+                }
+                break;
+            case '[':
+                int elements = in.readUnsignedShort();
+                for (int element = 0; element < elements; element++) {
+                    readElementValue(in, constants, values);
+                }
+                break;
+            default:
+                // Primitives and classes are an index in the constant pool.
+                skip(in, 2);
+        }
+    }
+
+    private static void skip(DataInputStream in, int bytes) throws IOException {
+        in.readFully(new byte[bytes]);
+    }
+
+    /**
+     * A class found, with the suites it belongs to.
+     */
+    public static class ScannedClass {
+        private final String className;
+        private final List<String> suites;
+
+        public ScannedClass(String className, List<String> suites) {
+            this.className = className;
+            this.suites = suites;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return the values of its Suites annotation, empty if it does not have it.
+         */
+        public List<String> getSuites() {
+            return suites;
+        }
+    }
+}
@@ -119,6 +119,22 @@ public class TestRunnerConfig {
         return ARGUMENTS.parallel;
     }
 
+    /**
+     * @return Which shard of the suite to run, from 0 to shardCount - 1.
+     */
+    public int shardIndex() {
+        Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#intialize first");
+        return ARGUMENTS.shardIndex;
+    }
+
+    /**
+     * @return In how many shards the suite is split.
+     */
+    public int shardCount() {
+        Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#intialize first");
+        return ARGUMENTS.shardCount;
+    }
+
     /**
      * @return whether is running on sauce or not.
      */
@@ -185,6 +201,12 @@ public class TestRunnerConfig {
     @Parameter(names = "-parallel", description = "How many tests in parallel are going to run")
     private Integer parallel = 1;
 
+    @Parameter(names = "-shardIndex", description = "Which shard of the suite to run, from 0 to shardCount - 1")
+    private Integer shardIndex = 0;
+
+    @Parameter(names = "-shardCount", description = "In how many shards the suite is split")
+    private Integer shardCount = 1;
+
     @Parameter(names = "-sauce", description = "Whether to run tests on SauceLabs or not")
     private boolean sauce = false;
 
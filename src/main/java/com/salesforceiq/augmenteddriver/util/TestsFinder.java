@@ -1,20 +1,35 @@
 package com.salesforceiq.augmenteddriver.util;
 
-import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.reflect.ClassPath;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Provides functionality for finding the classes to run.
+ *
+ * <p>
+ *     Reads the SuitesIndex written at compile time by SuitesIndexProcessor. If there is no index for the package,
+ *     it scans the class files with SuitesScanner. Either way only the classes of the suites are loaded.
+ * </p>
+ * <p>
+ *     An incremental compile can leave an index with only the classes compiled last. So the index is checked
+ *     against the class files of the package, reading only the ones that are not in it, and if a class with Suites
+ *     is missing (or a class in the index was removed) the class files are scanned instead.
+ * </p>
  */
 public class TestsFinder {
+    private static final Logger LOG = LoggerFactory.getLogger(TestsFinder.class);
 
     private static final ClassLoader CLASS_LOADER = TestsFinder.class.getClassLoader();
 
@@ -24,40 +39,108 @@ public class TestsFinder {
      * @param suites the Suites used to find classes (classes should be annotated with the Suites annotation)
      * @param suitesPackage the root package.
      * @return the List of classes that are annotated with any of the suites.
-     * @throws IOException if failed to initialize the class loader.
+     * @throws IOException if failed to read the index or the class files.
      */
-    @SuppressWarnings("unchecked")
     public static List<Class> getTestClassesOfPackage(List<String> suites, String suitesPackage) throws IOException {
         Preconditions.checkNotNull(suites);
         Preconditions.checkArgument(!suites.isEmpty());
         Preconditions.checkArgument(!Strings.isNullOrEmpty(suitesPackage));
 
-        List<String> upperSuites = ImmutableList.copyOf(Lists.transform(suites, String::toUpperCase));
-        return ImmutableList.copyOf(Iterables.filter(getAllClassesOfPackage(suitesPackage), clazz -> {
-            if (clazz.isAnnotationPresent(Suites.class)) {
-                Suites suitesAnnotation = (Suites) clazz.getAnnotation(Suites.class);
-                return Lists.transform(
-                        Lists.newArrayList(suitesAnnotation.value()), String::toUpperCase)
-                        .stream()
-                        .anyMatch(upperSuites::contains);
-            }
-            return false;
-        }));
+        return getTestClassesOfPackage(CLASS_LOADER, suites, suitesPackage, index(CLASS_LOADER, suitesPackage));
     }
 
-    private static List<Class> getAllClassesOfPackage(String suitesPackage) throws IOException {
+    private static List<Class> getTestClassesOfPackage(ClassLoader classLoader, List<String> suites, String suitesPackage,
+                                                       Optional<SuitesIndex> index) throws IOException {
+        return ImmutableList.copyOf(Lists.transform(getClassNamesOfPackage(classLoader, suites, suitesPackage, index),
+                className -> toClass(classLoader, className)));
+    }
+
+    /**
+     * Finds the tests of a list of suites that are not ignored, given the root package.
+     *
+     * <p>
+     *     With the index the classes are not even loaded.
+     * </p>
+     *
+     * @param suites the Suites used to find the tests.
+     * @param suitesPackage the root package.
+     * @param quarantined whether to return the quarantined tests or the rest.
+     * @return the names of the tests, class#method.
+     * @throws IOException if failed to read the index or the class files.
+     */
+    public static List<String> getTestsOfPackage(List<String> suites, String suitesPackage, boolean quarantined) throws IOException {
+        Preconditions.checkNotNull(suites);
+        Preconditions.checkArgument(!suites.isEmpty());
         Preconditions.checkArgument(!Strings.isNullOrEmpty(suitesPackage));
 
-        ClassPath classPath = ClassPath.from(CLASS_LOADER);
-        return ImmutableList.copyOf(Iterables.transform(classPath.getTopLevelClassesRecursive(suitesPackage), TO_CLASS));
+        return getTestsOfPackage(CLASS_LOADER, suites, suitesPackage, quarantined);
+    }
+
+    static List<String> getTestsOfPackage(ClassLoader classLoader, List<String> suites, String suitesPackage, boolean quarantined)
+            throws IOException {
+        Optional<SuitesIndex> index = index(classLoader, suitesPackage);
+        if (index.isPresent()) {
+            return index.get().classesOf(suites, suitesPackage).stream()
+                    .flatMap(className -> index.get().testsOf(className, quarantined).stream()
+                            .map(method -> String.format("%s#%s", className, method)))
+                    .collect(Collectors.toList());
+        }
+        return getTestClassesOfPackage(classLoader, suites, suitesPackage, index).stream()
+                .flatMap(clazz -> Lists.newArrayList(clazz.getMethods()).stream()
+                        .filter(method -> method.isAnnotationPresent(Test.class)
+                                && !method.isAnnotationPresent(Ignore.class)
+                                && method.isAnnotationPresent(Quarantine.class) == quarantined)
+                        .map(method -> String.format("%s#%s", clazz.getName(), method.getName())))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> getClassNamesOfPackage(ClassLoader classLoader, List<String> suites, String suitesPackage,
+                                                       Optional<SuitesIndex> index) throws IOException {
+        if (index.isPresent()) {
+            return index.get().classesOf(suites, suitesPackage);
+        }
+        return SuitesScanner.scan(classLoader, suitesPackage).stream()
+                .filter(scanned -> scanned.getSuites().stream().anyMatch(suite -> suites.stream().anyMatch(suite::equalsIgnoreCase)))
+                .map(SuitesScanner.ScannedClass::getClassName)
+                .collect(Collectors.toList());
     }
 
-    private static final Function<ClassPath.ClassInfo, Class> TO_CLASS = classInfo -> {
+    /**
+     * @return the index, empty if there is none for the package or it is out of date with the class files.
+     */
+    private static Optional<SuitesIndex> index(ClassLoader classLoader, String suitesPackage) throws IOException {
+        Optional<SuitesIndex> loaded = SuitesIndex.load(classLoader).filter(index -> index.covers(suitesPackage));
+        if (!loaded.isPresent()) {
+            LOG.info(String.format("No %s for package %s, scanning the class files", SuitesIndex.RESOURCE, suitesPackage));
+            return Optional.empty();
+        }
+        SuitesIndex index = loaded.get();
+        List<SuitesScanner.ScannedClass> scanned = SuitesScanner.scan(classLoader, suitesPackage, className -> !index.contains(className));
+        Optional<String> missing = scanned.stream()
+                .filter(scannedClass -> !scannedClass.getSuites().isEmpty())
+                .map(SuitesScanner.ScannedClass::getClassName)
+                .findFirst();
+        // If the class files cannot be listed (a jar without directory entries) there is nothing to check against.
+        Set<String> classNames = scanned.stream().map(SuitesScanner.ScannedClass::getClassName).collect(Collectors.toSet());
+        Optional<String> removed = classNames.isEmpty()
+                ? Optional.empty()
+                : index.classesOf(suitesPackage).stream().filter(className -> !classNames.contains(className)).findFirst();
+        if (missing.isPresent() || removed.isPresent()) {
+            LOG.warn(String.format("%s is out of date for package %s (%s), scanning the class files. Run a clean build to rewrite it",
+                    SuitesIndex.RESOURCE, suitesPackage,
+                    missing.isPresent() ? missing.get() + " is missing" : removed.get() + " was removed"));
+            return Optional.empty();
+        }
+        LOG.info(String.format("Finding the tests of package %s with %s", suitesPackage, SuitesIndex.RESOURCE));
+        return loaded;
+    }
+
+    private static Class toClass(ClassLoader classLoader, String className) {
         try {
-            return CLASS_LOADER.loadClass(classInfo.getName());
+            return classLoader.loadClass(className);
         } catch (ClassNotFoundException e) {
-            // Should never happen.... i think.
+            // The index is out of date with the classes, should never happen.
             throw new IllegalStateException(e);
         }
-    };
+    }
 }
@@ -0,0 +1,210 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each find/wait of the Augmented functions blocked, enabled with PROFILE_WAITS.
+ *
+ * <p>
+ *     Waits are grouped by call site: the method, the By and the first frame outside AugmentedDriver (the page
+ *     object or test that waited). At the end of the suite the runners write them to RESULTS_DIR/waits.txt, the
+ *     ones that waited longest in total first.
+ * </p>
+ * <p>
+ *     IMPORTANT: the records are static, since every test has its own Injector.
+ * </p>
+ */
+public class WaitProfiler {
+    private static final Logger LOG = LoggerFactory.getLogger(WaitProfiler.class);
+
+    private static final String PACKAGE = "com.salesforceiq.augmenteddriver.";
+    private static final String REPORT = "waits.txt";
+    private static final Map<Key, Stats> RECORDS = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    @Inject
+    public WaitProfiler(AugmentedConfig config) {
+        this(config.getBoolean(PropertiesModule.PROFILE_WAITS));
+    }
+
+    public WaitProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Runs and records a wait.
+     *
+     * @param method the Augmented function, for example findElementVisibleAfter.
+     * @param by what is waited.
+     * @param wait the wait.
+     * @param <T> what the wait returns.
+     * @return what the wait returned.
+     */
+    public <T> T profile(String method, By by, Supplier<T> wait) {
+        if (!enabled) {
+            return wait.get();
+        }
+        Preconditions.checkNotNull(method);
+        Preconditions.checkNotNull(by);
+
+        WaitStatistics.record(0, 0);
+        long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            return wait.get();
+        } catch (TimeoutException | AssertionError e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            long waited = System.nanoTime() - start;
+            RECORDS.computeIfAbsent(new Key(method, by.toString(), callerOf()), ignored -> new Stats())
+                    .record(waited, WaitStatistics.lastPolls(), timedOut);
+        }
+    }
+
+    /**
+     * Runs and records a wait that returns nothing.
+     *
+     * @param method the Augmented function, for example waitElementToNotBeVisibleAfter.
+     * @param by what is waited.
+     * @param wait the wait.
+     */
+    public void profile(String method, By by, Runnable wait) {
+        profile(method, by, () -> {
+            wait.run();
+            return null;
+        });
+    }
+
+    /**
+     * Writes the waits recorded so far, does nothing if none was.
+     *
+     * @param resultsDir where to write waits.txt.
+     */
+    public static void writeReport(Path resultsDir) {
+        Preconditions.checkNotNull(resultsDir);
+
+        if (RECORDS.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Stats>> entries = Lists.newArrayList(RECORDS.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Key, Stats> entry) -> entry.getValue().totalInNanos.sum()).reversed());
+        Path report = resultsDir.resolve(REPORT);
+        try {
+            Files.createDirectories(resultsDir);
+            try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                writer.write(String.format("%10s %8s %8s %9s %9s %9s  %s%n",
+                        "TOTAL(s)", "CALLS", "TIMEOUTS", "AVG(ms)", "MAX(ms)", "AVG POLLS", "CALL SITE"));
+                for (Map.Entry<Key, Stats> entry : entries) {
+                    Stats stats = entry.getValue();
+                    long calls = stats.calls.sum();
+                    writer.write(String.format("%10.1f %8s %8s %9s %9s %9.1f  %s %s at %s%n",
+                            TimeUnit.NANOSECONDS.toMillis(stats.totalInNanos.sum()) / 1000.0,
+                            calls,
+                            stats.timeouts.sum(),
+                            TimeUnit.NANOSECONDS.toMillis(stats.totalInNanos.sum() / calls),
+                            TimeUnit.NANOSECONDS.toMillis(stats.maxInNanos.get()),
+                            stats.polls.sum() / (double) calls,
+                            entry.getKey().method,
+                            entry.getKey().by,
+                            entry.getKey().caller));
+                }
+            }
+            LOG.info(String.format("Wait profile written to %s", report));
+        } catch (IOException e) {
+            LOG.warn(String.format("Could not write the wait profile to %s", report), e);
+        }
+    }
+
+    /**
+     * Forgets all the waits recorded, for tests.
+     */
+    static void reset() {
+        RECORDS.clear();
+    }
+
+    /**
+     * @return the first frame outside AugmentedDriver, Selenium and the JDK.
+     */
+    private static String callerOf() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith(PACKAGE)
+                    && !className.startsWith("java.")
+                    && !className.startsWith("sun.")
+                    && !className.startsWith("jdk.")
+                    && !className.startsWith("com.google.")
+                    && !className.startsWith("org.openqa.")) {
+                return frame.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static class Stats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder polls = new LongAdder();
+        private final LongAdder totalInNanos = new LongAdder();
+        private final LongAccumulator maxInNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long waitedInNanos, int polls, boolean timedOut) {
+            calls.increment();
+            this.polls.add(polls);
+            totalInNanos.add(waitedInNanos);
+            maxInNanos.accumulate(waitedInNanos);
+            if (timedOut) {
+                timeouts.increment();
+            }
+        }
+    }
+
+    private static class Key {
+        private final String method;
+        private final String by;
+        private final String caller;
+
+        private Key(String method, String by, String caller) {
+            this.method = method;
+            this.by = by;
+            this.caller = caller;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return method.equals(key.method) && by.equals(key.by) && caller.equals(key.caller);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, by, caller);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.salesforceiq.augmenteddriver.util;
+
+/**
+ * How many polls and how much time the last wait of the current thread took.
+ *
+ * <p>
+ *     Recorded by WebElementWait and PageObjectWaiter when a wait ends, either because the condition was met or
+ *     because it timed out.
+ * </p>
+ */
+public class WaitStatistics {
+
+    private static final ThreadLocal<WaitStatistics> LAST = ThreadLocal.withInitial(WaitStatistics::new);
+
+    private int polls;
+    private long waitedInNanos;
+
+    private WaitStatistics() {
+    }
+
+    static void record(int polls, long waitedInNanos) {
+        WaitStatistics last = LAST.get();
+        last.polls = polls;
+        last.waitedInNanos = waitedInNanos;
+    }
+
+    /**
+     * @return how many times the last wait of the current thread checked its condition.
+     */
+    public static int lastPolls() {
+        return LAST.get().polls;
+    }
+
+    /**
+     * @return how many nanoseconds the last wait of the current thread took.
+     */
+    public static long lastWaitInNanos() {
+        return LAST.get().waitedInNanos;
+    }
+}
@@ -2,18 +2,28 @@ package com.salesforceiq.augmenteddriver.util;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.io.Resources;
+import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Utilities around WebDriver.
  */
 public class WebDriverUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(WebDriverUtil.class);
 
     /**
      * Convenient method since the text of inpus and textareas are in the value attribute,
@@ -30,37 +40,35 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Same as findElementVisibleAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static WebElement findElementVisibleAfter(SearchContext parent, By by, int timeoutInSeconds) {
+        return findElementVisibleAfter(parent, by, timeoutInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Finds an element that is visible.
      *
      * @param parent The context where the element is going to be looked.
      * @param by The identifier of the element
      * @param timeoutInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the first element that is visible.
      */
-    public static WebElement findElementVisibleAfter(SearchContext parent, By by, int timeoutInSeconds) {
+    public static WebElement findElementVisibleAfter(SearchContext parent, By by, int timeoutInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
-        try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
-            return wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
-                }
-                Optional<WebElement> displayed = children.stream()
-                        .filter(child -> isElementVisible(child))
-                        .findAny();
-                if (displayed.isPresent()) {
-                    return  displayed.get();
-                } else {
-                    throw new NotFoundException(String.format("Element %s not visible yet", by));
-                }
-            });
-        } catch (TimeoutException e) {
-            throw new TimeoutException(String.format("Element %s is not visible after %s seconds", by, timeoutInSeconds), e);
-        }
+        return visibleAfter(parent, by, timeoutInSeconds, polling, true).get(0);
+    }
+
+    /**
+     * Same as findElementClickableAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static WebElement findElementClickableAfter(SearchContext parent, By by, int timeoutInSeconds) {
+        return findElementClickableAfter(parent, by, timeoutInSeconds, PollingStrategy.DEFAULT);
     }
 
     /**
@@ -69,31 +77,22 @@ public class WebDriverUtil {
      * @param parent The context where the element is going to be looked.
      * @param by The identifier of the element
      * @param timeoutInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the first element that is clickable.
      */
-    public static WebElement findElementClickableAfter(SearchContext parent, By by, int timeoutInSeconds) {
+    public static WebElement findElementClickableAfter(SearchContext parent, By by, int timeoutInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
-        try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
-            return wait.until((SearchContext element) -> {
-                List<WebElement> children = element.findElements(by);
-                if (children.isEmpty()) {
-                    throw new NotFoundException("No elements found");
-                }
-                Optional<WebElement> displayed = children.stream()
-                        .filter(child -> isElementClickable(child))
-                        .findAny();
-                if (displayed.isPresent()) {
-                    return  displayed.get();
-                } else {
-                    throw new NotFoundException(String.format("Element %s not displayed yet", by));
-                }
-            });
-        } catch (TimeoutException e) {
-            throw new TimeoutException(String.format("Element %s is not clickable after %s seconds", by, timeoutInSeconds), e);
-        }
+        return clickableAfter(parent, by, timeoutInSeconds, polling, true).get(0);
+    }
+
+    /**
+     * Same as findElementNotMovingAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static WebElement findElementNotMovingAfter(SearchContext parent, By by, int timeoutInSeconds) {
+        return findElementNotMovingAfter(parent, by, timeoutInSeconds, PollingStrategy.DEFAULT);
     }
 
     /**
@@ -106,15 +105,17 @@ public class WebDriverUtil {
      * @param parent The context where the element is going to be looked.
      * @param by The identifier of the element
      * @param timeoutInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the first element that hasn't moved.
      */
-    public static WebElement findElementNotMovingAfter(SearchContext parent, By by, int timeoutInSeconds) {
+    public static WebElement findElementNotMovingAfter(SearchContext parent, By by, int timeoutInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
         try {
             final WebElement[] previous = {null};
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, polling);
             return wait.until((SearchContext element) -> {
                 List<WebElement> children = element.findElements(by);
                 if (children.isEmpty()) {
@@ -139,6 +140,13 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Same as findElementContainAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static WebElement findElementContainAfter(SearchContext parent, By by, String text, int timeoutInSeconds) {
+        return findElementContainAfter(parent, by, text, timeoutInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Finds an element that is contains a particular text.
      *
@@ -146,14 +154,16 @@ public class WebDriverUtil {
      * @param by The identifier of the element
      * @param timeoutInSeconds How much time to wait.
      * @param text the string that has to be contained in the element.
+     * @param polling how long to sleep between polls.
      * @return the first element that contains the text.
      */
-    public static WebElement findElementContainAfter(SearchContext parent, By by, String text, int timeoutInSeconds) {
+    public static WebElement findElementContainAfter(SearchContext parent, By by, String text, int timeoutInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(text));
+        Preconditions.checkNotNull(polling);
         try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, polling);
             return wait.until((SearchContext element) -> {
                 List<WebElement> children = element.findElements(by);
                 if (children.isEmpty()) {
@@ -172,19 +182,28 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Same as findElementPresentAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static WebElement findElementPresentAfter(SearchContext parent, By by, int timeoutInSeconds) {
+        return findElementPresentAfter(parent, by, timeoutInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Finds an element that is present.
      *
      * @param parent The context where the element is going to be looked.
      * @param by The identifier of the element
      * @param timeoutInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the first element that is present.
      */
-    public static WebElement findElementPresentAfter(SearchContext parent, By by, int timeoutInSeconds) {
+    public static WebElement findElementPresentAfter(SearchContext parent, By by, int timeoutInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
         try {
-            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds);
+            WebElementWait wait = new WebElementWait(parent, timeoutInSeconds, polling);
             return wait.until((SearchContext element) -> {
                 List<WebElement> children = element.findElements(by);
                 if (children.isEmpty()) {
@@ -198,6 +217,13 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Same as findElementsVisibleAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static List<WebElement> findElementsVisibleAfter(SearchContext parent, By by, int waitInSeconds) {
+        return findElementsVisibleAfter(parent, by, waitInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Will return all the elements that are visible identified by the by. It will wait until one is visible and then
      * return all the visible ones at that point.
@@ -205,17 +231,41 @@ public class WebDriverUtil {
      * @param parent The context where the elements are going to be looked.
      * @param by The identifier of the elements.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the elements that are visible.
      */
-    public static List<WebElement> findElementsVisibleAfter(SearchContext parent, By by, int waitInSeconds) {
+    public static List<WebElement> findElementsVisibleAfter(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
-        findElementVisibleAfter(parent, by, waitInSeconds);
-        return parent.findElements(by)
-                     .stream()
-                     .filter(child -> isElementVisible(child))
-                     .collect(Collectors.toList());
+        return visibleAfter(parent, by, waitInSeconds, polling, false);
+    }
+
+    private static List<WebElement> visibleAfter(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling, boolean first) {
+        try {
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, polling);
+            return wait.until((SearchContext element) -> {
+                List<WebElement> children = element.findElements(by);
+                if (children.isEmpty()) {
+                    throw new NotFoundException("No elements found");
+                }
+                List<WebElement> visible = filter(children, false, first);
+                if (visible.isEmpty()) {
+                    throw new NotFoundException(String.format("Element %s not visible yet", by));
+                }
+                return visible;
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Element %s is not visible after %s seconds", by, waitInSeconds), e);
+        }
+    }
+
+    /**
+     * Same as findElementsPresentAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static List<WebElement> findElementsPresentAfter(SearchContext parent, By by, int waitInSeconds) {
+        return findElementsPresentAfter(parent, by, waitInSeconds, PollingStrategy.DEFAULT);
     }
 
     /**
@@ -225,16 +275,25 @@ public class WebDriverUtil {
      * @param parent The context where the elements are going to be looked.
      * @param by The identifier of the elements.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the elements that are present.
      */
-    public static List<WebElement> findElementsPresentAfter(SearchContext parent, By by, int waitInSeconds) {
+    public static List<WebElement> findElementsPresentAfter(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
-        findElementPresentAfter(parent, by, waitInSeconds);
+        findElementPresentAfter(parent, by, waitInSeconds, polling);
         return parent.findElements(by);
     }
 
+    /**
+     * Same as findElementsClickableAfter with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static List<WebElement> findElementsClickableAfter(SearchContext parent, By by, int waitInSeconds) {
+        return findElementsClickableAfter(parent, by, waitInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Will return all the elements that are clickable identified by the by. It will wait until one is clickable and then
      * return all the clickable ones at that point.
@@ -242,17 +301,41 @@ public class WebDriverUtil {
      * @param parent The context where the elements are going to be looked.
      * @param by The identifier of the elements.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the elements that are clickable.
      */
-    public static List<WebElement> findElementsClickableAfter(SearchContext parent, By by, int waitInSeconds) {
+    public static List<WebElement> findElementsClickableAfter(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
-        findElementClickableAfter(parent, by, waitInSeconds);
-        return parent.findElements(by)
-                     .stream()
-                     .filter(child -> isElementClickable(child))
-                     .collect(Collectors.toList());
+        return clickableAfter(parent, by, waitInSeconds, polling, false);
+    }
+
+    private static List<WebElement> clickableAfter(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling, boolean first) {
+        try {
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, polling);
+            return wait.until((SearchContext element) -> {
+                List<WebElement> children = element.findElements(by);
+                if (children.isEmpty()) {
+                    throw new NotFoundException("No elements found");
+                }
+                List<WebElement> clickable = filter(children, true, first);
+                if (clickable.isEmpty()) {
+                    throw new NotFoundException(String.format("Element %s not displayed yet", by));
+                }
+                return clickable;
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Element %s is not clickable after %s seconds", by, waitInSeconds), e);
+        }
+    }
+
+    /**
+     * Same as waitElementToNotBePresent with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static void waitElementToNotBePresent(SearchContext parent, By by, int waitInSeconds) {
+        waitElementToNotBePresent(parent, by, waitInSeconds, PollingStrategy.DEFAULT);
     }
 
     /**
@@ -261,13 +344,15 @@ public class WebDriverUtil {
      * @param parent The context where the elements are going to be looked.
      * @param by The identifier of the element.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      */
-    public static void waitElementToNotBePresent(SearchContext parent, By by, int waitInSeconds) {
+    public static void waitElementToNotBePresent(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
         try {
-            WebElementWait wait = new WebElementWait(parent, waitInSeconds);
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, polling);
             wait.until((SearchContext element) -> {
                 List<WebElement> children = element.findElements(by);
                 if (children.isEmpty()) {
@@ -280,26 +365,31 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Same as waitElementToNotBeVisible with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static void waitElementToNotBeVisible(SearchContext parent, By by, int waitInSeconds) {
+        waitElementToNotBeVisible(parent, by, waitInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Will wait until no element identified by the by is visible.
      *
      * @param parent The context where the elements are going to be looked.
      * @param by The identifier of the element.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      */
-    public static void waitElementToNotBeVisible(SearchContext parent, By by, int waitInSeconds) {
+    public static void waitElementToNotBeVisible(SearchContext parent, By by, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(by);
+        Preconditions.checkNotNull(polling);
 
         try {
-            WebElementWait wait = new WebElementWait(parent, waitInSeconds);
+            WebElementWait wait = new WebElementWait(parent, waitInSeconds, polling);
             wait.until((SearchContext element) -> {
                 List<WebElement> children = element.findElements(by);
-                Optional<WebElement> isAny = children
-                        .stream()
-                        .filter(elementVisible -> isElementVisible(elementVisible))
-                        .findAny();
-                if (!isAny.isPresent()) {
+                if (filter(children, false, true).isEmpty()) {
                     return children;
                 }
                 throw new NotFoundException(String.format("Element %s still visbile yet", by));
@@ -309,6 +399,13 @@ public class WebDriverUtil {
         }
     }
 
+    /**
+     * Same as moveToAndClick with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static void moveToAndClick(RemoteWebDriver parent, By moveTo, By click, int waitInSeconds) {
+        moveToAndClick(parent, moveTo, click, waitInSeconds, PollingStrategy.DEFAULT);
+    }
+
     /**
      * Moves to an element and then clicks another.
      *
@@ -316,14 +413,23 @@ public class WebDriverUtil {
      * @param moveTo The element to move to.
      * @param click The element to click.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      */
-    public static void moveToAndClick(RemoteWebDriver parent, By moveTo, By click, int waitInSeconds) {
+    public static void moveToAndClick(RemoteWebDriver parent, By moveTo, By click, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(moveTo);
         Preconditions.checkNotNull(click);
+        Preconditions.checkNotNull(polling);
 
-        moveTo(parent, moveTo, waitInSeconds);
-        findElementClickableAfter(parent, click, waitInSeconds).click();
+        moveTo(parent, moveTo, waitInSeconds, polling);
+        findElementClickableAfter(parent, click, waitInSeconds, polling).click();
+    }
+
+    /**
+     * Same as moveTo with a PollingStrategy, polls with PollingStrategy.DEFAULT.
+     */
+    public static WebElement moveTo(RemoteWebDriver parent, By moveTo, int waitInSeconds) {
+        return moveTo(parent, moveTo, waitInSeconds, PollingStrategy.DEFAULT);
     }
 
     /**
@@ -332,19 +438,99 @@ public class WebDriverUtil {
      * @param parent The context where the elements are going to be looked.
      * @param moveTo The element to move to.
      * @param waitInSeconds How much time to wait.
+     * @param polling how long to sleep between polls.
      * @return the element that was moved to.
      */
-    public static WebElement moveTo(RemoteWebDriver parent, By moveTo, int waitInSeconds) {
+    public static WebElement moveTo(RemoteWebDriver parent, By moveTo, int waitInSeconds, PollingStrategy polling) {
         Preconditions.checkNotNull(parent);
         Preconditions.checkNotNull(moveTo);
+        Preconditions.checkNotNull(polling);
 
-        WebElement moveToElement = findElementVisibleAfter(parent, moveTo, waitInSeconds);
+        WebElement moveToElement = findElementVisibleAfter(parent, moveTo, waitInSeconds, polling);
         new Actions(parent)
                 .moveToElement(moveToElement)
                 .perform();
         return moveToElement;
     }
 
+    /**
+     * Keeps the elements that are visible, or clickable.
+     *
+     * <p>
+     *     For web sessions the state of all the elements is checked with one script, instead of one isDisplayed
+     *     (and isEnabled) command per element. Mobile sessions, or if the script fails, check them one by one, stopping
+     *     at the first match when only one is needed.
+     * </p>
+     *
+     * @param elements the elements to check.
+     * @param clickable whether the elements have to be clickable, or only visible.
+     * @param first whether only the first match is needed.
+     * @return the elements that are visible, or clickable.
+     */
+    private static List<WebElement> filter(List<WebElement> elements, boolean clickable, boolean first) {
+        Optional<JavascriptExecutor> executor = batchExecutor(elements);
+        if (executor.isPresent()) {
+            try {
+                List<?> states = (List<?>) executor.get().executeScript(BatchScript.SCRIPT, elements, clickable);
+                List<WebElement> result = Lists.newArrayList();
+                for (int index = 0; index < elements.size(); index++) {
+                    if (Boolean.TRUE.equals(states.get(index))) {
+                        result.add(elements.get(index));
+                        if (first) {
+                            break;
+                        }
+                    }
+                }
+                return result;
+            } catch (WebDriverException | ClassCastException | IndexOutOfBoundsException e) {
+                LOG.debug("Could not check the elements in one script, checking them one by one", e);
+            }
+        }
+        Stream<WebElement> matching = elements.stream()
+                .filter(child -> clickable ? isElementClickable(child) : isElementVisible(child));
+        return (first ? matching.limit(1) : matching).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the executor to check the elements in one script, only for web sessions and when it saves commands.
+     */
+    private static Optional<JavascriptExecutor> batchExecutor(List<WebElement> elements) {
+        if (BatchScript.SCRIPT == null || elements.size() < 2 || !(elements.get(0) instanceof WrapsDriver)) {
+            return Optional.empty();
+        }
+        WebDriver driver = ((WrapsDriver) elements.get(0)).getWrappedDriver();
+        if (driver instanceof AppiumDriver || !(driver instanceof JavascriptExecutor)) {
+            return Optional.empty();
+        }
+        return Optional.of((JavascriptExecutor) driver);
+    }
+
+    /**
+     * Script that checks the state of many elements, with the same isDisplayed atom Selenium uses.
+     *
+     * <p>
+     *     Loaded the first time it is needed, null if the atom is not in the classpath.
+     * </p>
+     */
+    private static class BatchScript {
+        private static final String SCRIPT = load();
+
+        private static String load() {
+            try {
+                String isDisplayed = Resources.toString(Resources.getResource(RemoteWebDriver.class, "isDisplayed.js"), StandardCharsets.UTF_8);
+                return "var isDisplayed = (" + isDisplayed + ");\n" +
+                        "var elements = arguments[0], clickable = arguments[1], states = [];\n" +
+                        "for (var i = 0; i < elements.length; i++) {\n" +
+                        "  states.push(isDisplayed(elements[i]) && (!clickable || !elements[i].matches(':disabled')));\n" +
+                        "}\n" +
+                        "return states;";
+            } catch (IOException | IllegalArgumentException e) {
+                LOG.warn("Could not load the isDisplayed atom, elements will be checked one by one", e);
+                return null;
+            }
+        }
+    }
+
     /**
      * Checks if an element is visible.
      *
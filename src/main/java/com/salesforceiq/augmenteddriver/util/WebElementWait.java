@@ -1,22 +1,68 @@
 package com.salesforceiq.augmenteddriver.util;
 
+import com.google.common.base.Preconditions;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.support.ui.FluentWait;
-import org.openqa.selenium.support.ui.Sleeper;
-import org.openqa.selenium.support.ui.SystemClock;
+import org.openqa.selenium.support.ui.Wait;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
- * Simple WebElementWait that polls every timeoutInSeconds.
+ * Simple WebElementWait that polls, ignoring WebDriverExceptions, until timeoutInSeconds.
+ *
+ * <p>
+ *     The time between polls comes from the PollingStrategy, and the polls each wait took are recorded in
+ *     WaitStatistics.
+ * </p>
  */
-class WebElementWait extends FluentWait<SearchContext> {
+class WebElementWait implements Wait<SearchContext> {
+
+    private final SearchContext element;
+    private final long timeoutInSeconds;
+    private final PollingStrategy polling;
 
     public WebElementWait(SearchContext element, long timeoutInSeconds) {
-        super(element, new SystemClock(), Sleeper.SYSTEM_SLEEPER);
-        withTimeout(timeoutInSeconds, TimeUnit.SECONDS);
-        pollingEvery(500, TimeUnit.MILLISECONDS);
-        ignoring(WebDriverException.class);
+        this(element, timeoutInSeconds, PollingStrategy.DEFAULT);
+    }
+
+    public WebElementWait(SearchContext element, long timeoutInSeconds, PollingStrategy polling) {
+        this.element = Preconditions.checkNotNull(element);
+        this.timeoutInSeconds = timeoutInSeconds;
+        this.polling = Preconditions.checkNotNull(polling);
+    }
+
+    @Override
+    public <T> T until(Function<? super SearchContext, T> isTrue) {
+        Preconditions.checkNotNull(isTrue);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(timeoutInSeconds);
+        int polls = 0;
+        RuntimeException lastException = null;
+        try {
+            while (true) {
+                polls++;
+                try {
+                    T value = isTrue.apply(element);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        return value;
+                    }
+                } catch (WebDriverException e) {
+                    lastException = e;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException(String.format("Condition not met after %s seconds and %s polls", timeoutInSeconds, polls), lastException);
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(polling.delayInMilliseconds(polls))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting", e);
+        } finally {
+            WaitStatistics.record(polls, System.nanoTime() - start);
+        }
     }
 }
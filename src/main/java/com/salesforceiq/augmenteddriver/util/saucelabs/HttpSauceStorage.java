@@ -0,0 +1,133 @@
+package com.salesforceiq.augmenteddriver.util.saucelabs;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * SauceStorage over the SauceLabs REST API.
+ *
+ * <p>
+ *     The file is streamed from disk with a fixed length, so big apps are never loaded in memory. The base URL can
+ *     point to any server that implements the storage API, for example a local one in the tests.
+ * </p>
+ */
+public class HttpSauceStorage implements SauceStorage {
+
+    public static final String SAUCELABS_URL = "https://saucelabs.com/rest/v1/storage/";
+
+    private static final int TIMEOUT_IN_MILLISECONDS = 60000;
+
+    private final String baseUrl;
+    private final String user;
+    private final String authorization;
+
+    public HttpSauceStorage(String user, String key) {
+        this(SAUCELABS_URL, user, key);
+    }
+
+    /**
+     * @param baseUrl the storage API, the user is appended to it.
+     * @param user the SauceLabs user.
+     * @param key the SauceLabs access key.
+     */
+    public HttpSauceStorage(String baseUrl, String user, String key) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(baseUrl));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(user));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.user = user;
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                String.format("%s:%s", user, key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Map<String, String> md5ByName() throws IOException {
+        HttpURLConnection connection = open(new URL(baseUrl + encode(user)));
+        connection.setRequestMethod("GET");
+        String response = read(connection);
+        try {
+            ImmutableMap.Builder<String, String> result = ImmutableMap.builder();
+            JsonObject listing = new JsonParser().parse(response).getAsJsonObject();
+            if (listing.has("files")) {
+                for (JsonElement file : listing.getAsJsonArray("files")) {
+                    JsonObject stored = file.getAsJsonObject();
+                    if (stored.has("name") && stored.has("md5")) {
+                        result.put(stored.get("name").getAsString(), stored.get("md5").getAsString());
+                    }
+                }
+            }
+            return result.build();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException(String.format("Unexpected listing of the storage: %s", response), e);
+        }
+    }
+
+    @Override
+    public void upload(Path file, String name, boolean overwrite) throws IOException {
+        Preconditions.checkNotNull(file);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+
+        HttpURLConnection connection = open(new URL(String.format("%s%s/%s?overwrite=%s",
+                baseUrl, encode(user), encode(name), overwrite)));
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/octet-stream");
+        connection.setFixedLengthStreamingMode(Files.size(file));
+        try (OutputStream out = connection.getOutputStream()) {
+            Files.copy(file, out);
+        }
+        read(connection);
+    }
+
+    private HttpURLConnection open(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty("Authorization", authorization);
+        connection.setConnectTimeout(TIMEOUT_IN_MILLISECONDS);
+        connection.setReadTimeout(TIMEOUT_IN_MILLISECONDS);
+        return connection;
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        try {
+            int status = connection.getResponseCode();
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String response = "";
+            if (body != null) {
+                try (InputStreamReader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+                    response = CharStreams.toString(reader);
+                }
+            }
+            if (status < 200 || status >= 300) {
+                throw new IOException(String.format("%s %s answered %s: %s",
+                        connection.getRequestMethod(), connection.getURL(), status, response));
+            }
+            return response;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String encode(String value) throws IOException {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8.name()).replace("+", "%20");
+    }
+}
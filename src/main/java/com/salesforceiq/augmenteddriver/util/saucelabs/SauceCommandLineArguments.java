@@ -4,8 +4,13 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.converters.PathConverter;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Command line arguments for uploading files to SauceLabs.
@@ -38,6 +43,30 @@ public class SauceCommandLineArguments {
         return ARGUMENTS.fileToUpload;
     }
 
+    /**
+     * @return all the files to upload, the one in -file and the ones in -files.
+     */
+    public List<Path> files() {
+        Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#initialize first");
+        List<Path> result = Lists.newArrayList();
+        if (ARGUMENTS.fileToUpload != null) {
+            result.add(ARGUMENTS.fileToUpload);
+        }
+        if (!Strings.isNullOrEmpty(ARGUMENTS.filesToUpload)) {
+            Splitter.on(',').trimResults().omitEmptyStrings().split(ARGUMENTS.filesToUpload)
+                    .forEach(file -> result.add(Paths.get(file)));
+        }
+        return result;
+    }
+
+    /**
+     * @return how many files to upload at the same time.
+     */
+    public int parallel() {
+        Preconditions.checkNotNull(ARGUMENTS, "Call TestRunnerConfig#initialize first");
+        return ARGUMENTS.parallel;
+    }
+
     /**
      * @return whether to overwrite or not a file if it exists already.
      */
@@ -57,6 +86,12 @@ public class SauceCommandLineArguments {
     @Parameter(names = "-file", description = "Path to file to upload", converter = PathConverter.class)
     private Path fileToUpload;
 
+    @Parameter(names = "-files", description = "Comma delimited paths to files to upload")
+    private String filesToUpload;
+
+    @Parameter(names = "-parallel", description = "How many files to upload at the same time, 4 by default")
+    private int parallel = 4;
+
     @Parameter(names = "-overwrite", description = "Whether to overwrite or not the file in case it exists in SauceLabs")
     private boolean overwrite = true;
 
@@ -2,32 +2,187 @@ package com.salesforceiq.augmenteddriver.util.saucelabs;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Guice;
+import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Module;
-import com.saucelabs.saucerest.SauceREST;
 import com.salesforceiq.augmenteddriver.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Utility class to upload files to SauceLabs.
  *
- * It reuses the Guice injection for getting the credentials
+ * <p>
+ *     It reuses the Guice injection for getting the credentials. Files whose MD5 matches the one already in
+ *     sauce-storage are skipped, so running it again after a failure only uploads what is missing, and the rest are
+ *     uploaded in parallel.
+ * </p>
  */
 public class SauceLabsUploader {
     private static final Logger LOG = LoggerFactory.getLogger(SauceLabsUploader.class);
 
+    // How much of the file is mapped at a time, a mapping cannot be bigger than 2GB.
+    private static final long MAPPING_SIZE = 64L * 1024 * 1024;
+
+    private final SauceStorage storage;
+
+    @Inject
+    public SauceLabsUploader(SauceStorage storage) {
+        this.storage = Preconditions.checkNotNull(storage);
+    }
+
+    /**
+     * Uploads the files that changed, parallel at a time.
+     *
+     * @param files the files to upload, stored with their file name.
+     * @param overwrite whether to overwrite the files that exist with a different content.
+     * @param parallel how many files to upload at the same time.
+     * @return what happened with each file, in the same order.
+     * @throws IOException if the storage could not be listed or a file could not be uploaded.
+     * @throws InterruptedException if interrupted while uploading.
+     */
+    public List<Upload> upload(List<Path> files, boolean overwrite, int parallel) throws IOException, InterruptedException {
+        Preconditions.checkNotNull(files);
+        Preconditions.checkArgument(parallel > 0, "parallel should be greater than 0, got %s", parallel);
+
+        Map<String, String> stored = storage.md5ByName();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallel, files.size())),
+                new ThreadFactoryBuilder().setNameFormat("sauce-upload-%d").setDaemon(true).build());
+        try {
+            List<Future<Upload>> futures = Lists.newArrayList();
+            for (Path file : files) {
+                futures.add(executor.submit(() -> upload(file, stored.get(file.getFileName().toString()), overwrite)));
+            }
+            List<Upload> result = Lists.newArrayList();
+            for (Future<Upload> future : futures) {
+                try {
+                    result.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Upload upload(Path file, String storedMd5, boolean overwrite) throws IOException {
+        String name = file.getFileName().toString();
+        long size = Files.size(file);
+        long start = System.currentTimeMillis();
+        String md5 = md5(file);
+        if (md5.equalsIgnoreCase(storedMd5)) {
+            LOG.info(String.format("Skipping %s, sauce-storage already has it (MD5 %s)", name, md5));
+            return new Upload(name, size, System.currentTimeMillis() - start, true);
+        }
+        LOG.info(String.format("Uploading file %s (%s bytes) to SauceLabs, overwriting %s", name, size, overwrite));
+        storage.upload(file, name, overwrite);
+        Upload upload = new Upload(name, size, System.currentTimeMillis() - start, false);
+        LOG.info(String.format("Finishing uploading file %s in %s", name, upload));
+        return upload;
+    }
+
+    /**
+     * @param file the file.
+     * @return the MD5 of the file in hexadecimal, read memory mapped.
+     * @throws IOException if the file could not be read.
+     */
+    public static String md5(Path file) throws IOException {
+        Preconditions.checkNotNull(file);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAPPING_SIZE) {
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_SIZE, size - position));
+                digest.update(mapping);
+            }
+        }
+        return BaseEncoding.base16().lowerCase().encode(digest.digest());
+    }
+
+    /**
+     * What happened with one file.
+     */
+    public static class Upload {
+        private final String name;
+        private final long bytes;
+        private final long millis;
+        private final boolean skipped;
+
+        public Upload(String name, long bytes, long millis, boolean skipped) {
+            this.name = name;
+            this.bytes = bytes;
+            this.millis = millis;
+            this.skipped = skipped;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * @return whether it was not uploaded since sauce-storage already had it.
+         */
+        public boolean isSkipped() {
+            return skipped;
+        }
+
+        @Override
+        public String toString() {
+            return skipped
+                    ? String.format("%s skipped", name)
+                    : String.format("%s, %.2f MB/s", Util.TO_PRETTY_FORMAT.apply(millis), megabytesPerSecond(bytes, millis));
+        }
+    }
+
+    private static double megabytesPerSecond(long bytes, long millis) {
+        return bytes / (1024.0 * 1024.0) / Math.max(millis, 1) * 1000;
+    }
+
     private static void checkArguments(SauceCommandLineArguments arguments) {
-        Preconditions.checkNotNull(arguments.file(), "You should specify a file to upload");
-        Preconditions.checkArgument(Files.exists(arguments.file()), "The file should exist " + arguments.file().getFileName());
+        Preconditions.checkArgument(!arguments.files().isEmpty(), "You should specify a file to upload with -file or -files");
+        arguments.files().forEach(file ->
+                Preconditions.checkArgument(Files.exists(file), "The file should exist " + file.getFileName()));
     }
 
     /**
-     * Should receive the path of the file to upload and the conf with the properties file with the credentials.
+     * Should receive the paths of the files to upload and the conf with the properties file with the credentials.
      *
      * @param args the command line arguments.
      * @throws Exception if there was an error.
@@ -38,12 +193,16 @@ public class SauceLabsUploader {
 
         List<Module> modules = Lists.newArrayList(new SauceLabsModule());
         Injector injector = Guice.createInjector(modules);
-        SauceREST sauceREST = injector.getInstance(SauceREST.class);
+        SauceLabsUploader uploader = injector.getInstance(SauceLabsUploader.class);
         long start = System.currentTimeMillis();
-        LOG.info(String.format("Uploading file %s to SauceLabs, overwriting %s",
-                arguments.file().getFileName().toString(), arguments.overwrite()));
-        sauceREST.uploadFile(arguments.file().toFile(), arguments.file().getFileName().toString(), arguments.overwrite());
-        LOG.info(String.format("Finishing uploading file %s in %s", arguments.file().getFileName().toString(),
-                Util.TO_PRETTY_FORMAT.apply(System.currentTimeMillis() - start)));
+        List<Upload> uploads = uploader.upload(arguments.files(), arguments.overwrite(), arguments.parallel());
+        long millis = System.currentTimeMillis() - start;
+        long bytes = uploads.stream().filter(upload -> !upload.isSkipped()).mapToLong(Upload::getBytes).sum();
+        LOG.info(String.format("Uploaded %s files (%s skipped, %s bytes) in %s, %.2f MB/s",
+                uploads.size(),
+                uploads.stream().filter(Upload::isSkipped).count(),
+                bytes,
+                Util.TO_PRETTY_FORMAT.apply(millis),
+                megabytesPerSecond(bytes, millis)));
     }
 }
@@ -0,0 +1,27 @@
+package com.salesforceiq.augmenteddriver.util.saucelabs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * The sauce-storage of a SauceLabs account, where the apps (APK/IPA) are uploaded before running the tests.
+ */
+public interface SauceStorage {
+
+    /**
+     * @return the MD5 in hexadecimal of each file stored, by name.
+     * @throws IOException if the files could not be listed.
+     */
+    Map<String, String> md5ByName() throws IOException;
+
+    /**
+     * Uploads a file.
+     *
+     * @param file the file to upload.
+     * @param name the name of the file in the storage.
+     * @param overwrite whether to overwrite the file if it exists.
+     * @throws IOException if the file could not be uploaded.
+     */
+    void upload(Path file, String name, boolean overwrite) throws IOException;
+}
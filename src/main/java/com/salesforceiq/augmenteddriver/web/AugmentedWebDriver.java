@@ -1,10 +1,14 @@
 package com.salesforceiq.augmenteddriver.web;
 
+import com.salesforceiq.augmenteddriver.util.CommandMetrics;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 
 /**
  * Driver used for automation against web.
@@ -19,6 +23,8 @@ import java.net.URL;
 public class AugmentedWebDriver extends RemoteWebDriver {
 
     private AugmentedWebFunctions augmentedFunctions;
+    // Not initialized here, the session is created by the constructor of the superclass before the initializers run.
+    private String capabilitiesDescription;
 
     /**
      * Extensive Constructor.
@@ -52,4 +58,27 @@ public class AugmentedWebDriver extends RemoteWebDriver {
     public void setAugmentedFunctions(AugmentedWebFunctions augmentedFunctions) {
         this.augmentedFunctions = augmentedFunctions;
     }
+
+    /**
+     * Records the latency of every command in CommandMetrics.
+     */
+    @Override
+    protected Response execute(String driverCommand, Map<String, ?> parameters) {
+        return CommandMetrics.record(driverCommand, describeCapabilities(parameters),
+                () -> super.execute(driverCommand, parameters));
+    }
+
+    /**
+     * Described once the session is created, its capabilities do not change after that.
+     */
+    private String describeCapabilities(Map<String, ?> parameters) {
+        if (capabilitiesDescription == null) {
+            Capabilities capabilities = getCapabilities();
+            if (capabilities == null) {
+                return CommandMetrics.capabilitiesOf(null, parameters);
+            }
+            capabilitiesDescription = CommandMetrics.capabilitiesOf(capabilities, parameters);
+        }
+        return capabilitiesDescription;
+    }
 }
@@ -0,0 +1,46 @@
+package com.salesforceiq.augmenteddriver.web;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
+import com.salesforceiq.augmenteddriver.util.AugmentedDriverPool;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.net.MalformedURLException;
+
+/**
+ * Pool of AugmentedWebDrivers, enabled with DRIVER_POOL.
+ */
+@Singleton
+public class AugmentedWebDriverPool extends AugmentedDriverPool<AugmentedWebDriver> {
+
+    private static final Store<AugmentedWebDriver> STORE = new Store<>();
+
+    @Inject
+    public AugmentedWebDriverPool(AugmentedConfig config) {
+        super(STORE, config.getBoolean(PropertiesModule.DRIVER_POOL), config.getInt(PropertiesModule.DRIVER_POOL_MAX_USES));
+    }
+
+    @Override
+    protected AugmentedWebDriver create(String remoteAddress, DesiredCapabilities capabilities) throws MalformedURLException {
+        return new AugmentedWebDriver(remoteAddress, capabilities);
+    }
+
+    /**
+     * Clears the storage and cookies of the current page and leaves the browser on about:blank.
+     *
+     * <p>
+     *     Selenium can only delete the cookies of the current domain, tests that jump between domains should not
+     *     rely on the pool to log them out.
+     * </p>
+     *
+     * @param driver the driver to reset.
+     */
+    @Override
+    protected void reset(AugmentedWebDriver driver) {
+        driver.executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        driver.manage().deleteAllCookies();
+        driver.get("about:blank");
+    }
+}
@@ -1,7 +1,7 @@
 package com.salesforceiq.augmenteddriver.web;
 
 import com.google.common.base.Preconditions;
-import com.google.inject.Provider;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.salesforceiq.augmenteddriver.util.AugmentedProvider;
 
@@ -22,8 +22,14 @@ import com.salesforceiq.augmenteddriver.util.AugmentedProvider;
 @Singleton
 public class AugmentedWebDriverProvider implements AugmentedProvider<AugmentedWebDriver> {
 
+    private final AugmentedWebDriverPool pool;
     private AugmentedWebDriver driver;
 
+    @Inject
+    public AugmentedWebDriverProvider(AugmentedWebDriverPool pool) {
+        this.pool = Preconditions.checkNotNull(pool);
+    }
+
     @Override
     public AugmentedWebDriver get() {
         return Preconditions.checkNotNull(driver, "AugmentedWebDriver not initialized, call initialize first");
@@ -38,4 +44,14 @@ public class AugmentedWebDriverProvider implements AugmentedProvider<AugmentedWe
     public boolean isInitialized() {
         return driver != null;
     }
+
+    /**
+     * Gives the driver back to the pool, which quits it if the pool is disabled.
+     *
+     * @param reusable whether the session could be used by another test, false if the test failed.
+     */
+    @Override
+    public void release(boolean reusable) {
+        pool.release(get(), reusable);
+    }
 }
@@ -4,15 +4,19 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
-import com.google.inject.name.Named;
 import com.salesforceiq.augmenteddriver.integrations.IntegrationFactory;
 import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import com.salesforceiq.augmenteddriver.util.AugmentedConfig;
 import com.salesforceiq.augmenteddriver.util.AugmentedFunctions;
+import com.salesforceiq.augmenteddriver.util.ElementObserver;
+import com.salesforceiq.augmenteddriver.util.PollingStrategy;
+import com.salesforceiq.augmenteddriver.util.WaitProfiler;
 import com.salesforceiq.augmenteddriver.util.WebDriverUtil;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,18 +30,25 @@ public class AugmentedWebFunctions implements
 
     private final SearchContext searchContext;
     private final int waitTimeInSeconds;
+    private final PollingStrategy polling;
+    private final WaitProfiler waitProfiler;
+    private final boolean eventDrivenWaits;
     private final AugmentedWebElementFactory augmentedWebElementFactory;
     private final AugmentedWebDriverProvider augmentedWebDriverProvider;
     private final IntegrationFactory integrationFactory;
 
     @Inject
     public AugmentedWebFunctions(@Assisted SearchContext searchContext,
-                                 @Named(PropertiesModule.WAIT_IN_SECONDS) String waitTimeInSeconds,
+                                 AugmentedConfig config,
+                                 WaitProfiler waitProfiler,
                                  AugmentedWebDriverProvider augmentedWebDriverProvider,
                                  AugmentedWebElementFactory augmentedWebElementFactory,
                                  IntegrationFactory integrationFactory) {
         this.searchContext = Preconditions.checkNotNull(searchContext);
-        this.waitTimeInSeconds= Integer.valueOf(Preconditions.checkNotNull(waitTimeInSeconds));
+        this.waitTimeInSeconds = config.getInt(PropertiesModule.WAIT_IN_SECONDS);
+        this.polling = config.getPollingStrategy(PollingStrategy.DEFAULT);
+        this.waitProfiler = Preconditions.checkNotNull(waitProfiler);
+        this.eventDrivenWaits = config.getBoolean(PropertiesModule.EVENT_DRIVEN_WAITS);
         this.augmentedWebElementFactory = Preconditions.checkNotNull(augmentedWebElementFactory);
         this.augmentedWebDriverProvider = Preconditions.checkNotNull(augmentedWebDriverProvider);
         this.integrationFactory = Preconditions.checkNotNull(integrationFactory);
@@ -121,7 +132,8 @@ public class AugmentedWebFunctions implements
     @Override
     public AugmentedWebElement findElementPresentAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementPresentAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitProfiler.profile("findElementPresentAfter", by,
+                () -> findElementAfter(by, ElementObserver.Condition.PRESENT, null, waitSeconds)));
     }
 
     @Override
@@ -133,7 +145,8 @@ public class AugmentedWebFunctions implements
     @Override
     public AugmentedWebElement findElementVisibleAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementVisibleAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitProfiler.profile("findElementVisibleAfter", by,
+                () -> findElementAfter(by, ElementObserver.Condition.VISIBLE, null, waitSeconds)));
     }
 
     @Override
@@ -145,7 +158,8 @@ public class AugmentedWebFunctions implements
     @Override
     public AugmentedWebElement findElementClickableAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementClickableAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitProfiler.profile("findElementClickableAfter", by,
+                () -> findElementAfter(by, ElementObserver.Condition.CLICKABLE, null, waitSeconds)));
     }
 
     @Override
@@ -157,7 +171,8 @@ public class AugmentedWebFunctions implements
     @Override
     public AugmentedWebElement findElementNotMovingAfter(By by, int waitSeconds) {
         Preconditions.checkNotNull(by);
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementNotMovingAfter(searchContext, by, waitSeconds));
+        return augmentedWebElementFactory.create(waitProfiler.profile("findElementNotMovingAfter", by,
+                () -> WebDriverUtil.findElementNotMovingAfter(searchContext, by, waitSeconds, polling)));
     }
 
     @Override
@@ -169,7 +184,8 @@ public class AugmentedWebFunctions implements
     public AugmentedWebElement findElementContainAfter(By by, String text, int waitInSeconds) {
         Preconditions.checkNotNull(by);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(text));
-        return augmentedWebElementFactory.create(WebDriverUtil.findElementContainAfter(searchContext, by, text, waitInSeconds));
+        return augmentedWebElementFactory.create(waitProfiler.profile("findElementContainAfter", by,
+                () -> findElementAfter(by, ElementObserver.Condition.CONTAINS, text, waitInSeconds)));
     }
 
     @Override
@@ -181,7 +197,8 @@ public class AugmentedWebFunctions implements
     @Override
     public List<AugmentedWebElement> findElementsVisibleAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
-        return WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsVisibleAfter", by,
+                () -> WebDriverUtil.findElementsVisibleAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(webElement -> augmentedWebElementFactory.create(webElement))
                 .collect(Collectors.toList());
@@ -196,7 +213,8 @@ public class AugmentedWebFunctions implements
     @Override
     public List<AugmentedWebElement> findElementsPresentAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
-        return WebDriverUtil.findElementsPresentAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsPresentAfter", by,
+                () -> WebDriverUtil.findElementsPresentAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(webElement -> augmentedWebElementFactory.create(webElement))
                 .collect(Collectors.toList());
@@ -211,7 +229,8 @@ public class AugmentedWebFunctions implements
     @Override
     public List<AugmentedWebElement> findElementsClickableAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
-        return WebDriverUtil.findElementsClickableAfter(searchContext, by, waitInSeconds)
+        return waitProfiler.profile("findElementsClickableAfter", by,
+                () -> WebDriverUtil.findElementsClickableAfter(searchContext, by, waitInSeconds, polling))
                 .stream()
                 .map(webElement -> augmentedWebElementFactory.create(webElement))
                 .collect(Collectors.toList());
@@ -225,7 +244,8 @@ public class AugmentedWebFunctions implements
     @Override
     public void waitElementToNotBePresentAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
-        WebDriverUtil.waitElementToNotBePresent(searchContext, by, waitInSeconds);
+        waitProfiler.profile("waitElementToNotBePresentAfter", by,
+                () -> WebDriverUtil.waitElementToNotBePresent(searchContext, by, waitInSeconds, polling));
     }
 
     @Override
@@ -236,7 +256,8 @@ public class AugmentedWebFunctions implements
     @Override
     public void waitElementToNotBeVisibleAfter(By by, int waitInSeconds) {
         Preconditions.checkNotNull(by);
-        WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds);
+        waitProfiler.profile("waitElementToNotBeVisibleAfter", by,
+                () -> WebDriverUtil.waitElementToNotBeVisible(searchContext, by, waitInSeconds, polling));
     }
 
     @Override
@@ -254,22 +275,22 @@ public class AugmentedWebFunctions implements
 
     @Override
     public void moveToAndClick(By moveTo, By click) {
-        WebDriverUtil.moveToAndClick(augmentedWebDriverProvider.get(), moveTo, click, waitTimeInSeconds);
+        WebDriverUtil.moveToAndClick(augmentedWebDriverProvider.get(), moveTo, click, waitTimeInSeconds, polling);
     }
 
     @Override
     public void moveToAndClickAfter(By moveTo, By click, int waitInSeconds) {
-        WebDriverUtil.moveToAndClick(augmentedWebDriverProvider.get(), moveTo, click, waitInSeconds);
+        WebDriverUtil.moveToAndClick(augmentedWebDriverProvider.get(), moveTo, click, waitInSeconds, polling);
     }
 
     @Override
     public AugmentedWebElement moveTo(By moveTo) {
-        return augmentedWebElementFactory.create(WebDriverUtil.moveTo(augmentedWebDriverProvider.get(), moveTo, waitTimeInSeconds));
+        return augmentedWebElementFactory.create(WebDriverUtil.moveTo(augmentedWebDriverProvider.get(), moveTo, waitTimeInSeconds, polling));
     }
 
     @Override
     public AugmentedWebElement moveToAfter(By moveTo, int waitInSeconds) {
-        return augmentedWebElementFactory.create(WebDriverUtil.moveTo(augmentedWebDriverProvider.get(), moveTo, waitInSeconds));
+        return augmentedWebElementFactory.create(WebDriverUtil.moveTo(augmentedWebDriverProvider.get(), moveTo, waitInSeconds, polling));
     }
 
     @Override
@@ -299,4 +320,14 @@ public class AugmentedWebFunctions implements
         AugmentedWebElement elementPresent = findElementPresent(by);
         javascriptExecutor.executeScript("arguments[0].scrollIntoView(true);", elementPresent.webElement());
     }
+
+    /**
+     * Waits with a MutationObserver if EVENT_DRIVEN_WAITS is enabled, polls otherwise.
+     */
+    private WebElement findElementAfter(By by, ElementObserver.Condition condition, String text, int waitInSeconds) {
+        if (eventDrivenWaits) {
+            return ElementObserver.findElementAfter(augmentedWebDriverProvider.get(), searchContext, by, condition, text, waitInSeconds, polling);
+        }
+        return ElementObserver.pollElementAfter(searchContext, by, condition, text, waitInSeconds, polling);
+    }
 }
@@ -0,0 +1,84 @@
+package com.salesforceiq.augmenteddriver.guice;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GuiceTestRunnerTest {
+
+    @Test
+    public void testSharesOnlyTheSharedModulesBetweenTests() throws Exception {
+        Example first = (Example) new GuiceTestRunner(Example.class).createTest();
+        Example second = (Example) new GuiceTestRunner(Example.class).createTest();
+
+        Assert.assertSame(first.shared, second.shared);
+        Assert.assertNotSame(first.perTest, second.perTest);
+        Assert.assertSame(first.perTest, first.sameTest);
+    }
+
+    @Test
+    public void testCreatesTheSingletonsOfTheSharedBindingsForEachTest() throws Exception {
+        Example first = (Example) new GuiceTestRunner(Example.class).createTest();
+        Example second = (Example) new GuiceTestRunner(Example.class).createTest();
+
+        Assert.assertSame(first.shared, first.justInTime.shared);
+        Assert.assertSame(first.shared, second.justInTime.shared);
+        Assert.assertNotSame(first.justInTime, second.justInTime);
+    }
+
+    @SharedModule
+    public static class Shared extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(SharedState.class).toInstance(new SharedState());
+        }
+    }
+
+    public static class PerTest extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(PerTestState.class);
+        }
+    }
+
+    public static class SharedState {
+    }
+
+    @Singleton
+    public static class PerTestState {
+    }
+
+    /**
+     * Not bound by any module, and only depends on the shared bindings.
+     */
+    @Singleton
+    public static class JustInTimeState {
+        private final SharedState shared;
+
+        @Inject
+        public JustInTimeState(SharedState shared) {
+            this.shared = shared;
+        }
+    }
+
+    @GuiceModules({Shared.class, PerTest.class})
+    public static class Example {
+        @Inject
+        private SharedState shared;
+
+        @Inject
+        private PerTestState perTest;
+
+        @Inject
+        private PerTestState sameTest;
+
+        @Inject
+        private JustInTimeState justInTime;
+
+        @Test
+        public void test() {
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.salesforceiq.augmenteddriver.integrations;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SauceJobUpdaterTest {
+
+    @Test
+    public void testMergesTheUpdatesOfASession() throws Exception {
+        List<Map<String, Object>> calls = Collections.synchronizedList(Lists.newArrayList());
+        SauceJobUpdater updater = new SauceJobUpdater((sessionId, updates) ->
+                calls.add(ImmutableMap.of("session", sessionId, "updates", updates)), 0);
+
+        updater.update("first", "name", "test");
+        updater.update("first", "build", "build");
+        updater.update("second", "name", "other");
+        updater.update("first", "passed", true);
+        updater.send("first");
+
+        Assert.assertTrue(updater.flush(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, calls.size());
+        Assert.assertEquals(ImmutableMap.of("session", "first",
+                "updates", ImmutableMap.of("name", "test", "build", "build", "passed", true)), calls.get(0));
+        Assert.assertEquals(ImmutableMap.of("session", "second", "updates", ImmutableMap.of("name", "other")), calls.get(1));
+    }
+
+    @Test
+    public void testRetriesFailedUpdates() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        SauceJobUpdater updater = new SauceJobUpdater((sessionId, updates) -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("SauceLabs is down");
+            }
+        }, 1);
+
+        updater.update("session", "passed", false);
+        updater.send("session");
+
+        Assert.assertTrue(updater.flush(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, attempts.get());
+    }
+}
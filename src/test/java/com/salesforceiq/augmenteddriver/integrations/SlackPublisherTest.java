@@ -0,0 +1,111 @@
+package com.salesforceiq.augmenteddriver.integrations;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.ullink.slack.simpleslackapi.SlackAttachment;
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class SlackPublisherTest {
+
+    @Test
+    public void testCoalescesTheAttachmentsOfEachChannel() throws Exception {
+        SlackChannel verbose = channel();
+        SlackChannel digest = channel();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(Lists.newArrayList());
+        SlackPublisher publisher = new SlackPublisher((channel, message) -> {
+            blocked.countDown();
+            release.await();
+            sent.add(String.format("%s:%s", channel == verbose ? "verbose" : "digest", message.getAttachments().length));
+            return true;
+        }, 100, 1000, 0);
+
+        publisher.offer(verbose, new SlackAttachment("first", "", "", null));
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        publisher.offer(verbose, new SlackAttachment("second", "", "", null));
+        publisher.offer(digest, new SlackAttachment("digest", "", "", null));
+        publisher.offer(verbose, new SlackAttachment("third", "", "", null));
+        release.countDown();
+
+        Assert.assertTrue(publisher.close(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Lists.newArrayList("verbose:1", "verbose:2", "digest:1"), sent);
+        Assert.assertFalse(publisher.offer(verbose, new SlackAttachment("closed", "", "", null)));
+    }
+
+    @Test
+    public void testRetriesWhenRateLimited() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        SlackPublisher publisher = new SlackPublisher((channel, message) -> attempts.incrementAndGet() > 2, 100, 1000, 1);
+
+        publisher.offer(channel(), new SlackAttachment("title", "", "", null));
+
+        Assert.assertTrue(publisher.close(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(0, publisher.dropped());
+    }
+
+    @Test
+    public void testKeepsTheAttachmentsQueuedTogether() throws Exception {
+        SlackChannel verbose = channel();
+        List<List<String>> sent = Collections.synchronizedList(Lists.newArrayList());
+        SlackPublisher publisher = new SlackPublisher((channel, message) -> {
+            sent.add(Arrays.stream(message.getAttachments()).map(SlackAttachment::getTitle).collect(Collectors.toList()));
+            return true;
+        }, 1000, 1000, 0);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = Lists.newArrayList();
+        for (String test : ImmutableList.of("first", "second")) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int failure = 0; failure < 50; failure++) {
+                    publisher.offer(verbose, ImmutableList.of(
+                            new SlackAttachment(test + failure + "-header", "", "", null),
+                            new SlackAttachment(test + failure + "-reason", "", "", null),
+                            new SlackAttachment(test + failure + "-trace", "", "", null)));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(publisher.close(5, TimeUnit.SECONDS));
+
+        int failures = 0;
+        for (List<String> message : sent) {
+            Assert.assertTrue(message.size() <= 20);
+            Assert.assertEquals(0, message.size() % 3);
+            for (int index = 0; index < message.size(); index += 3) {
+                String failure = message.get(index).replace("-header", "");
+                Assert.assertEquals(ImmutableList.of(failure + "-header", failure + "-reason", failure + "-trace"),
+                        message.subList(index, index + 3));
+                failures++;
+            }
+        }
+        Assert.assertEquals(100, failures);
+    }
+
+    private static SlackChannel channel() {
+        return (SlackChannel) Proxy.newProxyInstance(SlackChannel.class.getClassLoader(), new Class<?>[] {SlackChannel.class},
+                (proxy, method, args) -> "equals".equals(method.getName()) ? proxy == args[0] : System.identityHashCode(proxy));
+    }
+}
@@ -0,0 +1,82 @@
+package com.salesforceiq.augmenteddriver.reporters;
+
+import com.google.common.collect.ImmutableList;
+import com.salesforceiq.augmenteddriver.runners.RetryBudget;
+import com.salesforceiq.augmenteddriver.runners.TestTrace;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.nio.file.Path;
+
+public class JUnitXmlReporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRetriesAreRerunAndFlakyFailures() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("TEST-suite.xml");
+        AssertionError first = new AssertionError("first \u001B[31mred\u001B[0m <attempt>");
+        IllegalStateException second = new IllegalStateException("second attempt");
+
+        try (JUnitXmlReporter reporter = new JUnitXmlReporter(file, "suite")) {
+            reporter.testcase("com.Test", "passed", 1500, null, ImmutableList.of(), null);
+            reporter.testcase("com.Test", "failed", 10, second, ImmutableList.of(first, second), null);
+            reporter.testcase("com.Test", "flaky", 10, null, ImmutableList.of(first), null);
+            reporter.testcase("com.Test", "skipped", 0, null, ImmutableList.of(), "Ignored");
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+        Assert.assertEquals("suite", document.getDocumentElement().getAttribute("name"));
+        NodeList testcases = document.getElementsByTagName("testcase");
+        Assert.assertEquals(4, testcases.getLength());
+        Assert.assertEquals("1.500", ((Element) testcases.item(0)).getAttribute("time"));
+        Assert.assertEquals(0, testcases.item(0).getChildNodes().getLength());
+
+        Element failed = (Element) testcases.item(1);
+        Assert.assertEquals("first [31mred[0m <attempt>",
+                ((Element) failed.getElementsByTagName("failure").item(0)).getAttribute("message"));
+        Assert.assertEquals(IllegalStateException.class.getName(),
+                ((Element) failed.getElementsByTagName("rerunError").item(0)).getAttribute("type"));
+
+        Assert.assertEquals(1, ((Element) testcases.item(2)).getElementsByTagName("flakyFailure").getLength());
+        Assert.assertEquals(1, ((Element) testcases.item(3)).getElementsByTagName("skipped").getLength());
+    }
+
+    @Test
+    public void testWritesTheTestsWhoseRetryIsRefused() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("TEST-budget.xml");
+        // One retry for the suite, so only the first test leaves its testcase to the retry.
+        RetryBudget budget = new RetryBudget(1, false);
+
+        try (JUnitXmlReporter reporter = new JUnitXmlReporter(file, "budget")) {
+            for (String method : ImmutableList.of("first", "second")) {
+                Description description = Description.createTestDescription("com.Test", method);
+                RunListener listener = reporter.listener("");
+                TestTrace.start("com.Test#" + method, null, failure -> budget.tryRetry(method, failure));
+                try {
+                    listener.testStarted(description);
+                    listener.testFailure(new Failure(description, new SessionNotCreatedException("grid is down")));
+                    listener.testFinished(description);
+                } finally {
+                    TestTrace.finish();
+                }
+            }
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+        NodeList testcases = document.getElementsByTagName("testcase");
+        Assert.assertEquals(1, testcases.getLength());
+        Assert.assertEquals("second", ((Element) testcases.item(0)).getAttribute("name"));
+        Assert.assertEquals(1, ((Element) testcases.item(0)).getElementsByTagName("error").getLength());
+    }
+}
@@ -0,0 +1,78 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.Result;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CompletionTrackerTest {
+
+    @Test
+    public void testCountsPassedFailedAndCancelled() throws Exception {
+        CompletionTracker tracker = new CompletionTracker();
+        AtomicInteger callbacks = new AtomicInteger();
+        SettableFuture<AugmentedResult> passed = track(tracker, callbacks);
+        SettableFuture<AugmentedResult> failed = track(tracker, callbacks);
+        SettableFuture<AugmentedResult> cancelled = track(tracker, callbacks);
+
+        passed.set(new AugmentedResult("passed", new Result(), null));
+        failed.setException(new IllegalStateException("failed"));
+        cancelled.cancel(false);
+
+        Assert.assertTrue(tracker.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(3, callbacks.get());
+        Assert.assertEquals(1, tracker.passed());
+        Assert.assertEquals(1, tracker.failed());
+        Assert.assertEquals(1, tracker.cancelled());
+    }
+
+    @Test
+    public void testWaitsForTestsTrackedFromCallbacks() throws Exception {
+        CompletionTracker tracker = new CompletionTracker();
+        SettableFuture<AugmentedResult> first = SettableFuture.create();
+        SettableFuture<AugmentedResult> retry = SettableFuture.create();
+        tracker.track(first, new FutureCallback<AugmentedResult>() {
+            @Override
+            public void onSuccess(AugmentedResult result) {
+                tracker.track(retry, new AtomicCallback(new AtomicInteger()));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+            }
+        });
+
+        first.set(new AugmentedResult("first", new Result(), null));
+        Assert.assertFalse(tracker.await(100, TimeUnit.MILLISECONDS));
+        retry.set(new AugmentedResult("retry", new Result(), null));
+        Assert.assertEquals(2, tracker.passed());
+    }
+
+    private static SettableFuture<AugmentedResult> track(CompletionTracker tracker, AtomicInteger callbacks) {
+        SettableFuture<AugmentedResult> future = SettableFuture.create();
+        tracker.track(future, new AtomicCallback(callbacks));
+        return future;
+    }
+
+    private static class AtomicCallback implements FutureCallback<AugmentedResult> {
+        private final AtomicInteger callbacks;
+
+        private AtomicCallback(AtomicInteger callbacks) {
+            this.callbacks = callbacks;
+        }
+
+        @Override
+        public void onSuccess(AugmentedResult result) {
+            callbacks.incrementAndGet();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            callbacks.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FlakinessHistoryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSuggestsFlakyAndStableTests() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("results").resolve("history.bin");
+        long firstRun = 0;
+        for (int run = 0; run < 10; run++) {
+            if (run == 1) {
+                firstRun = Files.size(path);
+            }
+            FlakinessHistory.append(path, run, ImmutableList.of(
+                    new FlakinessHistory.Outcome("Fixture#stable", true, 1),
+                    new FlakinessHistory.Outcome("Fixture#flaky", true, run % 2 == 0 ? 2 : 1),
+                    new FlakinessHistory.Outcome("Fixture#broken", false, 2),
+                    new FlakinessHistory.Outcome("Fixture#quarantined", true, 1)));
+        }
+        // Once the names are written, each run takes 10 bytes plus 3 per test.
+        Assert.assertEquals(9 * (10 + 4 * 3), Files.size(path) - firstRun);
+
+        FlakinessHistory history = FlakinessHistory.load(path, 5);
+        List<String> quarantine = history.quarantineCandidates(ImmutableSet.of("Fixture#quarantined"), 0.1, 5).stream()
+                .map(FlakinessHistory.Stats::getTestName)
+                .collect(Collectors.toList());
+        Assert.assertEquals(ImmutableList.of("Fixture#broken", "Fixture#flaky"), quarantine);
+        Assert.assertEquals(0.4, history.quarantineCandidates(ImmutableSet.of(), 0.1, 5).get(1).flakeRate(), 0.001);
+        Assert.assertEquals("Fixture#quarantined",
+                history.unquarantineCandidates(ImmutableSet.of("Fixture#quarantined"), 5).get(0).getTestName());
+    }
+
+    @Test
+    public void testDropsATornRun() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("history.bin");
+        FlakinessHistory.append(path, 1, ImmutableList.of(new FlakinessHistory.Outcome("Fixture#first", false, 1)));
+        long size = Files.size(path);
+        FlakinessHistory.append(path, 2, ImmutableList.of(
+                new FlakinessHistory.Outcome("Fixture#first", true, 1),
+                new FlakinessHistory.Outcome("Fixture#second", true, 1)));
+        // A crash in the middle of the second outcome, the first one is complete but the run is not.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 2);
+        }
+        List<FlakinessHistory.Stats> torn = FlakinessHistory.load(path, 10).stats();
+        Assert.assertEquals(1, torn.size());
+        Assert.assertEquals(1, torn.get(0).getRuns());
+
+        FlakinessHistory.append(path, 3, ImmutableList.of(new FlakinessHistory.Outcome("Fixture#first", true, 1)));
+        List<FlakinessHistory.Stats> stats = FlakinessHistory.load(path, 10).stats();
+        Assert.assertEquals(1, stats.size());
+        Assert.assertEquals(2, stats.get(0).getRuns());
+        Assert.assertEquals(1, stats.get(0).getFailed());
+        // The torn run was dropped, only the third one was appended.
+        Assert.assertEquals(size + 9 + 3 + 1, Files.size(path));
+    }
+}
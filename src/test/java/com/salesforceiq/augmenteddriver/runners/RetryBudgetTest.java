@@ -0,0 +1,55 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testClassifiesTheFailures() {
+        Assert.assertEquals(FailureClassifier.Kind.INFRASTRUCTURE,
+                FailureClassifier.classify(new SessionNotCreatedException("no capacity")));
+        Assert.assertEquals(FailureClassifier.Kind.INFRASTRUCTURE,
+                FailureClassifier.classify(new WebDriverException(new ConnectException("refused"))));
+        Assert.assertEquals(FailureClassifier.Kind.ASSERTION,
+                FailureClassifier.classify(new AssertionError("expected 1")));
+        Assert.assertEquals(FailureClassifier.Kind.ASSERTION,
+                FailureClassifier.classify(new WebDriverException("element not clickable")));
+    }
+
+    @Test
+    public void testClassifiesOnlyTheTransportTimeoutsAsInfrastructure() {
+        Assert.assertEquals(FailureClassifier.Kind.INFRASTRUCTURE,
+                FailureClassifier.classify(new UnreachableBrowserException("grid down")));
+        Assert.assertEquals(FailureClassifier.Kind.INFRASTRUCTURE,
+                FailureClassifier.classify(new WebDriverException(new SocketTimeoutException("read timed out"))));
+        Assert.assertEquals(FailureClassifier.Kind.ASSERTION,
+                FailureClassifier.classify(new TimeoutException("Element By.id: login is not visible after 30 seconds")));
+    }
+
+    @Test
+    public void testStopsRetryingOnceSpent() {
+        RetryBudget budget = RetryBudget.of(15, 10, true);
+
+        Assert.assertTrue(budget.tryRetry("test1", new AssertionError()));
+        Assert.assertTrue(budget.tryRetry("test2", new SessionNotCreatedException("no capacity")));
+        Assert.assertFalse(budget.tryRetry("test3", new AssertionError()));
+        Assert.assertEquals(0, budget.remaining());
+    }
+
+    @Test
+    public void testAssertionsDoNotSpendTheBudget() {
+        RetryBudget budget = RetryBudget.of(10, 10, false);
+
+        Assert.assertFalse(budget.tryRetry("test1", new AssertionError("regression")));
+        Assert.assertEquals(1, budget.remaining());
+        Assert.assertTrue(budget.tryRetry("test2", new SessionNotCreatedException("no capacity")));
+    }
+}
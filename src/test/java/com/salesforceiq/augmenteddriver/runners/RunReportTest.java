@@ -0,0 +1,62 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class RunReportTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Fixture {
+        public void test() {}
+    }
+
+    @Test
+    public void testOneRecordPerTest() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("results").resolve(RunReport.fileName(0, 1));
+        TestTrace.start("Fixture#passed");
+        TestTrace.attempt();
+        TestTrace.session("session-1");
+        TestTrace.phase("session", 300);
+        TestTrace trace = TestTrace.finish();
+
+        try (RunReport report = new RunReport(path)) {
+            report.append(new AugmentedResult("Fixture#passed", new Result(), new TestOutput(0), null, trace));
+            report.append(AugmentedResult.failed(Description.createTestDescription(Fixture.class, "test"),
+                    new IllegalStateException("cancelled")));
+        }
+
+        List<JsonObject> records = RunReport.read(path);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("PASSED", records.get(0).get("status").getAsString());
+        Assert.assertEquals(1, records.get(0).get("attempts").getAsInt());
+        Assert.assertEquals("session-1", records.get(0).get("sessionId").getAsString());
+        Assert.assertEquals(300, records.get(0).getAsJsonObject("phasesInMillis").get("session").getAsLong());
+        Assert.assertEquals("FAILED", records.get(1).get("status").getAsString());
+        Assert.assertEquals("cancelled", records.get(1).get("failure").getAsString());
+        Assert.assertEquals(0, records.get(1).get("attempts").getAsInt());
+    }
+
+    @Test
+    public void testReadSkipsTheLastLineOfAKilledRun() throws Exception {
+        Path path = folder.getRoot().toPath().resolve(RunReport.fileName(1, 3));
+        try (RunReport report = new RunReport(path)) {
+            report.append(new AugmentedResult("Fixture#passed", new Result(), new TestOutput(0)));
+        }
+        Files.write(path, "{\"test\":\"Fixture#cut".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        Assert.assertEquals("run-report-1-of-3.jsonl", path.getFileName().toString());
+        Assert.assertEquals(1, RunReport.read(path).size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+public class TestOutputTest {
+
+    @Test
+    public void testKeepsSmallOutputInMemory() throws Exception {
+        TestOutput output = new TestOutput(16);
+        output.write("small".getBytes(StandardCharsets.UTF_8));
+        output.close();
+
+        Assert.assertFalse(output.spilled());
+        Assert.assertEquals("small", print(output));
+    }
+
+    @Test
+    public void testSpillsLargeOutputToAFile() throws Exception {
+        TestOutput output = new TestOutput(16);
+        StringBuilder expected = new StringBuilder();
+        for (int index = 0; index < 100; index++) {
+            String line = String.format("line %s%n", index);
+            output.write(line.getBytes(StandardCharsets.UTF_8));
+            expected.append(line);
+        }
+        output.close();
+
+        Assert.assertTrue(output.spilled());
+        Assert.assertEquals(expected.length(), output.size());
+        Assert.assertEquals(expected.toString(), print(output));
+        output.release();
+    }
+
+    @Test
+    public void testDropsTheWritesAfterRelease() throws Exception {
+        TestOutput output = new TestOutput(4);
+        output.write("spilled".getBytes(StandardCharsets.UTF_8));
+        output.release();
+        output.write("late".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertFalse(output.spilled());
+        Assert.assertEquals("", print(output));
+    }
+
+    private static String print(TestOutput output) throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        output.transferTo(Channels.newChannel(target));
+        return new String(target.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.Result;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestSchedulerTest {
+
+    @Test
+    public void testRunsAllTheQueuedTests() throws Exception {
+        TestScheduler scheduler = new TestScheduler(3, 1000);
+        Set<String> workers = ConcurrentHashMap.newKeySet();
+        List<ListenableFuture<AugmentedResult>> futures = Lists.newArrayList();
+        for (int index = 0; index < 10; index++) {
+            String name = "test" + index;
+            futures.add(scheduler.submit(() -> {
+                workers.add(Thread.currentThread().getName());
+                Thread.sleep(20);
+                return new AugmentedResult(name, new Result(), null);
+            }));
+        }
+        scheduler.shutdown();
+
+        Assert.assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(10, Futures.allAsList(futures).get().size());
+        Assert.assertEquals(0, scheduler.queued());
+        Assert.assertTrue(workers.size() > 1);
+    }
+
+    @Test
+    public void testAdmitsTestsAtTheConfiguredRate() throws Exception {
+        TestScheduler scheduler = new TestScheduler(5, 10);
+        long start = System.nanoTime();
+        for (int index = 0; index < 5; index++) {
+            scheduler.submit(() -> new AugmentedResult("test", new Result(), null));
+        }
+        scheduler.shutdown();
+
+        Assert.assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 350);
+    }
+
+    @Test
+    public void testCancelsOnlyTheTestThatTimedOut() throws Exception {
+        TestScheduler scheduler = new TestScheduler(1, 1000, 1);
+        ListenableFuture<AugmentedResult> hung = scheduler.submit(() -> {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            return new AugmentedResult("hung", new Result(), null);
+        });
+        ListenableFuture<AugmentedResult> next = scheduler.submit(() -> new AugmentedResult("next", new Result(), null));
+        scheduler.shutdown();
+
+        Assert.assertEquals("next", next.get(10, TimeUnit.SECONDS).getTestName());
+        Assert.assertTrue(hung.isCancelled());
+        Assert.assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRunsRetriesAfterTheQueuedTests() throws Exception {
+        TestScheduler scheduler = new TestScheduler(1, 1000);
+        List<String> order = Lists.newCopyOnWriteArrayList();
+        CountDownLatch queued = new CountDownLatch(1);
+        ListenableFuture<AugmentedResult> failed = scheduler.submit(() -> {
+            queued.await();
+            order.add("failed");
+            return new AugmentedResult("failed", new Result(), null);
+        });
+        List<ListenableFuture<AugmentedResult>> retries = Lists.newArrayList();
+        failed.addListener(() -> retries.add(scheduler.submitRetry(() -> {
+            order.add("retry");
+            return new AugmentedResult("retry", new Result(), null);
+        })), Runnable::run);
+        scheduler.submit(() -> {
+            order.add("next");
+            return new AugmentedResult("next", new Result(), null);
+        });
+        queued.countDown();
+        scheduler.shutdown();
+
+        Assert.assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Lists.newArrayList("failed", "next", "retry"), order);
+        Assert.assertEquals("retry", retries.get(0).get().getTestName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsTestsAfterShutdown() {
+        TestScheduler scheduler = new TestScheduler(1, 1);
+        scheduler.shutdown();
+        scheduler.submit(() -> new AugmentedResult("test", new Result(), null));
+    }
+}
@@ -0,0 +1,60 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestShardTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Fixture {
+    }
+
+    private static Description test(String name) {
+        return Description.createTestDescription(Fixture.class, name);
+    }
+
+    private List<Description> tests() {
+        List<Description> tests = Lists.newArrayList();
+        for (String name : Arrays.asList("a", "b", "c", "d", "e")) {
+            tests.add(test(name));
+        }
+        return tests;
+    }
+
+    @Test
+    public void testShardsByCountCoverAllTheTests() throws Exception {
+        TestTimings timings = TestTimings.load(folder.getRoot().toPath().resolve("timings.properties"));
+        List<Description> first = TestShard.of(tests(), timings, 0, 2);
+        List<Description> second = TestShard.of(Lists.reverse(tests()), timings, 1, 2);
+
+        Assert.assertEquals(3, first.size());
+        Assert.assertEquals(2, second.size());
+        List<Description> all = Lists.newArrayList(first);
+        all.addAll(second);
+        Assert.assertTrue(all.containsAll(tests()));
+    }
+
+    @Test
+    public void testShardsByDurationAreBalanced() throws Exception {
+        TestTimings timings = TestTimings.load(folder.getRoot().toPath().resolve("timings.properties"));
+        timings.record(TestTimings.nameOf(test("a")), 10000);
+        timings.record(TestTimings.nameOf(test("b")), 6000);
+        timings.record(TestTimings.nameOf(test("c")), 4000);
+        timings.record(TestTimings.nameOf(test("d")), 3000);
+        timings.record(TestTimings.nameOf(test("e")), 3000);
+
+        List<Description> first = TestShard.of(tests(), timings, 0, 2);
+        List<Description> second = TestShard.of(tests(), timings, 1, 2);
+
+        Assert.assertEquals(Arrays.asList(test("a"), test("d")), first);
+        Assert.assertEquals(Arrays.asList(test("b"), test("c"), test("e")), second);
+    }
+}
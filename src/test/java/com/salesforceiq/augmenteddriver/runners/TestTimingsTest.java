@@ -0,0 +1,70 @@
+package com.salesforceiq.augmenteddriver.runners;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestTimingsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Fixture {
+    }
+
+    public abstract static class Base {
+        public void shared() {}
+    }
+
+    public static class First extends Base {
+    }
+
+    public static class Second extends Base {
+    }
+
+    @Test
+    public void testLongestFirst() throws Exception {
+        Description fast = Description.createTestDescription(Fixture.class, "fast");
+        Description slow = Description.createTestDescription(Fixture.class, "slow");
+        Description unknown = Description.createTestDescription(Fixture.class, "unknown");
+
+        TestTimings timings = TestTimings.load(folder.getRoot().toPath().resolve("timings.properties"));
+        timings.record(TestTimings.nameOf(fast), 1000);
+        timings.record(TestTimings.nameOf(slow), 9000);
+
+        List<Description> sorted = timings.longestFirst(Arrays.asList(fast, unknown, slow));
+        Assert.assertEquals(Arrays.asList(slow, unknown, fast), sorted);
+        Assert.assertEquals(5000, timings.estimate(TestTimings.nameOf(unknown)));
+    }
+
+    @Test
+    public void testNamesAnInheritedTestByTheClassThatRunsIt() throws Exception {
+        Method shared = Base.class.getMethod("shared");
+        Description first = Description.createTestDescription(First.class, shared.getName());
+        Description second = Description.createTestDescription(Second.class, shared.getName());
+
+        Assert.assertEquals(First.class.getCanonicalName() + "#shared", TestTimings.nameOf(first));
+        Assert.assertEquals(Second.class.getCanonicalName() + "#shared", TestTimings.nameOf(second));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("results").resolve("timings.properties");
+        TestTimings timings = TestTimings.load(path);
+        Assert.assertTrue(timings.isEmpty());
+        timings.record("a.B#c", 1000);
+        timings.record("a.B#c", 3000);
+        timings.save();
+
+        TestTimings loaded = TestTimings.load(path);
+        Assert.assertEquals(Long.valueOf(2000), loaded.duration("a.B#c").get());
+        Assert.assertFalse(loaded.duration("a.B#d").isPresent());
+    }
+}
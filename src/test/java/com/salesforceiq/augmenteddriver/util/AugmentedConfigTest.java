@@ -0,0 +1,53 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.salesforceiq.augmenteddriver.modules.PropertiesModule;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+public class AugmentedConfigTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Map<String, String> DEFAULTS = ImmutableMap.of(
+            PropertiesModule.LOCAL_ADDRESS, "http://127.0.0.1:7777/wd/hub",
+            PropertiesModule.WAIT_IN_SECONDS, "30",
+            PropertiesModule.SESSIONS_PER_SECOND, "1",
+            PropertiesModule.POLLING_STRATEGY, "");
+
+    @Test
+    public void testAcceptsADecimalInADecimalProperty() throws IOException {
+        AugmentedConfig config = load(PropertiesModule.SESSIONS_PER_SECOND + "=1.5");
+
+        Assert.assertEquals(1.5, config.getDouble(PropertiesModule.SESSIONS_PER_SECOND), 0);
+        Assert.assertEquals(30, config.getInt(PropertiesModule.WAIT_IN_SECONDS));
+    }
+
+    @Test
+    public void testRejectsADecimalInAnIntProperty() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(PropertiesModule.WAIT_IN_SECONDS + " should be a whole number, got 1.5");
+
+        load(PropertiesModule.WAIT_IN_SECONDS + "=1.5");
+    }
+
+    private AugmentedConfig load(String extra) throws IOException {
+        File capabilities = new File(getClass().getClassLoader().getResource("converttest.yaml").getFile());
+        File conf = folder.newFile();
+        TestRunnerConfig.initialize(new String[] {
+                "-capabilities", capabilities.getCanonicalPath(),
+                "-conf", conf.getCanonicalPath(),
+                "-extra", extra});
+        return AugmentedConfig.load(DEFAULTS);
+    }
+}
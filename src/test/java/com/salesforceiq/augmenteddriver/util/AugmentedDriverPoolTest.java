@@ -0,0 +1,86 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+public class AugmentedDriverPoolTest {
+    private static final String ADDRESS = "http://127.0.0.1:7777/wd/hub";
+
+    @Test
+    public void testReusesSessionsWithTheSameCapabilities() throws Exception {
+        FakePool pool = new FakePool(true, 10);
+        FakeDriver first = pool.lease(ADDRESS, DesiredCapabilities.chrome());
+        pool.release(first, true);
+
+        Assert.assertSame(first, pool.lease(ADDRESS, DesiredCapabilities.chrome()));
+        Assert.assertEquals(1, first.resets);
+        Assert.assertNotSame(first, pool.lease(ADDRESS, DesiredCapabilities.firefox()));
+    }
+
+    @Test
+    public void testQuitsSessionsAfterMaxUsesOrFailures() throws Exception {
+        FakePool pool = new FakePool(true, 2);
+        FakeDriver driver = pool.lease(ADDRESS, DesiredCapabilities.chrome());
+        pool.release(driver, true);
+        pool.release(pool.lease(ADDRESS, DesiredCapabilities.chrome()), true);
+        Assert.assertTrue(driver.quit);
+
+        FakeDriver failed = pool.lease(ADDRESS, DesiredCapabilities.chrome());
+        Assert.assertNotSame(driver, failed);
+        pool.release(failed, false);
+        Assert.assertTrue(failed.quit);
+    }
+
+    @Test
+    public void testCreatesAndQuitsWhenDisabled() throws Exception {
+        FakePool pool = new FakePool(false, 10);
+        FakeDriver driver = pool.lease(ADDRESS, DesiredCapabilities.chrome());
+        pool.release(driver, true);
+
+        Assert.assertTrue(driver.quit);
+        Assert.assertEquals(0, driver.resets);
+    }
+
+    @Test
+    public void testHandsOutWarmSessionsEvenWhenDisabled() throws Exception {
+        FakePool pool = new FakePool(false, 10);
+        pool.warm(ADDRESS, DesiredCapabilities.chrome());
+        pool.warm(ADDRESS, DesiredCapabilities.chrome());
+        Assert.assertEquals(2, pool.idle(ADDRESS, DesiredCapabilities.chrome()));
+
+        FakeDriver warm = pool.lease(ADDRESS, DesiredCapabilities.chrome());
+        pool.release(warm, true);
+        Assert.assertTrue(warm.quit);
+
+        pool.trim(ADDRESS, DesiredCapabilities.chrome(), 0);
+        Assert.assertEquals(0, pool.idle(ADDRESS, DesiredCapabilities.chrome()));
+    }
+
+    private static class FakePool extends AugmentedDriverPool<FakeDriver> {
+        private FakePool(boolean enabled, int maxUses) {
+            super(new Store<>(), enabled, maxUses);
+        }
+
+        @Override
+        protected FakeDriver create(String remoteAddress, DesiredCapabilities capabilities) {
+            return new FakeDriver();
+        }
+
+        @Override
+        protected void reset(FakeDriver driver) {
+            driver.resets++;
+        }
+    }
+
+    private static class FakeDriver extends RemoteWebDriver {
+        private int resets;
+        private boolean quit;
+
+        @Override
+        public void quit() {
+            quit = true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.concurrent.TimeUnit;
+
+public class CommandMetricsTest {
+
+    @After
+    public void tearDown() {
+        CommandMetrics.finishTest();
+        CommandMetrics.reset();
+    }
+
+    @Test
+    public void testHistogramPercentilesAreWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        Assert.assertEquals(100, histogram.count());
+        Assert.assertEquals(100000, histogram.maxInMicros());
+        assertWithin(50000, histogram.percentileInMicros(50));
+        assertWithin(99000, histogram.percentileInMicros(99));
+        Assert.assertEquals(100000, histogram.percentileInMicros(100));
+    }
+
+    @Test
+    public void testBucketsCoverEveryValueOnce() {
+        for (long micros = 0; micros < 5000; micros++) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            Assert.assertTrue(micros <= LatencyHistogram.upperBoundOf(bucket));
+            Assert.assertTrue(bucket == 0 || micros > LatencyHistogram.upperBoundOf(bucket - 1));
+        }
+    }
+
+    @Test
+    public void testRecordsTheCommandsOfTheTest() {
+        CommandMetrics.startTest("MyTest#test");
+        CommandMetrics.record("findElements", "chrome", () -> "found");
+        try {
+            CommandMetrics.record("click", "chrome", () -> {
+                throw new IllegalStateException("not clickable");
+            });
+            Assert.fail("Should have propagated the failure");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        CommandTotals totals = CommandMetrics.finishTest();
+
+        Assert.assertEquals("MyTest#test", totals.getTestName());
+        Assert.assertEquals(2, totals.count());
+        Assert.assertEquals(1, totals.errors());
+        Assert.assertTrue(CommandMetrics.summary().contains("findElements"));
+        Assert.assertEquals(0, CommandMetrics.finishTest().count());
+    }
+
+    @Test
+    public void testDescribesTheCapabilities() {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("platformName", "Android");
+        capabilities.setCapability("platformVersion", "7.1");
+        capabilities.setCapability("deviceName", "Pixel");
+
+        Assert.assertEquals("Android 7.1 Pixel", CommandMetrics.capabilitiesOf(capabilities, null));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        Assert.assertTrue(String.format("Expected about %s, got %s", expected, actual),
+                actual >= expected && actual <= expected * 1.25);
+    }
+}
@@ -0,0 +1,133 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.remote.Response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class ElementObserverTest {
+
+    @Test
+    public void testTranslatesCssBys() {
+        Assert.assertEquals(Optional.of("div.card > a"), ElementObserver.cssSelector(By.cssSelector("div.card > a")));
+        Assert.assertEquals(Optional.of("[id=\"login\"]"), ElementObserver.cssSelector(By.id("login")));
+        Assert.assertEquals(Optional.of("[name=\"say \\\"hi\\\"\"]"), ElementObserver.cssSelector(By.name("say \"hi\"")));
+        Assert.assertEquals(Optional.of("[class~=\"button\"]"), ElementObserver.cssSelector(By.className("button")));
+        Assert.assertEquals(Optional.of("input"), ElementObserver.cssSelector(By.tagName("input")));
+    }
+
+    @Test
+    public void testDoesNotTranslateOtherBys() {
+        Assert.assertFalse(ElementObserver.cssSelector(By.xpath("//div")).isPresent());
+        Assert.assertFalse(ElementObserver.cssSelector(By.linkText("Home")).isPresent());
+    }
+
+    @Test
+    public void testReturnsTheObservedElement() {
+        FakeElement observed = new FakeElement(true);
+        FakeDriver driver = new FakeDriver(observed);
+
+        Assert.assertSame(observed, findVisible(driver, 5));
+        Assert.assertEquals(1, driver.scripts);
+        Assert.assertEquals(0, driver.finds);
+    }
+
+    @Test
+    public void testPollsWhenTheObservedElementIsNotVisible() {
+        FakeElement polled = new FakeElement(true);
+        FakeDriver driver = new FakeDriver(new FakeElement(false));
+        driver.found = polled;
+
+        Assert.assertSame(polled, findVisible(driver, 5));
+        Assert.assertEquals(1, driver.finds);
+    }
+
+    @Test
+    public void testPollsWhenTheScriptFails() {
+        FakeElement polled = new FakeElement(true);
+        FakeDriver driver = new FakeDriver(new WebDriverException("The page navigated"));
+        driver.found = polled;
+
+        Assert.assertSame(polled, findVisible(driver, 5));
+        Assert.assertEquals(1, driver.scripts);
+        Assert.assertEquals(1, driver.finds);
+    }
+
+    @Test
+    public void testObservesLongWaitsInSlicesWithoutChangingTheScriptTimeout() {
+        FakeElement polled = new FakeElement(true);
+        FakeDriver driver = new FakeDriver(null);
+        driver.found = polled;
+
+        Assert.assertSame(polled, findVisible(driver, 60));
+        Assert.assertEquals(ImmutableList.of(25000L, 25000L, 10000L), driver.slices);
+        Assert.assertEquals(ImmutableList.of(), driver.scriptTimeouts);
+    }
+
+    private static WebElement findVisible(FakeDriver driver, int timeoutInSeconds) {
+        return ElementObserver.findElementAfter(driver, driver, By.id("login"), ElementObserver.Condition.VISIBLE, null,
+                timeoutInSeconds, PollingStrategy.fixed(10));
+    }
+
+    private static class FakeDriver extends RemoteWebDriver {
+        private final Object scriptResult;
+        private final List<Long> scriptTimeouts = Lists.newArrayList();
+        private final List<Long> slices = Lists.newArrayList();
+        private WebElement found;
+        private int scripts;
+        private int finds;
+
+        private FakeDriver(Object scriptResult) {
+            this.scriptResult = scriptResult;
+        }
+
+        @Override
+        public Object executeAsyncScript(String script, Object... args) {
+            scripts++;
+            slices.add(((Number) args[args.length - 1]).longValue());
+            if (scriptResult instanceof WebDriverException) {
+                throw (WebDriverException) scriptResult;
+            }
+            return scriptResult;
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            finds++;
+            return found == null ? ImmutableList.of() : ImmutableList.of(found);
+        }
+
+        @Override
+        protected Response execute(String driverCommand, Map<String, ?> parameters) {
+            // The only command expected is the one that sets the script timeout, the name of its parameter depends
+            // on the protocol.
+            parameters.values().stream()
+                    .filter(value -> value instanceof Number)
+                    .forEach(value -> scriptTimeouts.add(((Number) value).longValue()));
+            return new Response();
+        }
+    }
+
+    private static class FakeElement extends RemoteWebElement {
+        private final boolean displayed;
+
+        private FakeElement(boolean displayed) {
+            this.displayed = displayed;
+        }
+
+        @Override
+        public boolean isDisplayed() {
+            return displayed;
+        }
+    }
+}
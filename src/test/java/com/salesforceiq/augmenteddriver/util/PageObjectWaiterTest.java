@@ -0,0 +1,52 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.StaleElementReferenceException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PageObjectWaiterTest {
+
+    private final PageObject page = new PageObject() { };
+
+    @Test
+    public void testIgnoresStaleElementsUntilTheConditionIsMet() {
+        AtomicInteger calls = new AtomicInteger();
+        PageObjectWaiter waiter = new PageObjectWaiter(5, PollingStrategy.fixed(1));
+
+        waiter.waitUntil(page, ignored -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new StaleElementReferenceException("stale");
+            }
+            return true;
+        });
+
+        Assert.assertEquals(3, WaitStatistics.lastPolls());
+    }
+
+    @Test
+    public void testTimesOutWithTheErrorMessage() {
+        PageObjectWaiter waiter = new PageObjectWaiter(0, PollingStrategy.fixed(1));
+
+        try {
+            waiter.waitUntil(page, ignored -> false, "never");
+            Assert.fail("Should have timed out");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("never"));
+        }
+    }
+
+    @Test
+    public void testStopsWhenInterrupted() {
+        PageObjectWaiter waiter = new PageObjectWaiter(60, PollingStrategy.fixed(1000));
+
+        Thread.currentThread().interrupt();
+        try {
+            waiter.waitUntil(page, ignored -> false);
+            Assert.fail("Should have been interrupted");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(Thread.interrupted());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PollingStrategyTest {
+
+    @Test
+    public void testExponentialDoublesUpToTheMax() {
+        PollingStrategy polling = PollingStrategy.parse("exponential:50,300");
+
+        Assert.assertEquals(50, polling.delayInMilliseconds(1));
+        Assert.assertEquals(100, polling.delayInMilliseconds(2));
+        Assert.assertEquals(200, polling.delayInMilliseconds(3));
+        Assert.assertEquals(300, polling.delayInMilliseconds(4));
+        Assert.assertEquals(300, polling.delayInMilliseconds(100));
+    }
+
+    @Test
+    public void testFastThenSlow() {
+        PollingStrategy polling = PollingStrategy.parse("fastThenSlow:50,2,500");
+
+        Assert.assertEquals(50, polling.delayInMilliseconds(2));
+        Assert.assertEquals(500, polling.delayInMilliseconds(3));
+    }
+
+    @Test
+    public void testJitterStaysWithinTheRatio() {
+        PollingStrategy polling = PollingStrategy.parse("jittered:0.2:fixed:1000");
+
+        for (int poll = 1; poll < 100; poll++) {
+            long delay = polling.delayInMilliseconds(poll);
+            Assert.assertTrue(String.valueOf(delay), delay >= 800 && delay <= 1200);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnknownStrategies() {
+        PollingStrategy.parse("linear:50");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidNumbers() {
+        PollingStrategy.parse("fixed:fast");
+    }
+}
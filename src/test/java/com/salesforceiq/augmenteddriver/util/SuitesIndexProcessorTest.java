@@ -0,0 +1,116 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SuitesIndexProcessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIndexesTheSuitesAtCompileTime() throws Exception {
+        Path source = folder.getRoot().toPath().resolve("src/com/example/tests/LoginTest.java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, ImmutableList.of(
+                "package com.example.tests;",
+                "import com.salesforceiq.augmenteddriver.util.Quarantine;",
+                "import com.salesforceiq.augmenteddriver.util.Suites;",
+                "import org.junit.Ignore;",
+                "import org.junit.Test;",
+                "@Suites({\"SMOKE\", \"NIGHTLY\"})",
+                "public class LoginTest {",
+                "    static { if (true) throw new IllegalStateException(\"should not be initialized\"); }",
+                "    @Test public void login() {}",
+                "    @Test @Quarantine public void logout() {}",
+                "    @Test @Ignore public void ignored() {}",
+                "}"), StandardCharsets.UTF_8);
+        File classes = folder.newFolder("classes");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = files.getJavaFileObjects(source.toFile());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, null,
+                    ImmutableList.of("-d", classes.getPath(), "-classpath", System.getProperty("java.class.path"), "-proc:only"),
+                    null, units);
+            task.setProcessors(ImmutableList.of(new SuitesIndexProcessor()));
+            Assert.assertTrue(task.call());
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, null)) {
+            SuitesIndex index = SuitesIndex.load(classLoader).get();
+            Assert.assertEquals(ImmutableList.of("com.example.tests.LoginTest"),
+                    index.classesOf(ImmutableList.of("smoke"), "com.example"));
+            Assert.assertEquals(ImmutableList.of(), index.classesOf(ImmutableList.of("REGRESSION"), "com.example"));
+            Assert.assertEquals(ImmutableList.of("login"), index.testsOf("com.example.tests.LoginTest", false));
+            Assert.assertEquals(ImmutableList.of("logout"), index.testsOf("com.example.tests.LoginTest", true));
+        }
+    }
+
+    @Test
+    public void testScansTheClassFilesWhenTheIndexIsOutOfDate() throws Exception {
+        File classes = folder.newFolder("classes");
+        compile(classes, "com.example.tests.LoginTest", "SMOKE");
+        // An incremental compile of another class, without the processor, leaves the index as it was.
+        compile(classes, "com.example.tests.LogoutTest", "SMOKE", "-proc:none");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classes.toURI().toURL()}, getClass().getClassLoader())) {
+            Assert.assertEquals(ImmutableList.of("com.example.tests.LoginTest"),
+                    SuitesIndex.load(classLoader).get().classesOf(ImmutableList.of("SMOKE"), "com.example"));
+            List<String> tests = TestsFinder.getTestsOfPackage(classLoader, ImmutableList.of("SMOKE"), "com.example", false);
+            Assert.assertEquals(2, tests.size());
+            Assert.assertTrue(tests.contains("com.example.tests.LoginTest#test"));
+            Assert.assertTrue(tests.contains("com.example.tests.LogoutTest#test"));
+        }
+    }
+
+    private void compile(File classes, String className, String suite, String... options) throws Exception {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        Path source = folder.getRoot().toPath().resolve("src/" + className.replace('.', '/') + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, ImmutableList.of(
+                "package " + className.substring(0, className.lastIndexOf('.')) + ";",
+                "import com.salesforceiq.augmenteddriver.util.Suites;",
+                "import org.junit.Test;",
+                "@Suites(\"" + suite + "\")",
+                "public class " + simpleName + " {",
+                "    @Test public void test() {}",
+                "}"), StandardCharsets.UTF_8);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            ImmutableList.Builder<String> arguments = ImmutableList.<String>builder()
+                    .add("-d", classes.getPath(), "-classpath", System.getProperty("java.class.path") + File.pathSeparator + classes.getPath())
+                    .add(options);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, null, arguments.build(), null,
+                    files.getJavaFileObjects(source.toFile()));
+            task.setProcessors(ImmutableList.of(new SuitesIndexProcessor()));
+            Assert.assertTrue(task.call());
+        }
+    }
+
+    @Test
+    public void testScansTheClassFilesWithoutLoadingThem() throws Exception {
+        SuitesScanner.ScannedClass four = SuitesScanner.scan(getClass().getClassLoader(), TestFour.class.getPackage().getName())
+                .stream()
+                .filter(scanned -> scanned.getClassName().equals(TestFour.class.getName()))
+                .findFirst()
+                .get();
+
+        Assert.assertEquals(ImmutableList.of(TestSuites.TEST, TestSuites.TEST2), four.getSuites());
+    }
+}
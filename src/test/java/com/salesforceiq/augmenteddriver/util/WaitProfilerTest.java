@@ -0,0 +1,56 @@
+package com.salesforceiq.augmenteddriver.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class WaitProfilerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        WaitProfiler.reset();
+    }
+
+    @Test
+    public void testWritesTheWaitsAndTheirTimeouts() throws Exception {
+        WaitProfiler profiler = new WaitProfiler(true);
+        Assert.assertEquals("found", profiler.profile("findElementPresentAfter", By.id("save"), () -> "found"));
+        try {
+            profiler.profile("waitElementToNotBePresent", By.id("save"), () -> {
+                throw new TimeoutException("still there");
+            });
+            Assert.fail("Should have thrown");
+        } catch (TimeoutException expected) {
+        }
+
+        Path results = folder.getRoot().toPath();
+        WaitProfiler.writeReport(results);
+
+        List<String> lines = Files.readAllLines(results.resolve("waits.txt"), StandardCharsets.UTF_8);
+        Assert.assertEquals(3, lines.size());
+        Assert.assertTrue(lines.get(0).contains("CALL SITE"));
+        Assert.assertTrue(lines.stream().anyMatch(line -> line.contains("findElementPresentAfter By.id: save")));
+        Assert.assertTrue(lines.stream().anyMatch(line -> line.matches("\\s*\\S+\\s+1\\s+1\\s+.*waitElementToNotBePresent.*")));
+    }
+
+    @Test
+    public void testRecordsNothingWhenDisabled() {
+        new WaitProfiler(false).profile("findElementPresentAfter", By.id("save"), () -> "found");
+
+        WaitProfiler.writeReport(folder.getRoot().toPath());
+
+        Assert.assertFalse(Files.exists(folder.getRoot().toPath().resolve("waits.txt")));
+    }
+}
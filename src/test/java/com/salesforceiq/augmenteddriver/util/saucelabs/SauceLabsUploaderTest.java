@@ -0,0 +1,100 @@
+package com.salesforceiq.augmenteddriver.util.saucelabs;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class SauceLabsUploaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private Map<String, byte[]> stored;
+    private List<String> uploaded;
+
+    @Before
+    public void setUp() throws Exception {
+        stored = Maps.newConcurrentMap();
+        uploaded = Collections.synchronizedList(Lists.newArrayList());
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/rest/v1/storage/user", exchange -> {
+            byte[] response;
+            if ("GET".equals(exchange.getRequestMethod())) {
+                response = String.format("{\"files\": [%s]}", stored.entrySet().stream()
+                        .map(entry -> String.format("{\"name\": \"%s\", \"md5\": \"%s\"}", entry.getKey(), md5(entry.getValue())))
+                        .collect(Collectors.joining(","))).getBytes(StandardCharsets.UTF_8);
+            } else {
+                String name = exchange.getRequestURI().getPath().substring("/rest/v1/storage/user/".length());
+                stored.put(name, ByteStreams.toByteArray(exchange.getRequestBody()));
+                uploaded.add(name);
+                response = "{}".getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testUploadsOnlyTheFilesThatChanged() throws Exception {
+        Path apk = folder.newFile("app.apk").toPath();
+        Path ipa = folder.newFile("app.ipa").toPath();
+        Files.write(apk, "apk".getBytes(StandardCharsets.UTF_8));
+        Files.write(ipa, "ipa".getBytes(StandardCharsets.UTF_8));
+        stored.put("app.apk", "apk".getBytes(StandardCharsets.UTF_8));
+        stored.put("app.ipa", "old ipa".getBytes(StandardCharsets.UTF_8));
+
+        SauceStorage storage = new HttpSauceStorage(String.format("http://localhost:%s/rest/v1/storage", server.getAddress().getPort()), "user", "key");
+        List<SauceLabsUploader.Upload> uploads = new SauceLabsUploader(storage).upload(Lists.newArrayList(apk, ipa), true, 2);
+
+        Assert.assertTrue(uploads.get(0).isSkipped());
+        Assert.assertFalse(uploads.get(1).isSkipped());
+        Assert.assertEquals(Collections.singletonList("app.ipa"), uploaded);
+        Assert.assertEquals("ipa", new String(stored.get("app.ipa"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMd5() throws Exception {
+        Path file = folder.newFile("empty.apk").toPath();
+
+        Assert.assertEquals("d41d8cd98f00b204e9800998ecf8427e", SauceLabsUploader.md5(file));
+        Files.write(file, "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("9e107d9d372bb6826bd81d3542a419d6", SauceLabsUploader.md5(file));
+    }
+
+    private static String md5(byte[] content) {
+        try {
+            Path file = Files.createTempFile("stored", ".bin");
+            Files.write(file, content);
+            String md5 = SauceLabsUploader.md5(file);
+            Files.delete(file);
+            return md5;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}